@@ -0,0 +1,68 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.CustomList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Базовый класс бенчмарков, сравнивающих {@code CustomArrayList} с {@code java.util.ArrayList}.
+ * Содержит общие параметры - размер списка и тип элементов, а также методы для заполнения списков
+ * одинаковыми данными.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class AbstractListBenchmark {
+    /**
+     * Начальное значение генератора случайных чисел, общее для всех бенчмарков.
+     */
+    static final long SEED = 42L;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"INTEGER", "STRING", "STUDENT"})
+    public ElementType type;
+
+    /**
+     * Элементы, которыми заполняются списки
+     */
+    Object[] data;
+
+    void generateData() {
+        data = type.generate(size, SEED);
+    }
+
+    CustomList<Object> newCustomList() {
+        CustomList<Object> list = new CustomArrayList<>();
+        for (Object element : data) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    List<Object> newArrayList() {
+        List<Object> list = new ArrayList<>();
+        for (Object element : data) {
+            list.add(element);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.kozhevnikov.CustomList;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Бенчмарки операций, не изменяющих список: {@code get}, {@code indexOf} и {@code subList}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@State(Scope.Benchmark)
+public class AccessBenchmark extends AbstractListBenchmark {
+    /**
+     * Количество обращений по индексу за один вызов бенчмарка {@code get}
+     */
+    private static final int GET_BATCH = 1024;
+
+    private CustomList<Object> customList;
+    private List<Object> arrayList;
+    private int[] indexes;
+    private Object middleElement;
+    private Object missingElement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generateData();
+        customList = newCustomList();
+        arrayList = newArrayList();
+
+        Random random = new Random(SEED);
+        indexes = new int[GET_BATCH];
+        for (int i = 0; i < GET_BATCH; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+        middleElement = data[size / 2];
+        missingElement = type.generate(1, SEED - 1)[0];
+    }
+
+    @Benchmark
+    public void customArrayListGet(Blackhole blackhole) {
+        for (int index : indexes) {
+            blackhole.consume(customList.get(index));
+        }
+    }
+
+    @Benchmark
+    public void arrayListGet(Blackhole blackhole) {
+        for (int index : indexes) {
+            blackhole.consume(arrayList.get(index));
+        }
+    }
+
+    @Benchmark
+    public int customArrayListIndexOf() {
+        return customList.indexOf(middleElement);
+    }
+
+    @Benchmark
+    public int arrayListIndexOf() {
+        return arrayList.indexOf(middleElement);
+    }
+
+    @Benchmark
+    public int customArrayListIndexOfMissing() {
+        return customList.indexOf(missingElement);
+    }
+
+    @Benchmark
+    public int arrayListIndexOfMissing() {
+        return arrayList.indexOf(missingElement);
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListSubList() {
+        return customList.subList(size / 4, size / 4 + size / 2);
+    }
+
+    @Benchmark
+    public List<Object> arrayListSubList() {
+        return arrayList.subList(size / 4, size / 4 + size / 2);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.CustomList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Бенчмарки добавления элементов: в конец списка ({@code add(E)}) и в середину
+ * списка ({@code add(int, E)}).
+ *
+ * <p>Вставка в середину занимает наносекунды, поэтому список не восстанавливается фикстурой
+ * уровня {@code Level.Invocation}, искажающей такие замеры: бенчмарк сам удаляет вставленный
+ * элемент и измеряет пару операций вставки и удаления.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@State(Scope.Benchmark)
+public class AddBenchmark extends AbstractListBenchmark {
+    private CustomList<Object> customList;
+    private List<Object> arrayList;
+    private Object inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generateData();
+        customList = newCustomList();
+        arrayList = newArrayList();
+        inserted = type.generate(1, SEED + 1)[0];
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListAdd() {
+        CustomList<Object> list = new CustomArrayList<>();
+        for (Object element : data) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<Object> arrayListAdd() {
+        List<Object> list = new ArrayList<>();
+        for (Object element : data) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListInsertMiddle() {
+        customList.add(size / 2, inserted);
+        customList.remove(size / 2);
+        return customList;
+    }
+
+    @Benchmark
+    public List<Object> arrayListInsertMiddle() {
+        arrayList.add(size / 2, inserted);
+        arrayList.remove(size / 2);
+        return arrayList;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.kozhevnikov.ConcurrentCustomArrayList;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.CustomList;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки чтения из списка, разделяемого несколькими потоками: {@code ConcurrentCustomArrayList}
+ * сравнивается с {@code CustomArrayList}, каждое обращение к которому выполняется в блоке
+ * {@code synchronized}. Пропускная способность чтения в зависимости от числа читающих потоков
+ * измеряется запуском с разными значениями {@code -t}, например {@code -t 1}, {@code -t 4}
+ * и {@code -t 8}. Группы {@code readWrite} измеряют чтение при одном постоянно пишущем потоке.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentReadBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private CustomList<Integer> concurrentList;
+    private CustomList<Integer> synchronizedList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        concurrentList = new ConcurrentCustomArrayList<>(size);
+        synchronizedList = new CustomArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            concurrentList.add(i);
+            synchronizedList.add(i);
+        }
+    }
+
+    @Benchmark
+    public Integer concurrentGet() {
+        return concurrentList.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    @Benchmark
+    public Integer synchronizedGet() {
+        int index = ThreadLocalRandom.current().nextInt(size);
+        synchronized (synchronizedList) {
+            return synchronizedList.get(index);
+        }
+    }
+
+    @Benchmark
+    @Group("concurrentReadWrite")
+    @GroupThreads(3)
+    public Integer concurrentReader() {
+        return concurrentList.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    @Benchmark
+    @Group("concurrentReadWrite")
+    @GroupThreads(1)
+    public void concurrentWriter() {
+        int index = ThreadLocalRandom.current().nextInt(size);
+        concurrentList.set(index, index);
+    }
+
+    @Benchmark
+    @Group("synchronizedReadWrite")
+    @GroupThreads(3)
+    public Integer synchronizedReader() {
+        int index = ThreadLocalRandom.current().nextInt(size);
+        synchronized (synchronizedList) {
+            return synchronizedList.get(index);
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedReadWrite")
+    @GroupThreads(1)
+    public void synchronizedWriter() {
+        int index = ThreadLocalRandom.current().nextInt(size);
+        synchronized (synchronizedList) {
+            synchronizedList.set(index, index);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.kozhevnikov.benchmark;
+
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Тип элементов, которыми заполняются списки в бенчмарках.
+ *
+ * @author Kozhevnikov Valentin
+ */
+public enum ElementType {
+    INTEGER {
+        @Override
+        Object create(Random random) {
+            return random.nextInt();
+        }
+
+        @Override
+        Comparator<Object> comparator() {
+            return Comparator.comparing(o -> (Integer) o);
+        }
+    },
+    STRING {
+        @Override
+        Object create(Random random) {
+            return "element-" + random.nextInt();
+        }
+
+        @Override
+        Comparator<Object> comparator() {
+            return Comparator.comparing(o -> (String) o);
+        }
+    },
+    STUDENT {
+        @Override
+        Object create(Random random) {
+            return new Student("student-" + random.nextInt(), 17 + random.nextInt(10),
+                    random.nextBoolean() ? 'm' : 'f', 1 + random.nextInt(5));
+        }
+
+        @Override
+        Comparator<Object> comparator() {
+            return Comparator.comparingInt((Object o) -> ((Student) o).getAge())
+                    .thenComparing(o -> ((Student) o).getName());
+        }
+    };
+
+    /**
+     * Создает случайный элемент данного типа.
+     *
+     * @param random источник случайных чисел
+     * @return новый элемент
+     */
+    abstract Object create(Random random);
+
+    /**
+     * Возвращает компаратор, задающий порядок элементов данного типа.
+     *
+     * @return компаратор для элементов данного типа
+     */
+    abstract Comparator<Object> comparator();
+
+    /**
+     * Создает массив случайных элементов данного типа. Для одинаковых {@code size} и {@code seed}
+     * результат всегда одинаков, что позволяет сравнивать прогоны между собой.
+     *
+     * @param size количество элементов
+     * @param seed начальное значение генератора случайных чисел
+     * @return массив элементов
+     */
+    Object[] generate(int size, long seed) {
+        Random random = new Random(seed);
+        Object[] data = new Object[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = create(random);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.CustomList;
+import ru.kozhevnikov.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки сортировки и {@code removeIf} на списках, заново заполняемых перед каждым вызовом
+ * фикстурой уровня {@code Level.Invocation}, поэтому заполнение не входит в замер. Такая фикстура
+ * искажает замеры коротких операций, поэтому бенчмарк запускается только для списков из
+ * 100 000 и 10 000 000 элементов, где одна операция занимает миллисекунды. Для остальных размеров
+ * те же операции измеряются в {@link SortBenchmark} и {@link RemoveBenchmark}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LargeListBenchmark {
+    @Param({"100000", "10000000"})
+    public int size;
+
+    @Param({"INTEGER", "STRING", "STUDENT"})
+    public ElementType type;
+
+    private Object[] data;
+    private Comparator<Object> comparator;
+    private CustomList<Object> customList;
+    private List<Object> arrayList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = type.generate(size, AbstractListBenchmark.SEED);
+        comparator = type.comparator();
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        customList = new CustomArrayList<>(size);
+        customList.addAll(data);
+        arrayList = new ArrayList<>(Arrays.asList(data));
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListSort() {
+        customList.sort(comparator);
+        return customList;
+    }
+
+    @Benchmark
+    public CustomList<Object> utilsMergeSort() {
+        Utils.mergeSort(customList, comparator);
+        return customList;
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListParallelSort() {
+        customList.parallelSort(comparator);
+        return customList;
+    }
+
+    @Benchmark
+    public List<Object> collectionsSort() {
+        Collections.sort(arrayList, comparator);
+        return arrayList;
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListRemoveIf() {
+        customList.removeIf(element -> (element.hashCode() & 1) == 0);
+        return customList;
+    }
+
+    @Benchmark
+    public List<Object> arrayListRemoveIf() {
+        arrayList.removeIf(element -> (element.hashCode() & 1) == 0);
+        return arrayList;
+    }
+}
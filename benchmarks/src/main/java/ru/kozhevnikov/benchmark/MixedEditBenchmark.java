@@ -0,0 +1,76 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.CustomList;
+import ru.kozhevnikov.TieredCustomArrayList;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки смешанной нагрузки редактирования: {@code TieredCustomArrayList} сравнивается
+ * с {@code CustomArrayList}. Одна операция состоит из вставки и удаления по случайным индексам,
+ * поэтому размер списка не меняется, и {@code reads} чтений по случайным индексам.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MixedEditBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0", "10"})
+    public int reads;
+
+    private CustomList<Integer> customList;
+    private CustomList<Integer> tieredList;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        customList = new CustomArrayList<>(size);
+        tieredList = new TieredCustomArrayList<>();
+        for (int i = 0; i < size; i++) {
+            customList.add(i);
+            tieredList.add(i);
+        }
+        random = new SplittableRandom(AbstractListBenchmark.SEED);
+    }
+
+    @Benchmark
+    public long customArrayListMixed() {
+        return edit(customList);
+    }
+
+    @Benchmark
+    public long tieredCustomArrayListMixed() {
+        return edit(tieredList);
+    }
+
+    private long edit(CustomList<Integer> list) {
+        list.add(random.nextInt(size), size);
+        list.remove(random.nextInt(size + 1));
+        long sum = 0;
+        for (int i = 0; i < reads; i++) {
+            sum += list.get(random.nextInt(size));
+        }
+        return sum;
+    }
+}
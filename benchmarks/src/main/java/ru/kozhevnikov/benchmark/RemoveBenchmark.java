@@ -0,0 +1,84 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.kozhevnikov.CustomList;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Бенчмарки удаления элементов: по индексу ({@code remove(int)}), по значению ({@code remove(E)})
+ * и по условию ({@code removeIf}).
+ *
+ * <p>Удаление по индексу и по значению выполняется из середины списка. Такие вызовы занимают
+ * наносекунды, поэтому список не восстанавливается фикстурой уровня {@code Level.Invocation},
+ * искажающей такие замеры: бенчмарк сам возвращает удаленный элемент на место и измеряет пару
+ * операций удаления и вставки. Для {@code removeIf} бенчмарк заново заполняет список данными
+ * перед удалением, одинаково для обоих списков; условие удаляет примерно половину элементов.
+ * Замеры {@code removeIf} на только что созданных списках без заполнения в замере приведены
+ * в {@link LargeListBenchmark}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@State(Scope.Benchmark)
+public class RemoveBenchmark extends AbstractListBenchmark {
+    private CustomList<Object> customList;
+    private List<Object> arrayList;
+    private Object middleElement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generateData();
+        customList = newCustomList();
+        arrayList = newArrayList();
+        middleElement = data[size / 2];
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListRemoveByIndex() {
+        customList.remove(size / 2);
+        customList.add(size / 2, middleElement);
+        return customList;
+    }
+
+    @Benchmark
+    public List<Object> arrayListRemoveByIndex() {
+        arrayList.remove(size / 2);
+        arrayList.add(size / 2, middleElement);
+        return arrayList;
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListRemoveByElement() {
+        customList.remove(middleElement);
+        customList.add(size / 2, middleElement);
+        return customList;
+    }
+
+    @Benchmark
+    public List<Object> arrayListRemoveByElement() {
+        arrayList.remove(middleElement);
+        arrayList.add(size / 2, middleElement);
+        return arrayList;
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListRemoveIf() {
+        customList.clear();
+        customList.addAll(data);
+        customList.removeIf(element -> (element.hashCode() & 1) == 0);
+        return customList;
+    }
+
+    @Benchmark
+    public List<Object> arrayListRemoveIf() {
+        arrayList.clear();
+        arrayList.addAll(Arrays.asList(data));
+        arrayList.removeIf(element -> (element.hashCode() & 1) == 0);
+        return arrayList;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.kozhevnikov.primitive.DoubleCustomArrayList;
+import ru.kozhevnikov.primitive.IntCustomArrayList;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки поиска значений в списках примитивных значений: {@code indexOf} отсутствующего
+ * значения (полный проход) и {@code count}. Методы {@code scalar*} запускаются в JVM без модуля
+ * {@code jdk.incubator.vector}, поэтому списки используют скалярный поиск; методы {@code vector*}
+ * выполняют те же операции в JVM с параметром {@code --add-modules jdk.incubator.vector}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ScanBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private IntCustomArrayList ints;
+    private DoubleCustomArrayList doubles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(AbstractListBenchmark.SEED);
+        ints = new IntCustomArrayList(size);
+        doubles = new DoubleCustomArrayList(size);
+        for (int i = 0; i < size; i++) {
+            int value = random.nextInt(100);
+            ints.add(value);
+            doubles.add(value);
+        }
+    }
+
+    @Benchmark
+    @Fork(1)
+    public int scalarIntIndexOf() {
+        return ints.indexOf(-1);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public int vectorIntIndexOf() {
+        return ints.indexOf(-1);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public int scalarIntCount() {
+        return ints.count(42);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public int vectorIntCount() {
+        return ints.count(42);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public int scalarDoubleIndexOf() {
+        return doubles.indexOf(-1.0);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public int vectorDoubleIndexOf() {
+        return doubles.indexOf(-1.0);
+    }
+}
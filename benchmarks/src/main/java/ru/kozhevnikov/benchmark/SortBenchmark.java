@@ -0,0 +1,73 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.kozhevnikov.CustomList;
+import ru.kozhevnikov.Utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Бенчмарки сортировки: {@code CustomArrayList.sort}, {@code Utils.mergeSort},
+ * {@code CustomList.parallelSort} и {@code Collections.sort} для {@code java.util.ArrayList}.
+ *
+ * <p>Для небольших списков фикстура уровня {@code Level.Invocation} искажает замеры, поэтому
+ * бенчмарк сам заполняет список неотсортированными данными перед сортировкой, одинаково для
+ * обоих списков. Замеры сортировки без заполнения в замере приведены в {@link LargeListBenchmark}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@State(Scope.Benchmark)
+public class SortBenchmark extends AbstractListBenchmark {
+    private Comparator<Object> comparator;
+    private CustomList<Object> customList;
+    private List<Object> arrayList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generateData();
+        comparator = type.comparator();
+        customList = newCustomList();
+        arrayList = newArrayList();
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListSort() {
+        refill(customList);
+        customList.sort(comparator);
+        return customList;
+    }
+
+    @Benchmark
+    public CustomList<Object> utilsMergeSort() {
+        refill(customList);
+        Utils.mergeSort(customList, comparator);
+        return customList;
+    }
+
+    @Benchmark
+    public CustomList<Object> customArrayListParallelSort() {
+        refill(customList);
+        customList.parallelSort(comparator);
+        return customList;
+    }
+
+    @Benchmark
+    public List<Object> collectionsSort() {
+        arrayList.clear();
+        arrayList.addAll(Arrays.asList(data));
+        Collections.sort(arrayList, comparator);
+        return arrayList;
+    }
+
+    private void refill(CustomList<Object> list) {
+        list.clear();
+        list.addAll(data);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.kozhevnikov.benchmark;
+
+import java.util.Objects;
+
+/**
+ * POJO, используемый в бенчмарках в качестве элемента списка наряду с {@code Integer} и {@code String}.
+ * Повторяет структуру тестового класса {@code Student}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+public class Student {
+    private final String name;
+    private final int age;
+    private final char sex;
+    private final int course;
+
+    public Student(String name, int age, char sex, int course) {
+        this.name = name;
+        this.age = age;
+        this.sex = sex;
+        this.course = course;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public char getSex() {
+        return sex;
+    }
+
+    public int getCourse() {
+        return course;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Student student = (Student) o;
+        return age == student.age && sex == student.sex && course == student.course && Objects.equals(name, student.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, age, sex, course);
+    }
+
+    @Override
+    public String toString() {
+        return "Student{" +
+                "name='" + name + '\'' +
+                ", age=" + age +
+                ", sex=" + sex +
+                ", course=" + course +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package ru.kozhevnikov.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.Utils;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки выбора {@code k} наименьших элементов: полная сортировка копии списка,
+ * {@code partialSort} копии списка и {@code Utils.topK}, не копирующий список.
+ *
+ * @author Kozhevnikov Valentin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"100"})
+    public int k;
+
+    private CustomArrayList<Integer> list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(AbstractListBenchmark.SEED);
+        list = new CustomArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(random.nextInt());
+        }
+    }
+
+    @Benchmark
+    public Integer fullSort() {
+        CustomArrayList<Integer> copy = list.copyOfRange(0, size);
+        copy.sort(Comparator.naturalOrder());
+        return copy.get(k - 1);
+    }
+
+    @Benchmark
+    public Integer partialSort() {
+        CustomArrayList<Integer> copy = list.copyOfRange(0, size);
+        copy.partialSort(k, Comparator.naturalOrder());
+        return copy.get(k - 1);
+    }
+
+    @Benchmark
+    public Integer topK() {
+        return Utils.topK(list, k, Comparator.naturalOrder()).get(k - 1);
+    }
+}
@@ -0,0 +1,509 @@
+package ru.kozhevnikov;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Потокобезопасная реализация интерфейса {@code CustomList}, допускающая только добавление
+ * элементов в конец списка. Рассчитана на большое количество потоков, одновременно вызывающих
+ * {@link #add(Object)}, и не использует блокировок.
+ *
+ * <p>Элементы хранятся в блоках, размер которых удваивается: первый блок вмещает 16 элементов,
+ * второй - 32 и так далее. Новый блок добавляется в каталог блоков без копирования
+ * существующих, поэтому увеличение списка не задерживает добавляющие потоки.
+ *
+ * <p>Добавляющий поток атомарно получает номер ячейки из счетчика, записывает в нее элемент
+ * и продвигает границу опубликованных элементов - длину непрерывного начала списка, в котором
+ * заполнены все ячейки. Методы {@link #get(int)}, {@link #size()} и {@link #iterator()} видят
+ * только элементы до этой границы, то есть только полностью записанные элементы, без пропусков.
+ * Поскольку пустая ячейка означает неопубликованный элемент, список не допускает {@code null}.
+ *
+ * <p>Операции, удаляющие или изменяющие элементы, а также вставка в середину списка
+ * не поддерживаются и выбрасывают {@code UnsupportedOperationException}.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see ConcurrentCustomArrayList
+ */
+public class AppendOnlyCustomList<E> implements CustomList<E> {
+    /**
+     * Двоичный логарифм размера первого блока
+     */
+    private static final int FIRST_CHUNK_SHIFT = 4;
+    private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_SHIFT;
+    /**
+     * Максимальный размер списка, при котором номер ячейки не переполняет {@code int}
+     */
+    static final int MAX_SIZE = Integer.MAX_VALUE - FIRST_CHUNK_SIZE;
+    /**
+     * Количество блоков, достаточное для хранения {@link #MAX_SIZE} элементов
+     */
+    private static final int MAX_CHUNKS = 32 - FIRST_CHUNK_SHIFT;
+
+    /**
+     * Каталог блоков. Блок с номером {@code k} вмещает {@code 16 * 2^k} элементов
+     */
+    private final AtomicReferenceArray<AtomicReferenceArray<Object>> chunks =
+            new AtomicReferenceArray<>(MAX_CHUNKS);
+    /**
+     * Количество выданных ячеек
+     */
+    private final AtomicInteger reserved = new AtomicInteger();
+    /**
+     * Граница опубликованных элементов: все ячейки до нее заполнены
+     */
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * Конструктор для создания пустого списка.
+     */
+    public AppendOnlyCustomList() {
+    }
+
+    /**
+     * Добавляет передаваемый элемент в конец списка. Может вызываться из нескольких
+     * потоков одновременно; взаимный порядок элементов, добавленных разными потоками,
+     * определяется порядком получения ячеек.
+     *
+     * @param element элемент, добавляемый в список
+     * @throws NullPointerException если элемент равен {@code null}
+     * @throws IllegalStateException если список достиг максимального размера
+     */
+    @Override
+    public void add(E element) {
+        Objects.requireNonNull(element);
+        int index = reserve(1);
+        store(index, element);
+        advancePublished();
+    }
+
+    @Override
+    public void addAll(CustomList<? extends E> list) {
+        Object[] elements = new Object[list.size()];
+        int count = 0;
+        for (E element : list) {
+            if (count == elements.length) {
+                elements = Arrays.copyOf(elements, count * 2 + 1);
+            }
+            elements[count++] = element;
+        }
+        appendAll(elements, count);
+    }
+
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        Object[] elements = collection.toArray();
+        appendAll(elements, elements.length);
+    }
+
+    @Override
+    public void addAll(E[] elements) {
+        appendAll(elements, elements.length);
+    }
+
+    /**
+     * Добавляет элементы одним непрерывным участком, получая все ячейки одной атомарной операцией.
+     */
+    private void appendAll(Object[] elements, int count) {
+        for (int i = 0; i < count; i++) {
+            Objects.requireNonNull(elements[i]);
+        }
+        if (count == 0) {
+            return;
+        }
+        int begin = reserve(count);
+        for (int i = 0; i < count; i++) {
+            store(begin + i, elements[i]);
+        }
+        advancePublished();
+    }
+
+    private int reserve(int count) {
+        int index;
+        do {
+            index = reserved.get();
+            if (count > MAX_SIZE - index)
+                throw new IllegalStateException("List is full");
+        } while (!reserved.compareAndSet(index, index + count));
+        return index;
+    }
+
+    /**
+     * Записывает элемент в ячейку, при необходимости создавая блок. Если несколько потоков
+     * одновременно создают один и тот же блок, в каталог попадает только один из них.
+     */
+    private void store(int index, Object element) {
+        int chunkIndex = chunkIndex(index);
+        AtomicReferenceArray<Object> chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunk = allocateChunk(chunkIndex);
+        }
+        chunk.set(offsetInChunk(index, chunkIndex), element);
+    }
+
+    private AtomicReferenceArray<Object> allocateChunk(int chunkIndex) {
+        AtomicReferenceArray<Object> chunk = new AtomicReferenceArray<>(FIRST_CHUNK_SIZE << chunkIndex);
+        if (chunks.compareAndSet(chunkIndex, null, chunk)) {
+            return chunk;
+        }
+        return chunks.get(chunkIndex);
+    }
+
+    /**
+     * Продвигает границу опубликованных элементов до первой пустой ячейки. Вызывается каждым
+     * потоком после записи элемента, поэтому поток, записавший элемент последним, продвигает
+     * границу и за элементы, записанные раньше него, но после пустой ячейки. Запись элемента
+     * и чтение ячеек выполняются как volatile-операции: это гарантирует, что из двух потоков,
+     * одновременно записывающих соседние ячейки, хотя бы один увидит ячейку другого.
+     */
+    private void advancePublished() {
+        int current = published.get();
+        while (true) {
+            int limit = Math.min(reserved.get(), MAX_SIZE);
+            int next = current;
+            while (next < limit && slot(next) != null) {
+                next++;
+            }
+            if (next == current) {
+                return;
+            }
+            if (published.compareAndSet(current, next)) {
+                current = next;
+            } else {
+                current = published.get();
+            }
+        }
+    }
+
+    private Object slot(int index) {
+        int chunkIndex = chunkIndex(index);
+        AtomicReferenceArray<Object> chunk = chunks.get(chunkIndex);
+        return chunk == null ? null : chunk.get(offsetInChunk(index, chunkIndex));
+    }
+
+    private static int chunkIndex(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index + FIRST_CHUNK_SIZE) - FIRST_CHUNK_SHIFT;
+    }
+
+    private static int offsetInChunk(int index, int chunkIndex) {
+        return index + FIRST_CHUNK_SIZE - (FIRST_CHUNK_SIZE << chunkIndex);
+    }
+
+    /**
+     * Не поддерживается: список допускает добавление только в конец.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void add(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает опубликованный элемент списка по его индексу.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public E get(int index) {
+        int size = published.get();
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+        return (E) slot(index);
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия. Просматриваются элементы, опубликованные на момент вызова.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int indexOf(E element) {
+        if (element == null) return -1;
+        int size = published.get();
+        for (int i = 0; i < size; i++) {
+            if (element.equals(slot(i))) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия. Просматриваются элементы, опубликованные на момент вызова.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        if (element == null) return -1;
+        for (int i = published.get() - 1; i >= 0; i--) {
+            if (element.equals(slot(i))) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public boolean remove(E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает количество опубликованных элементов списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return published.get();
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление. Для получения отсортированной
+     * копии следует отсортировать результат {@link #copyOfRange(int, int)}.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void parallelSort(Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление. Для выбора наименьших элементов
+     * без изменения списка следует использовать {@link Utils#topK(CustomList, int, Comparator)}.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public E nthElement(int k, Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void partialSort(int k, Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}. Возвращаемый список не связан
+     * с этим списком.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomList<E> subList(int begin, int end) {
+        return copyOfRange(begin, end);
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomArrayList<E> copyOfRange(int begin, int end) {
+        int size = published.get();
+        if (begin < 0 || begin > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size));
+        if (end > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        if (begin > end) throw new IllegalArgumentException();
+
+        CustomArrayList<E> copy = new CustomArrayList<>(end - begin);
+        for (int i = begin; i < end; i++) {
+            copy.add((E) slot(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Не поддерживается: список допускает только добавление.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void set(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Заранее создает блоки, необходимые для хранения {@code minCapacity} элементов, чтобы
+     * добавляющие потоки не тратили время на их выделение.
+     *
+     * @param minCapacity требуемая минимальная вместимость
+     */
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= 0) {
+            return;
+        }
+        int lastChunk = chunkIndex(Math.min(minCapacity, MAX_SIZE) - 1);
+        for (int k = 0; k <= lastChunk; k++) {
+            if (chunks.get(k) == null) {
+                allocateChunk(k);
+            }
+        }
+    }
+
+    /**
+     * Возвращает итератор по элементам, опубликованным на момент вызова, в правильной
+     * последовательности. Элементы, добавленные после создания итератора, не просматриваются.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return iterator(published.get());
+    }
+
+    private Iterator<E> iterator(int size) {
+        return new Iterator<E>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return (E) slot(currentIndex++);
+            }
+        };
+    }
+
+    /**
+     * Возвращает {@code Spliterator} по элементам, опубликованным на момент вызова.
+     *
+     * @return {@code Spliterator} по элементам этого списка
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        int size = published.get();
+        return Spliterators.spliterator(iterator(size), size, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomList<?>)) return false;
+        return copyOfRange(0, size()).equals(o);
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
+     * на основе содержимого спсика.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (E element : this) {
+            result = 31 * result + element.hashCode();
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        return copyOfRange(0, size()).toString();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.kozhevnikov;
+
+import java.util.function.Predicate;
+
+/**
+ * Фильтрация участка массива на месте за один проход, используемая методами
+ * {@link CustomArrayList#removeIf(Predicate)}, {@link CustomList#removeAll(java.util.Collection)}
+ * и {@link CustomList#retainAll(java.util.Collection)}.
+ *
+ * <p>Условие сначала вычисляется для всех элементов участка, а результаты запоминаются в битовой
+ * карте. Массив изменяется только после этого, поэтому исключение, выброшенное условием, оставляет
+ * участок нетронутым. Затем сохраняемые элементы сдвигаются к началу участка за один проход,
+ * так что фильтрация занимает O(n) вместо O(n^2) при поэлементном удалении.
+ *
+ * @author Kozhevnikov Valentin
+ */
+final class ArrayFilter {
+
+    private ArrayFilter() {
+    }
+
+    /**
+     * Вычисляет условие для каждого элемента участка {@code a[begin, end)}, не изменяя массив,
+     * и возвращает битовую карту удаляемых элементов: бит {@code i} соответствует элементу
+     * {@code a[begin + i]}.
+     *
+     * @param a массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param filter условие, в соответствии с которым элементы удаляются
+     * @param <E> тип элементов массива
+     * @return битовая карта удаляемых элементов или {@code null}, если ни один элемент
+     * не удовлетворяет условию
+     */
+    static <E> long[] mark(Object[] a, int begin, int end, Predicate<? super E> filter) {
+        long[] removed = null;
+        for (int i = begin; i < end; i++) {
+            if (filter.test((E) a[i])) {
+                if (removed == null) {
+                    removed = new long[((end - begin - 1) >> 6) + 1];
+                }
+                int bit = i - begin;
+                removed[bit >> 6] |= 1L << bit;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Сдвигает к началу участка {@code a[begin, end)} элементы, не отмеченные в битовой карте,
+     * сохраняя их взаимный порядок, и возвращает индекс, следующий за последним сохраненным
+     * элементом. Содержимое массива от возвращаемого индекса до {@code end} после вызова
+     * не определено и должно быть удалено вызывающим кодом.
+     *
+     * @param a массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param removed битовая карта удаляемых элементов, полученная методом {@link #mark}
+     * @return новый конечный индекс участка
+     */
+    static int compact(Object[] a, int begin, int end, long[] removed) {
+        int newEnd = begin;
+        for (int i = begin; i < end; i++) {
+            int bit = i - begin;
+            if ((removed[bit >> 6] & (1L << bit)) == 0) {
+                a[newEnd++] = a[i];
+            }
+        }
+        return newEnd;
+    }
+}
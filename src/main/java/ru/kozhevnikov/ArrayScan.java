@@ -0,0 +1,51 @@
+package ru.kozhevnikov;
+
+/**
+ * Поиск элементов в участке массива ссылок для списков, основанных на массиве. Поиск допускает
+ * {@code null} как в массиве, так и в качестве искомого элемента: {@code null} ищется сравнением
+ * ссылок без вызова {@code equals}. Для остальных элементов сначала сравниваются ссылки, и
+ * {@code equals} вызывается только для элементов, не совпадающих с искомым по ссылке.
+ *
+ * @author Kozhevnikov Valentin
+ */
+final class ArrayScan {
+
+    private ArrayScan() {
+    }
+
+    /**
+     * Возвращает индекс первого элемента массива от {@code begin} включительно до {@code end},
+     * равного {@code element}, или -1 в случае его отсутствия.
+     */
+    static int indexOf(Object[] a, int begin, int end, Object element) {
+        if (element == null) {
+            for (int i = begin; i < end; i++) {
+                if (a[i] == null) return i;
+            }
+        } else {
+            for (int i = begin; i < end; i++) {
+                Object candidate = a[i];
+                if (candidate == element || element.equals(candidate)) return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента массива от {@code begin} включительно до {@code end},
+     * равного {@code element}, или -1 в случае его отсутствия.
+     */
+    static int lastIndexOf(Object[] a, int begin, int end, Object element) {
+        if (element == null) {
+            for (int i = end - 1; i >= begin; i--) {
+                if (a[i] == null) return i;
+            }
+        } else {
+            for (int i = end - 1; i >= begin; i--) {
+                Object candidate = a[i];
+                if (candidate == element || element.equals(candidate)) return i;
+            }
+        }
+        return -1;
+    }
+}
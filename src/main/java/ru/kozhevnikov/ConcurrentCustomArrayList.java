@@ -0,0 +1,687 @@
+package ru.kozhevnikov;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+/**
+ * Потокобезопасная реализация интерфейса {@code CustomList} на основе массива, рассчитанная
+ * на преобладание чтений над изменениями. Позволяет хранить все элементы, включая {@code null}.
+ *
+ * <p>Все изменяющие операции выполняются под блокировкой записи {@link StampedLock}
+ * и, следовательно, упорядочены между собой. Методы чтения ({@code get}, {@code size},
+ * {@code indexOf}, {@code iterator} и другие) не захватывают блокировку: они выполняются
+ * оптимистически и проверяют, не было ли за это время изменений. Только если изменение
+ * произошло, чтение повторяется под блокировкой чтения. Поэтому читатели не мешают друг другу,
+ * и пропускная способность чтения растет с числом читающих потоков.
+ *
+ * <p>Итератор, а также методы {@link #subList(int, int)} и {@link #copyOfRange(int, int)}
+ * работают с согласованной копией элементов, сделанной в момент вызова, и не отражают
+ * последующих изменений. Итератор не поддерживает удаление.
+ *
+ * <p>Составные действия (например, проверка {@code contains} и последующий {@code add})
+ * не являются атомарными.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see CustomArrayList
+ */
+public class ConcurrentCustomArrayList<E> implements CustomList<E> {
+    private final StampedLock lock = new StampedLock();
+    /**
+     * Массив, содержащий элементы списка. Изменяется только под блокировкой записи
+     */
+    private Object[] elementData;
+    /**
+     * Размер списка. Изменяется только под блокировкой записи
+     */
+    private int size;
+
+    /**
+     * Конструктор для создания пустого списка с вместимостью 10.
+     */
+    public ConcurrentCustomArrayList() {
+        this(10);
+    }
+
+    /**
+     * Конструктор для создания пустого списка с указанной вместимостью.
+     *
+     * @param initCapacity начальная вместимость списка
+     * @throws IllegalArgumentException в случае передачи отрицательной
+     * вместимости
+     */
+    public ConcurrentCustomArrayList(int initCapacity) {
+        if (initCapacity < 0)
+            throw new IllegalArgumentException("Illegal capacity");
+        elementData = new Object[initCapacity];
+    }
+
+    /**
+     * Добавляет передаваемый элемент в конец списка.
+     *
+     * @param element элемент, добавляемый в список
+     */
+    @Override
+    public void add(E element) {
+        long stamp = lock.writeLock();
+        try {
+            ensureCapacityInternal(size + 1);
+            elementData[size++] = element;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Добавляет передаваемый элемент в указанное место списка по индексу.
+     * Сдвигает все элементы, следующие за указанным, на одну позицию вправо.
+     *
+     * @param index индекс, по которому элемент будет добавлен в список
+     * @param element элемент, добавляемый в список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void add(int index, E element) {
+        long stamp = lock.writeLock();
+        try {
+            checkIndexRange(index, size);
+            ensureCapacityInternal(size + 1);
+            System.arraycopy(elementData, index, elementData, index + 1, size - index);
+            elementData[index] = element;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addAll(CustomList<? extends E> list) {
+        Object[] elements = toArray(list);
+        long stamp = lock.writeLock();
+        try {
+            insertRange(size, elements);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        Object[] elements = collection.toArray();
+        long stamp = lock.writeLock();
+        try {
+            insertRange(size, elements);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addAll(E[] elements) {
+        Object[] copy = Arrays.copyOf(elements, elements.length, Object[].class);
+        long stamp = lock.writeLock();
+        try {
+            insertRange(size, copy);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addAll(int index, CustomList<? extends E> list) {
+        Object[] elements = toArray(list);
+        long stamp = lock.writeLock();
+        try {
+            checkPositionIndex(index, size);
+            insertRange(index, elements);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addAll(int index, Collection<? extends E> collection) {
+        Object[] elements = collection.toArray();
+        long stamp = lock.writeLock();
+        try {
+            checkPositionIndex(index, size);
+            insertRange(index, elements);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addAll(int index, E[] elements) {
+        Object[] copy = Arrays.copyOf(elements, elements.length, Object[].class);
+        long stamp = lock.writeLock();
+        try {
+            checkPositionIndex(index, size);
+            insertRange(index, copy);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Копирует элементы передаваемого списка до захвата блокировки. Если передан этот же
+     * список, копия делается согласованным чтением.
+     */
+    private Object[] toArray(CustomList<? extends E> list) {
+        if (list == this) {
+            return snapshot();
+        }
+        Object[] elements = new Object[list.size()];
+        int i = 0;
+        for (E element : list) {
+            if (i == elements.length) {
+                elements = Arrays.copyOf(elements, i + 1);
+            }
+            elements[i++] = element;
+        }
+        return i == elements.length ? elements : Arrays.copyOf(elements, i);
+    }
+
+    private void insertRange(int index, Object[] elements) {
+        ensureCapacityInternal(size + elements.length);
+        System.arraycopy(elementData, index, elementData, index + elements.length, size - index);
+        System.arraycopy(elements, 0, elementData, index, elements.length);
+        size += elements.length;
+    }
+
+    /**
+     * Возвращает элемент из списка по его индексу. Не захватывает блокировку, если список
+     * не изменялся во время чтения.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public E get(int index) {
+        long stamp = lock.tryOptimisticRead();
+        Object[] a = elementData;
+        int s = size;
+        Object element = index >= 0 && index < s && index < a.length ? a[index] : null;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                s = size;
+                element = index >= 0 && index < s ? elementData[index] : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        checkIndexRange(index, s);
+        return (E) element;
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int indexOf(E element) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object[] a = elementData;
+            int index = ArrayScan.indexOf(a, 0, Math.min(size, a.length), element);
+            if (lock.validate(stamp)) {
+                return index;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return ArrayScan.indexOf(elementData, 0, size, element);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object[] a = elementData;
+            int index = ArrayScan.lastIndexOf(a, 0, Math.min(size, a.length), element);
+            if (lock.validate(stamp)) {
+                return index;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return ArrayScan.lastIndexOf(elementData, 0, size, element);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу. Сдвигает все элементы,
+     * следующие за удаляемым, на одну позицию влево.
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void remove(int index) {
+        long stamp = lock.writeLock();
+        try {
+            checkIndexRange(index, size);
+            removeRangeInternal(index, index + 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет перый элемент из списка, соответсвующий переданному элементу, в случае
+     * его наличия. Поиск и удаление выполняются атомарно.
+     *
+     * @param element жлемент, который необходимо удалить из списка
+     * @return {@code true} если список содержит указанный элемент
+     */
+    @Override
+    public boolean remove(E element) {
+        long stamp = lock.writeLock();
+        try {
+            int index = ArrayScan.indexOf(elementData, 0, size, element);
+            if (index == -1) {
+                return false;
+            }
+            removeRangeInternal(index, index + 1);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeRange(int begin, int end) {
+        long stamp = lock.writeLock();
+        try {
+            checkSubListRange(begin, end, size);
+            removeRangeInternal(begin, end);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void removeRangeInternal(int begin, int end) {
+        System.arraycopy(elementData, end, elementData, begin, size - end);
+        int newSize = size - (end - begin);
+        Arrays.fill(elementData, newSize, size, null);
+        size = newSize;
+    }
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию, за один проход.
+     * Условие вычисляется под блокировкой записи, поэтому оно не должно обращаться к этому списку.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     */
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        if (filter == null)
+            throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            long[] removed = ArrayFilter.mark(elementData, 0, size, filter);
+            if (removed != null) {
+                int newSize = ArrayFilter.compact(elementData, 0, size, removed);
+                Arrays.fill(elementData, newSize, size, null);
+                size = newSize;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет все элементы из списка.
+     */
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(elementData, 0, size, null);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Возвращает размер списка. Не захватывает блокировку, если список
+     * не изменялся во время чтения.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int s = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                s = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Сортирует список так же, как {@link CustomArrayList#sort(Comparator)}. Сортировка
+     * выполняется под блокировкой записи.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     */
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        long stamp = lock.writeLock();
+        try {
+            IntroSort.sort(elementData, 0, size, comparator);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Сортирует список так же, как {@link CustomArrayList#parallelSort(Comparator)}. Сортировка
+     * выполняется под блокировкой записи.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     */
+    @Override
+    public void parallelSort(Comparator<? super E> comparator) {
+        long stamp = lock.writeLock();
+        try {
+            ParallelMergeSort.sort(elementData, 0, size, comparator, ForkJoinPool.commonPool(),
+                    ParallelMergeSort.DEFAULT_THRESHOLD);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Выбирает элемент для позиции {@code k} так же, как {@link CustomList#nthElement(int, Comparator)}.
+     * Выбор выполняется под блокировкой записи.
+     *
+     * @param k индекс выбираемого элемента
+     * @param comparator компаратор, задающий порядок элементов
+     * @return элемент, оказавшийся на позиции {@code k}
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    @Override
+    public E nthElement(int k, Comparator<? super E> comparator) {
+        long stamp = lock.writeLock();
+        try {
+            checkIndexRange(k, size);
+            IntroSort.select(elementData, 0, size, k, comparator);
+            return (E) elementData[k];
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Сортирует {@code k} наименьших элементов так же, как
+     * {@link CustomList#partialSort(int, Comparator)}. Сортировка выполняется под блокировкой записи.
+     *
+     * @param k количество сортируемых наименьших элементов
+     * @param comparator компаратор, задающий порядок элементов
+     * @throws IllegalArgumentException если {@code k} отрицательное или больше размера списка
+     */
+    @Override
+    public void partialSort(int k, Comparator<? super E> comparator) {
+        long stamp = lock.writeLock();
+        try {
+            if (k < 0 || k > size)
+                throw new IllegalArgumentException("Illegal k: " + k);
+            IntroSort.partialSort(elementData, 0, size, k, comparator);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end} в момент вызова. Возвращаемый
+     * список не связан с этим списком.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomList<E> subList(int begin, int end) {
+        return copyOfRange(begin, end);
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end} в момент вызова.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomArrayList<E> copyOfRange(int begin, int end) {
+        Object[] range;
+        long stamp = lock.readLock();
+        try {
+            checkSubListRange(begin, end, size);
+            range = Arrays.copyOfRange(elementData, begin, end);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return toCustomArrayList(range);
+    }
+
+    /**
+     * Производит замену элемента списка с передаваемым индексом на передаваемый элемент.
+     *
+     * @param index индекс заменяемого элемента
+     * @param element элемент, на который будет произведена замена
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    @Override
+    public void set(int index, E element) {
+        long stamp = lock.writeLock();
+        try {
+            checkIndexRange(index, size);
+            elementData[index] = element;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        long stamp = lock.writeLock();
+        try {
+            if (minCapacity > elementData.length) {
+                elementData = Arrays.copyOf(elementData, minCapacity);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void trimToSize() {
+        long stamp = lock.writeLock();
+        try {
+            if (size < elementData.length) {
+                elementData = Arrays.copyOf(elementData, size);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Возвращает итератор по копии элементов этого списка, сделанной в момент вызова.
+     * Итератор не отражает последующих изменений списка и не поддерживает удаление.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Object[] snapshot = snapshot();
+        return new Iterator<E>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < snapshot.length;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return (E) snapshot[currentIndex++];
+            }
+        };
+    }
+
+    /**
+     * Возвращает {@code Spliterator} по копии элементов этого списка, сделанной в момент вызова.
+     * Размер копии известен точно, а разбиение делит ее пополам.
+     *
+     * @return {@code Spliterator} по элементам этого списка
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(snapshot(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomList<?>)) return false;
+        return toCustomArrayList(snapshot()).equals(o);
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
+     * на основе содержимого спсика.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        return toCustomArrayList(snapshot()).hashCode();
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        return toCustomArrayList(snapshot()).toString();
+    }
+
+    /**
+     * Возвращает согласованную копию элементов списка. Копирование выполняется
+     * оптимистически и повторяется под блокировкой чтения, если список изменился.
+     */
+    private Object[] snapshot() {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object[] a = elementData;
+            Object[] copy = Arrays.copyOf(a, Math.min(size, a.length));
+            if (lock.validate(stamp)) {
+                return copy;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Arrays.copyOf(elementData, size);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private CustomArrayList<E> toCustomArrayList(Object[] elements) {
+        CustomArrayList<E> list = new CustomArrayList<>(elements.length);
+        list.addAll((E[]) elements);
+        return list;
+    }
+
+    private void ensureCapacityInternal(int minCapacity) {
+        if (minCapacity > elementData.length) {
+            if (minCapacity < 0)
+                throw new OutOfMemoryError("Required array length is too large");
+            int newCapacity = Math.max(minCapacity, (int) Math.min((elementData.length * 3L) / 2 + 1,
+                    Integer.MAX_VALUE - 8));
+            elementData = Arrays.copyOf(elementData, newCapacity);
+        }
+    }
+
+    private static void checkIndexRange(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private static void checkPositionIndex(int index, int size) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private static void checkSubListRange(int begin, int end, int size) {
+        if (begin < 0 || begin > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size));
+        if (end > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        if (begin > end) throw new IllegalArgumentException();
+    }
+}
@@ -1,6 +1,9 @@
 package ru.kozhevnikov;
 
+import ru.kozhevnikov.metrics.ListEventListener;
+
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -12,7 +15,20 @@ import java.util.function.Predicate;
  * <p>У каждого экземпляра {@code CustomArrayList} есть вместимость - размер
  * массива, позволяющего хранить элементы в списке. Вместимость не может быть меньше
  * размера списка. По мере заполнения списка до предельного значения вместимость автоматически
- * увеличивается.
+ * увеличивается в соответствии со стратегией {@link GrowthPolicy}, передаваемой в конструктор.
+ * Стратегия также может уменьшать вместимость после удаления элементов и очистки списка.
+ *
+ * <p>Метод {@link #freeze()} возвращает неизменяемый снимок списка, использующий тот же массив.
+ * Массив копируется один раз, при первом изменении списка, затрагивающем элементы снимка.
+ *
+ * <p>Метод {@link #setListener(ListEventListener)} включает передачу данных о внутренних операциях
+ * списка - изменениях вместимости, сдвигах элементов, поисках и сортировках. Пока получатель
+ * не установлен, эти данные не вычисляются.
+ *
+ * <p>Итераторы, возвращаемые методами {@link #iterator()} и {@link #listIterator(int)},
+ * обнаруживают структурные изменения списка в обход итератора и выбрасывают
+ * {@code ConcurrentModificationException}. Удаление элементов через итератор выполняется
+ * за один проход по массиву в конце итерации.
  *
  * @param <E> тип элементов в списке
  *
@@ -35,26 +51,77 @@ public class CustomArrayList<E> implements CustomList<E>{
      * Массив, содержащий элементы списка
      */
     private Object[] elementData;
+    /**
+     * Количество структурных изменений списка (изменений размера). Используется
+     * представлениями, возвращаемыми методом {@link #subList(int, int)}, и итераторами
+     * для обнаружения изменений списка в обход представления или итератора.
+     */
+    private int modCount;
+    /**
+     * Итератор списка, отложивший удаление элементов до окончания итерации, или {@code null}.
+     * Любая операция над списком сначала применяет отложенные удаления.
+     */
+    private ListItr pendingRemoval;
+    /**
+     * Стратегия изменения вместимости списка
+     */
+    private final GrowthPolicy growthPolicy;
+    /**
+     * {@code true}, если массив используется неизменяемыми снимками, возвращенными методом
+     * {@link #freeze()}, и должен быть скопирован перед изменением
+     */
+    private boolean shared;
+    /**
+     * Получатель событий внутренних операций списка или {@code null}
+     */
+    private ListEventListener listener;
 
     /**
      * Конструктор для создания пустого списка с вместимостью 10.
      */
     public CustomArrayList() {
-        capacity = 10;
-        elementData = new Object[capacity];
+        this(10, GrowthPolicy.DEFAULT);
     }
 
     /**
-     * Конструктор для создания пустого списка с указанной вместимостью.
+     * Конструктор для создания пустого списка с указанной вместимостью. Если вместимость равна
+     * ожидаемому размеру списка, массив выделяется один раз и не увеличивается при добавлении
+     * этого количества элементов.
      *
      * @param initCapacity начальная вместимость списка
      * @throws IllegalArgumentException в случае передачи отрицательной
      * вместимости
      */
     public CustomArrayList(int initCapacity) {
+        this(initCapacity, GrowthPolicy.DEFAULT);
+    }
+
+    /**
+     * Конструктор для создания пустого списка с вместимостью 10 и указанной стратегией
+     * изменения вместимости.
+     *
+     * @param growthPolicy стратегия изменения вместимости
+     * @throws NullPointerException если стратегия равна {@code null}
+     */
+    public CustomArrayList(GrowthPolicy growthPolicy) {
+        this(10, growthPolicy);
+    }
+
+    /**
+     * Конструктор для создания пустого списка с указанной вместимостью и стратегией
+     * изменения вместимости.
+     *
+     * @param initCapacity начальная вместимость списка
+     * @param growthPolicy стратегия изменения вместимости
+     * @throws IllegalArgumentException в случае передачи отрицательной
+     * вместимости
+     * @throws NullPointerException если стратегия равна {@code null}
+     */
+    public CustomArrayList(int initCapacity, GrowthPolicy growthPolicy) {
         if (initCapacity < 0)
             throw new IllegalArgumentException("Illegal capacity");
 
+        this.growthPolicy = Objects.requireNonNull(growthPolicy);
         capacity = initCapacity;
         elementData = new Object[capacity];
     }
@@ -66,11 +133,13 @@ public class CustomArrayList<E> implements CustomList<E>{
      */
     @Override
     public void add(E element) {
+        settle();
         if (isNeedToIncreaseCapacity()) {
             increaseCapacity();
         }
         elementData[size] = element;
         size++;
+        modCount++;
     }
 
     /**
@@ -84,14 +153,112 @@ public class CustomArrayList<E> implements CustomList<E>{
      */
     @Override
     public void add(int index, E element) {
+        settle();
         checkIndexRange(index);
 
+        insert(index, element);
+    }
+    private void insert(int index, E element) {
         if (isNeedToIncreaseCapacity()) {
             increaseCapacity();
         }
+        unshare();
+        if (listener != null) listener.onShift(size - index);
         System.arraycopy(elementData, index, elementData, index + 1, size - index);
         elementData[index] = element;
         size++;
+        modCount++;
+    }
+
+    /**
+     * Вставляет все элементы передаваемого списка в этот список, начиная с указанного индекса.
+     * Вместимость увеличивается не более одного раза, а элементы, следующие за указанным
+     * индексом, сдвигаются одним вызовом {@code System.arraycopy}.
+     *
+     * @param index индекс, по которому будет вставлен первый элемент
+     * @param list список, элементы которого добавляются в этот список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     * @throws NullPointerException если передаваемый список равен {@code null}
+     */
+    @Override
+    public void addAll(int index, CustomList<? extends E> list) {
+        settle();
+        checkPositionIndex(index, size);
+
+        Object[] elements = toArray(list);
+        insertRange(index, elements, elements.length);
+    }
+
+    /**
+     * Вставляет все элементы передаваемой коллекции в этот список, начиная с указанного индекса.
+     * Вместимость увеличивается не более одного раза, а элементы, следующие за указанным
+     * индексом, сдвигаются одним вызовом {@code System.arraycopy}.
+     *
+     * @param index индекс, по которому будет вставлен первый элемент
+     * @param collection коллекция, элементы которой добавляются в этот список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     * @throws NullPointerException если передаваемая коллекция равна {@code null}
+     */
+    @Override
+    public void addAll(int index, Collection<? extends E> collection) {
+        settle();
+        checkPositionIndex(index, size);
+
+        Object[] elements = collection.toArray();
+        insertRange(index, elements, elements.length);
+    }
+
+    /**
+     * Вставляет все элементы передаваемого массива в этот список, начиная с указанного индекса.
+     * Вместимость увеличивается не более одного раза, а элементы, следующие за указанным
+     * индексом, сдвигаются одним вызовом {@code System.arraycopy}.
+     *
+     * @param index индекс, по которому будет вставлен первый элемент
+     * @param elements массив, элементы которого добавляются в этот список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     * @throws NullPointerException если передаваемый массив равен {@code null}
+     */
+    @Override
+    public void addAll(int index, E[] elements) {
+        settle();
+        checkPositionIndex(index, size);
+
+        insertRange(index, elements, elements.length);
+    }
+    private void insertRange(int index, Object[] elements, int count) {
+        if (count == 0) {
+            return;
+        }
+        int requiredCapacity = size + count;
+        if (requiredCapacity < 0 || requiredCapacity > capacity) {
+            grow(growthPolicy.newCapacity(capacity, requiredCapacity));
+        }
+        if (index < size) {
+            unshare();
+            if (listener != null) listener.onShift(size - index);
+        }
+        System.arraycopy(elementData, index, elementData, index + count, size - index);
+        System.arraycopy(elements, 0, elementData, index, count);
+        size += count;
+        modCount++;
+    }
+    private static Object[] toArray(CustomList<?> list) {
+        if (list instanceof CustomArrayList<?> arrayList) {
+            arrayList.settle();
+            return Arrays.copyOf(arrayList.elementData, arrayList.size);
+        }
+        if (list instanceof CustomArrayList.SubList subList) {
+            return subList.toArray();
+        }
+        if (list instanceof ImmutableCustomList<?> immutable) {
+            return immutable.toArray();
+        }
+        Object[] elements = new Object[list.size()];
+        int i = 0;
+        for (Object element : list) {
+            elements[i++] = element;
+        }
+        return elements;
     }
     /**
      * Возвращает элемент из списка по его индексу.
@@ -103,6 +270,7 @@ public class CustomArrayList<E> implements CustomList<E>{
      */
     @Override
     public E get(int index) {
+        settle();
         checkIndexRange(index);
 
         return (E) elementData[index];
@@ -117,10 +285,31 @@ public class CustomArrayList<E> implements CustomList<E>{
      */
     @Override
     public int indexOf(E element) {
-        for (int i = 0; i < size; i++) {
-            if (elementData[i].equals(element)) return i;
-        }
-        return -1;
+        settle();
+        return indexOfRange(element, 0, size);
+    }
+    private int indexOfRange(Object element, int begin, int end) {
+        int index = ArrayScan.indexOf(elementData, begin, end, element);
+        if (listener != null) listener.onScan(index == -1 ? end - begin : index - begin + 1);
+        return index;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        settle();
+        return lastIndexOfRange(element, 0, size);
+    }
+    private int lastIndexOfRange(Object element, int begin, int end) {
+        int index = ArrayScan.lastIndexOf(elementData, begin, end, element);
+        if (listener != null) listener.onScan(index == -1 ? end - begin : end - index);
+        return index;
     }
     /**
      * Удаляет элемент из списка по его индексу.Сдвигает все элементы,
@@ -132,16 +321,66 @@ public class CustomArrayList<E> implements CustomList<E>{
      */
     @Override
     public void remove(int index) {
+        settle();
         checkIndexRange(index);
 
-        System.arraycopy(elementData, index + 1, elementData, index, size - index);
-        size--;
+        removeRangeInternal(index, index + 1);
+    }
+
+    /**
+     * Удаляет из списка элементы, расположенные от {@code begin} включительно до {@code end},
+     * сдвигая оставшиеся элементы одним вызовом {@code System.arraycopy}.
+     *
+     * @param begin индекс первого удаляемого элемента
+     * @param end индекс, следующий за последним удаляемым элементом
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public void removeRange(int begin, int end) {
+        settle();
+        checkSubListRange(begin, end, size);
+
+        if (begin < end) {
+            removeRangeInternal(begin, end);
+        }
+    }
+    private void removeRangeInternal(int begin, int end) {
+        unshare();
+        if (listener != null) {
+            listener.onOccupancy(size, capacity);
+            if (end < size) listener.onShift(size - end);
+        }
+        System.arraycopy(elementData, end, elementData, begin, size - end);
+        int newSize = size - (end - begin);
+        Arrays.fill(elementData, newSize, size, null);
+        size = newSize;
+        modCount++;
+        shrinkIfNeeded();
     }
     private void checkIndexRange(int index){
+        checkIndexRange(index, size);
+    }
+    private static void checkIndexRange(int index, int size){
         if (index < 0 || index >= size)
             throw new IndexOutOfBoundsException(
                     String.format("Index %d out of bounds for length %d", index, size));
     }
+    private static void checkPositionIndex(int index, int size){
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+    private static void checkSubListRange(int begin, int end, int size){
+        if (begin < 0 || begin > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size));
+        if (end > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        if (begin > end) throw new IllegalArgumentException();
+    }
 
     /**
      * Удаляет перый элемент из списка, соответсвующий переданному элементу, в случае
@@ -164,33 +403,58 @@ public class CustomArrayList<E> implements CustomList<E>{
      * Удаляет элементы из списка, удовлетворяющие передаваемому условию. В случае
      * отсуствия таких элементов список не изменяется.
      *
+     * <p>Условие вычисляется для всех элементов до изменения списка, поэтому исключение,
+     * выброшенное условием, оставляет список нетронутым. Оставшиеся элементы сдвигаются
+     * за один проход по массиву, освободившиеся ячейки очищаются.
+     *
      * @param filter условие, в соответствии с которым элементы удаляются из списка
      * @throws NullPointerException если передаваемое условие равно {@code null}
+     * @throws ConcurrentModificationException если условие изменяет размер списка
      */
     @Override
     public void removeIf(Predicate<? super E> filter) {
+        settle();
         if (filter == null)
             throw new NullPointerException();
 
-        Iterator<E> iterator = iterator();
-        while (iterator.hasNext()){
-            E element = iterator.next();
-            if (filter.test(element)){
-                remove(element);
-            }
+        removeIfRange(filter, 0, size);
+    }
+    private int removeIfRange(Predicate<? super E> filter, int begin, int end) {
+        int expectedModCount = modCount;
+        long[] removed = ArrayFilter.mark(elementData, begin, end, filter);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        if (removed == null) {
+            return 0;
         }
+
+        unshare();
+        int newEnd = ArrayFilter.compact(elementData, begin, end, removed);
+        removeRangeInternal(newEnd, end);
+        return end - newEnd;
     }
 
     /**
-     * Удаляет все элементы из списка.
+     * Удаляет все элементы из списка. Массив используется повторно: занятые ячейки очищаются
+     * одним вызовом {@code Arrays.fill}. Если стратегия изменения вместимости уменьшает
+     * вместимость, старый массив не очищается, а заменяется новым массивом меньшего размера.
      */
     @Override
     public void clear(){
-        int tmpSize = size;
-        for (int i = 0; i < tmpSize; i++) {
-            elementData[i] = null;
-            size--;
+        settle();
+        if (listener != null) listener.onOccupancy(size, capacity);
+        int newCapacity = growthPolicy.shrink(capacity, 0);
+        if (shared || newCapacity < capacity) {
+            newCapacity = Math.min(capacity, newCapacity);
+            if (listener != null && newCapacity < capacity) listener.onCapacityChange(0, capacity, newCapacity);
+            capacity = newCapacity;
+            elementData = new Object[capacity];
+            shared = false;
+        } else {
+            Arrays.fill(elementData, 0, size, null);
         }
+        size = 0;
+        modCount++;
     }
 
     /**
@@ -200,33 +464,55 @@ public class CustomArrayList<E> implements CustomList<E>{
      */
     @Override
     public int size() {
+        settle();
         return size;
     }
 
     /**
-     * Возвращает новый список, включающий в себя элементы списка, на котором вызывает данный метод,
-     * расположенные от {@code begin} включительно до {@code end}.
+     * Возвращает представление части этого списка, расположенной от {@code begin} включительно
+     * до {@code end}. Представление не копирует элементы, а работает непосредственно с массивом
+     * этого списка, поэтому создается за O(1). Изменения, сделанные через представление, видны
+     * в этом списке, и наоборот. Если размер этого списка изменен в обход представления,
+     * любая последующая операция над представлением выбрасывает {@code ConcurrentModificationException}.
      *
      * @param begin начальный индекс
      * @param end конечный индекс
      * @throws IndexOutOfBoundsException если индексы отрицательные или больше
      * размера списка
      * @throws IllegalArgumentException если начальный индекс больше конечного
+     * @see #copyOfRange(int, int)
      */
     @Override
-    public CustomArrayList<E> subList(int begin, int end){
-        checkIndexRange(begin);
-        if (end > size) {
-            throw new IndexOutOfBoundsException(
-                    String.format("Index %d out of bounds for length %d", end, size));
-        }
-        if (begin > end) throw new IllegalArgumentException();
+    public CustomList<E> subList(int begin, int end){
+        settle();
+        checkSubListRange(begin, end, size);
 
-        CustomArrayList<E> subList = new CustomArrayList<>();
-        for (int i = begin; i < end; i++) {
-            subList.add((E) elementData[i]);
-        }
-        return subList;
+        return new SubList(null, begin, end - begin);
+    }
+
+    /**
+     * Возвращает новый список, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}. В отличие от
+     * {@link #subList(int, int)} возвращаемый список не связан с этим списком.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomArrayList<E> copyOfRange(int begin, int end){
+        settle();
+        checkSubListRange(begin, end, size);
+
+        return copyOfRangeInternal(begin, end);
+    }
+    private CustomArrayList<E> copyOfRangeInternal(int begin, int end){
+        CustomArrayList<E> copy = new CustomArrayList<>(end - begin, growthPolicy);
+        System.arraycopy(elementData, begin, copy.elementData, 0, end - begin);
+        copy.size = end - begin;
+        return copy;
     }
 
     /**
@@ -238,72 +524,193 @@ public class CustomArrayList<E> implements CustomList<E>{
      */
     @Override
     public void set(int index, E element){
+        settle();
         checkIndexRange(index);
 
+        unshare();
         elementData[index] = element;
     }
 
     /**
-     * Сортирует список с помощью алгоритма быстрой сортировки в соответствии с методом
+     * Возвращает неизменяемый снимок этого списка. Снимок не копирует элементы, а использует
+     * массив этого списка, поэтому вызов занимает O(1). Массив копируется один раз, при первом
+     * изменении этого списка после вызова, затрагивающем элементы снимка; добавление в конец
+     * списка без увеличения вместимости массив не копирует.
+     *
+     * @return неизменяемый список, содержащий текущие элементы этого списка
+     */
+    public ImmutableCustomList<E> freeze() {
+        settle();
+        shared = true;
+        return new ImmutableCustomList<>(elementData, 0, size);
+    }
+
+    /**
+     * Сортирует список с помощью алгоритма интроспективной сортировки в соответствии с методом
      * {@code compare} компаратора - объекта класса, реализующего функциональный
      * интерфейс {@code Comparator}.
      *
-     * <p> При реализации алгоритма быстрой сортировки в качестве опорного элемента на каждом
-     * шаге выбирается случайный элемент, что уменьшает вероятность возникнования ниахудшего
-     * случая при сортировке, когда список уже отсортирован или почти отсортирован.
+     * <p> Алгоритм основан на быстрой сортировке с разбиением на три части и выбором опорного
+     * элемента как медианы трех, поэтому уже отсортированные списки и списки с большим количеством
+     * одинаковых элементов сортируются за O(n log n). При слишком глубоком разбиении сортировка
+     * переходит на пирамидальную, что гарантирует время O(n log n) в худшем случае, а глубина
+     * рекурсии не превышает log n. Сортировка не является устойчивой.
      *
      * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
      */
     @Override
     public void sort(Comparator<? super E> comparator){
-        quickSort(0, size-1, comparator);
+        settle();
+        unshare();
+        ListEventListener listener = this.listener;
+        long start = listener != null ? System.nanoTime() : 0L;
+        IntroSort.sort(elementData, 0, size, comparator);
+        if (listener != null) {
+            listener.onSort(size, System.nanoTime() - start);
+            listener.onOccupancy(size, capacity);
+        }
+    }
+
+    /**
+     * Устанавливает получатель событий внутренних операций списка: изменений вместимости,
+     * сдвигов элементов при вставке и удалении, поисков методами {@code indexOf} и
+     * {@code lastIndexOf}, сортировок списка и его представлений, а также заполненности списка
+     * при очистке, удалении нескольких элементов, уменьшении вместимости и сортировке. Передача {@code null} отключает
+     * передачу событий; в этом случае каждая операция выполняет только одну проверку на
+     * {@code null}.
+     *
+     * @param listener получатель событий или {@code null}
+     * @see ru.kozhevnikov.metrics.ListMetrics
+     */
+    public void setListener(ListEventListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Операция над участком массива, в котором хранятся элементы списка. Позволяет алгоритмам
+     * этого пакета работать с элементами напрямую, минуя методы {@code get} и {@code set}.
+     * Операция не должна изменять размер списка.
+     */
+    @FunctionalInterface
+    interface ArrayRangeAction {
+        /**
+         * Выполняет операцию над участком массива от {@code begin} включительно до {@code end}.
+         *
+         * @param elementData массив, содержащий элементы списка
+         * @param begin индекс первого элемента списка в массиве
+         * @param end индекс, следующий за последним элементом списка в массиве
+         */
+        void apply(Object[] elementData, int begin, int end);
     }
-    private void quickSort(int begin, int end, Comparator<? super E> comparator){
-        if (begin < end){
-            int partitionIndex = getPartitionIndex(begin, end, comparator);
 
-            quickSort(partitionIndex+1, end, comparator);
-            quickSort(begin,partitionIndex-1, comparator);
+    /**
+     * Выполняет операцию над массивом передаваемого списка, если список является
+     * {@code CustomArrayList} или его представлением.
+     *
+     * @param list список, над элементами которого выполняется операция
+     * @param action операция над участком массива, содержащим элементы списка
+     * @return {@code true}, если операция была выполнена, {@code false}, если список
+     * не основан на массиве {@code CustomArrayList}
+     */
+    static boolean applyToBackingArray(CustomList<?> list, ArrayRangeAction action) {
+        if (list instanceof CustomArrayList<?> arrayList) {
+            arrayList.settle();
+            arrayList.unshare();
+            action.apply(arrayList.elementData, 0, arrayList.size);
+            return true;
         }
+        if (list instanceof CustomArrayList.SubList subList) {
+            subList.applyToBackingArray(action);
+            return true;
+        }
+        return false;
     }
-    private int getPartitionIndex(int begin, int end, Comparator<? super E> comparator){
-        int randomElementIndex = getRandomElementIndex(begin,end);
-        swap(randomElementIndex, end);
-        E pivot = (E) elementData[end];
-        int i = begin - 1;
-        for (int j = begin; j < end; j++) {
-            if (comparator.compare((E) elementData[j], pivot) <= 0){
-                i++;
-                swap(i,j);
-            }
+
+    /**
+     * Сортирует или иным образом переставляет элементы передаваемого списка так же, как
+     * {@link #applyToBackingArray(CustomList, ArrayRangeAction)}, и сообщает о длительности
+     * операции получателю событий списка как о сортировке.
+     *
+     * @param list список, элементы которого переставляются
+     * @param action перестановка участка массива, содержащего элементы списка
+     * @return {@code true}, если операция была выполнена, {@code false}, если список
+     * не основан на массиве {@code CustomArrayList}
+     */
+    static boolean sortBackingArray(CustomList<?> list, ArrayRangeAction action) {
+        CustomArrayList<?> root = list instanceof CustomArrayList<?> arrayList ? arrayList
+                : list instanceof CustomArrayList.SubList subList ? subList.root() : null;
+        ListEventListener listener = root != null ? root.listener : null;
+        long start = listener != null ? System.nanoTime() : 0L;
+        boolean applied = applyToBackingArray(list, action);
+        if (applied && listener != null) {
+            listener.onSort(list.size(), System.nanoTime() - start);
+            listener.onOccupancy(root.size, root.capacity);
         }
-        swap(i+1, end);
-        return i+1;
+        return applied;
     }
-    private int getRandomElementIndex(int begin, int end){
-        Random random = new Random();
-        return random.nextInt(end-begin)+begin;
+    /**
+     * Увеличивает вместимость списка, если это необходимо, так чтобы он мог вместить
+     * не менее {@code minCapacity} элементов без повторного выделения памяти.
+     * Вместимость устанавливается ровно в {@code minCapacity}, что позволяет заранее
+     * выделить память под известное количество элементов.
+     *
+     * @param minCapacity требуемая минимальная вместимость
+     */
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        settle();
+        if (minCapacity > capacity) {
+            grow(minCapacity);
+        }
     }
-    private void swap(int index1, int index2){
-        Object tmp = elementData[index1];
-        elementData[index1] = elementData[index2];
-        elementData[index2] = tmp;
+
+    /**
+     * Уменьшает вместимость списка до его текущего размера, освобождая неиспользуемую память.
+     */
+    @Override
+    public void trimToSize() {
+        settle();
+        if (listener != null) listener.onOccupancy(size, capacity);
+        if (size < capacity) {
+            grow(size);
+        }
     }
     private void increaseCapacity() {
-        capacity = (capacity * 3) / 2 + 1;
+        grow(growthPolicy.newCapacity(capacity, size + 1));
+    }
+    private void shrinkIfNeeded() {
+        int newCapacity = growthPolicy.shrink(capacity, size);
+        if (newCapacity < capacity) {
+            grow(Math.max(newCapacity, size));
+        }
+    }
+    private void grow(int newCapacity) {
+        if (listener != null) listener.onCapacityChange(size, capacity, newCapacity);
+        capacity = newCapacity;
         Object[] modifiedArray = new Object[capacity];
 
         System.arraycopy(elementData, 0, modifiedArray, 0, size);
         elementData = modifiedArray;
+        shared = false;
+    }
+    private void unshare() {
+        if (shared) {
+            elementData = Arrays.copyOf(elementData, capacity);
+            shared = false;
+        }
     }
     private boolean isNeedToIncreaseCapacity() {
-        return size + 1 >= capacity;
+        return size == capacity;
     }
 
     /**
      * Сравнивает передаваемый объект с этим списком на равенство.
      * Возвращается true только в том случае, когда указанный объект является
-     * списком и содержит те же элементы в том же порядке, что и этот список.
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     *
+     * <p>Сравниваются только элементы списка, без незанятой части массива. Если указанный
+     * список также основан на массиве {@code CustomArrayList}, участки массивов сравниваются
+     * одним вызовом {@code Arrays.equals}, иначе элементы указанного списка обходятся итератором.
      *
      * @param o объект для сравнения с этим списком
      * @return true, если указанный объект равен этому списку, в противном случае - false
@@ -311,33 +718,48 @@ public class CustomArrayList<E> implements CustomList<E>{
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        CustomArrayList<?> that = (CustomArrayList<?>) o;
-        return size == that.size && Arrays.equals(elementData, that.elementData);
+        if (!(o instanceof CustomList<?> that)) return false;
+        settle();
+        return contentEquals(elementData, 0, size, that);
     }
 
     /**
      * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
-     * на основе размера спсика и его содержимого.
+     * на основе содержимого спсика.
      *
      * @return хэш-код для этого списка
      */
     @Override
     public int hashCode() {
-        int result = Objects.hash(size);
-        result = 31 * result + Arrays.hashCode(elementData);
+        settle();
+        return contentHashCode(elementData, 0, size);
+    }
+    private static boolean contentEquals(Object[] a, int begin, int end, CustomList<?> other) {
+        if (end - begin != other.size()) return false;
+        if (other instanceof CustomArrayList<?> list) {
+            return Arrays.equals(a, begin, end, list.elementData, 0, list.size);
+        }
+        if (other instanceof CustomArrayList.SubList view) {
+            return view.rangeEquals(a, begin, end);
+        }
+        if (other instanceof ImmutableCustomList<?> immutable) {
+            return immutable.rangeEquals(a, begin, end);
+        }
+        Iterator<?> iterator = other.iterator();
+        for (int i = begin; i < end; i++) {
+            if (!Objects.equals(a[i], iterator.next())) return false;
+        }
+        return true;
+    }
+    private static int contentHashCode(Object[] a, int begin, int end) {
+        int result = 1;
+        for (int i = begin; i < end; i++) {
+            result = 31 * result + Objects.hashCode(a[i]);
+        }
         return result;
     }
-    /**
-     * Возвращает строковое представление этого списка. Строка содержит
-     * элементы списка в порядке их добавления, заключенные в квадратные
-     * скобки ("[]") и разделенные запятыми.
-     *
-     * @return строковое представление списка
-     */
-    @Override
-    public String toString() {
-        Iterator<E> iterator = iterator();
+    private static String contentToString(CustomList<?> list) {
+        Iterator<?> iterator = list.iterator();
         if (!iterator.hasNext()) return "[]";
         StringBuilder sb = new StringBuilder();
         sb.append("[");
@@ -348,27 +770,591 @@ public class CustomArrayList<E> implements CustomList<E>{
         sb.append("]");
         return sb.toString();
     }
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        return contentToString(this);
+    }
 
     /**
-     * Возвращает итератор по элементам этого списка в правильной последовательности
+     * Возвращает итератор по элементам этого списка в правильной последовательности.
+     * Итератор является итератором списка, возвращаемым методом {@link #listIterator(int)}.
      *
      * @return итератор по элементам этого списка в правильной последовательности
      */
     @Override
     public Iterator<E> iterator() {
-        return new Iterator<E>() {
-            private int currentIndex = 0;
-            @Override
-            public boolean hasNext() {
-                return currentIndex < size;
+        return listIterator(0);
+    }
+
+    /**
+     * Возвращает итератор списка по элементам этого списка, начиная с элемента с указанным индексом.
+     *
+     * <p>Итератор обнаруживает структурные изменения списка, сделанные в обход итератора, и при
+     * следующей операции выбрасывает {@code ConcurrentModificationException}.
+     *
+     * <p>Удаление методом {@code remove} после {@code next} откладывается: удаляемые элементы
+     * только отмечаются, а сдвигаются оставшиеся элементы один раз, за один проход по массиву,
+     * когда итерация заканчивается ({@code hasNext} возвращает {@code false}). Поэтому удаление
+     * k элементов при обходе списка занимает O(n) вместо O(n * k). Если до окончания итерации
+     * вызывается другой метод итератора или списка, отложенные удаления сначала применяются,
+     * так что список всегда выглядит так, как если бы элементы удалялись немедленно.
+     *
+     * @param index индекс первого элемента, возвращаемого методом {@code next}
+     * @return итератор списка по элементам этого списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        settle();
+        checkPositionIndex(index, size);
+
+        return new ListItr(index);
+    }
+
+    /**
+     * Выполняет действие для каждого элемента списка, обходя массив напрямую.
+     *
+     * @param action действие, выполняемое для каждого элемента
+     * @throws NullPointerException если действие равно {@code null}
+     * @throws ConcurrentModificationException если действие изменяет размер списка
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        settle();
+        forEachInRange(action, 0, size);
+    }
+    private void forEachInRange(Consumer<? super E> action, int begin, int end) {
+        int expectedModCount = modCount;
+        Object[] a = elementData;
+        for (int i = begin; i < end && modCount == expectedModCount; i++) {
+            action.accept((E) a[i]);
+        }
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Возвращает {@code Spliterator} по элементам этого списка, работающий непосредственно
+     * с массивом. Сообщает точный размер себя и своих частей ({@code SIZED}, {@code SUBSIZED})
+     * и порядок элементов ({@code ORDERED}), а при разбиении делит оставшийся участок пополам,
+     * поэтому параллельные потоки над большими списками получают равные части работы.
+     *
+     * <p>Границы участка фиксируются при первом обращении к {@code Spliterator}, а не при его
+     * создании. Структурное изменение списка во время обхода приводит к
+     * {@code ConcurrentModificationException}.
+     *
+     * @return {@code Spliterator} по элементам этого списка
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ArraySpliterator(0, -1, 0);
+    }
+
+    /**
+     * {@code Spliterator} по участку массива, в котором хранятся элементы списка.
+     */
+    private class ArraySpliterator implements Spliterator<E> {
+        /**
+         * Индекс следующего элемента
+         */
+        private int index;
+        /**
+         * Индекс, следующий за последним элементом участка, или -1 до первого обращения
+         */
+        private int fence;
+        /**
+         * Ожидаемое значение счетчика структурных изменений списка
+         */
+        private int expectedModCount;
+
+        private ArraySpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                settle();
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            return lo >= mid ? null : new ArraySpliterator(lo, index = mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            int i = index;
+            if (i >= hi) {
+                return false;
+            }
+            index = i + 1;
+            action.accept((E) elementData[i]);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            Object[] a = elementData;
+            for (int i = index; i < hi; i++) {
+                action.accept((E) a[i]);
+            }
+            index = hi;
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * Применяет удаления, отложенные итератором списка, если они есть.
+     */
+    private void settle() {
+        if (pendingRemoval != null) {
+            pendingRemoval.flush();
+        }
+    }
+
+    /**
+     * Итератор списка, возвращаемый методом {@link #listIterator(int)}. Индексы {@code cursor}
+     * и {@code lastRet} являются индексами массива, который не изменяется, пока удаления отложены.
+     */
+    private class ListItr implements ListIterator<E> {
+        /**
+         * Индекс элемента, который будет возвращен методом {@code next}
+         */
+        private int cursor;
+        /**
+         * Индекс последнего возвращенного элемента или -1, если элемент был удален
+         * или добавлен после последнего вызова {@code next} или {@code previous}
+         */
+        private int lastRet = -1;
+        /**
+         * Ожидаемое значение счетчика структурных изменений списка
+         */
+        private int expectedModCount = modCount;
+        /**
+         * Битовая карта отложенных удалений: бит {@code i} соответствует элементу с индексом
+         * {@code removedFrom + i}. Равна {@code null}, если отложенных удалений нет
+         */
+        private long[] removed;
+        private int removedFrom;
+
+        private ListItr(int index) {
+            cursor = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (cursor != size) {
+                return true;
+            }
+            flush();
+            return false;
+        }
+
+        @Override
+        public E next() {
+            checkForComodification();
+            int i = cursor;
+            if (i >= size)
+                throw new NoSuchElementException();
+            cursor = i + 1;
+            return (E) elementData[lastRet = i];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            flush();
+            return cursor != 0;
+        }
+
+        @Override
+        public E previous() {
+            checkForComodification();
+            flush();
+            int i = cursor - 1;
+            if (i < 0)
+                throw new NoSuchElementException();
+            cursor = i;
+            return (E) elementData[lastRet = i];
+        }
+
+        @Override
+        public int nextIndex() {
+            flush();
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            flush();
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            checkForComodification();
+
+            if (lastRet == cursor - 1) {
+                markRemoved(lastRet);
+            } else {
+                removeRangeInternal(lastRet, lastRet + 1);
+                cursor = lastRet;
+                expectedModCount = modCount;
+            }
+            lastRet = -1;
+        }
+
+        @Override
+        public void set(E element) {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            checkForComodification();
+            unshare();
+            elementData[lastRet] = element;
+        }
+
+        @Override
+        public void add(E element) {
+            checkForComodification();
+            flush();
+            insert(cursor++, element);
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        private void markRemoved(int index) {
+            if (removed == null) {
+                removedFrom = index;
+                removed = new long[((size - index - 1) >> 6) + 1];
+                pendingRemoval = this;
+            }
+            int bit = index - removedFrom;
+            removed[bit >> 6] |= 1L << bit;
+        }
+
+        /**
+         * Удаляет отмеченные элементы за один проход: сохраняемые элементы до {@code cursor}
+         * сдвигаются к началу, а элементы после него - одним вызовом {@code System.arraycopy}.
+         */
+        private void flush() {
+            if (removed == null) {
+                return;
+            }
+            unshare();
+            int newCursor = ArrayFilter.compact(elementData, removedFrom, cursor, removed);
+            removeRangeInternal(newCursor, cursor);
+            if (lastRet >= 0) {
+                lastRet = newCursor - 1;
+            }
+            cursor = newCursor;
+            expectedModCount = modCount;
+            removed = null;
+            pendingRemoval = null;
+        }
+
+        private void checkForComodification() {
+            if (pendingRemoval != null && pendingRemoval != this) {
+                pendingRemoval.flush();
+            }
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Представление части списка {@code CustomArrayList}, возвращаемое методом {@link #subList(int, int)}.
+     * Хранит только смещение относительно начала массива и собственный размер, все операции выполняются
+     * над массивом исходного списка.
+     */
+    private class SubList implements CustomList<E> {
+        /**
+         * Представление, из которого было получено это представление, или {@code null},
+         * если оно получено непосредственно из списка
+         */
+        private final SubList parent;
+        /**
+         * Индекс первого элемента представления в массиве исходного списка
+         */
+        private final int offset;
+        /**
+         * Размер представления
+         */
+        private int size;
+        /**
+         * Ожидаемое значение счетчика структурных изменений исходного списка
+         */
+        private int expectedModCount;
+
+        private SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public void add(E element) {
+            checkForComodification();
+            insert(offset + size, element);
+            updateSizeAndModCount(1);
+        }
+
+        @Override
+        public void add(int index, E element) {
+            checkIndexRange(index, size);
+            checkForComodification();
+            insert(offset + index, element);
+            updateSizeAndModCount(1);
+        }
+
+        @Override
+        public void addAll(int index, CustomList<? extends E> list) {
+            checkPositionIndex(index, size);
+            checkForComodification();
+            Object[] elements = CustomArrayList.toArray(list);
+            insertRange(offset + index, elements, elements.length);
+            updateSizeAndModCount(elements.length);
+        }
+
+        @Override
+        public void addAll(int index, Collection<? extends E> collection) {
+            checkPositionIndex(index, size);
+            checkForComodification();
+            Object[] elements = collection.toArray();
+            insertRange(offset + index, elements, elements.length);
+            updateSizeAndModCount(elements.length);
+        }
+
+        @Override
+        public void addAll(int index, E[] elements) {
+            checkPositionIndex(index, size);
+            checkForComodification();
+            insertRange(offset + index, elements, elements.length);
+            updateSizeAndModCount(elements.length);
+        }
+
+        @Override
+        public void removeRange(int begin, int end) {
+            checkSubListRange(begin, end, size);
+            checkForComodification();
+            if (begin < end) {
+                removeRangeInternal(offset + begin, offset + end);
+                updateSizeAndModCount(begin - end);
+            }
+        }
+
+        @Override
+        public E get(int index) {
+            checkIndexRange(index, size);
+            checkForComodification();
+            return (E) elementData[offset + index];
+        }
+
+        @Override
+        public int indexOf(E element) {
+            checkForComodification();
+            int index = indexOfRange(element, offset, offset + size);
+            return index == -1 ? -1 : index - offset;
+        }
+
+        @Override
+        public int lastIndexOf(E element) {
+            checkForComodification();
+            int index = lastIndexOfRange(element, offset, offset + size);
+            return index == -1 ? -1 : index - offset;
+        }
+
+        @Override
+        public void remove(int index) {
+            checkIndexRange(index, size);
+            checkForComodification();
+            removeRangeInternal(offset + index, offset + index + 1);
+            updateSizeAndModCount(-1);
+        }
+
+        @Override
+        public boolean remove(E element) {
+            int index = indexOf(element);
+            if (index != -1) {
+                remove(index);
+                return true;
             }
+            return false;
+        }
 
-            @Override
-            public E next() {
-                if (!hasNext())
-                    throw new NoSuchElementException();
-                return (E) elementData[currentIndex++];
+        @Override
+        public void removeIf(Predicate<? super E> filter) {
+            if (filter == null)
+                throw new NullPointerException();
+            checkForComodification();
+
+            int removed = removeIfRange(filter, offset, offset + size);
+            if (removed > 0) {
+                updateSizeAndModCount(-removed);
             }
-        };
+        }
+
+        @Override
+        public void clear() {
+            checkForComodification();
+            if (size > 0) {
+                removeRangeInternal(offset, offset + size);
+                updateSizeAndModCount(-size);
+            }
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public void sort(Comparator<? super E> comparator) {
+            sortBackingArray(this, (elementData, begin, end) -> IntroSort.sort(elementData, begin, end, comparator));
+        }
+
+        private Object[] toArray() {
+            checkForComodification();
+            return Arrays.copyOfRange(elementData, offset, offset + size);
+        }
+
+        private boolean rangeEquals(Object[] a, int begin, int end) {
+            return Arrays.equals(elementData, offset, offset + size, a, begin, end);
+        }
+
+        private CustomArrayList<E> root() {
+            return CustomArrayList.this;
+        }
+
+        private void applyToBackingArray(ArrayRangeAction action) {
+            checkForComodification();
+            unshare();
+            action.apply(elementData, offset, offset + size);
+        }
+
+        @Override
+        public CustomList<E> subList(int begin, int end) {
+            checkForComodification();
+            checkSubListRange(begin, end, size);
+            return new SubList(this, offset + begin, end - begin);
+        }
+
+        @Override
+        public CustomArrayList<E> copyOfRange(int begin, int end) {
+            checkForComodification();
+            checkSubListRange(begin, end, size);
+            return copyOfRangeInternal(offset + begin, offset + end);
+        }
+
+        @Override
+        public void set(int index, E element) {
+            checkIndexRange(index, size);
+            checkForComodification();
+            unshare();
+            elementData[offset + index] = element;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            checkForComodification();
+            return new Iterator<E>() {
+                private int currentIndex = 0;
+                @Override
+                public boolean hasNext() {
+                    return currentIndex < size;
+                }
+
+                @Override
+                public E next() {
+                    checkForComodification();
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return (E) elementData[offset + currentIndex++];
+                }
+            };
+        }
+
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            checkForComodification();
+            forEachInRange(action, offset, offset + size);
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            checkForComodification();
+            return new ArraySpliterator(offset, offset + size, modCount);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CustomList<?> that)) return false;
+            checkForComodification();
+            return contentEquals(elementData, offset, offset + size, that);
+        }
+
+        @Override
+        public int hashCode() {
+            checkForComodification();
+            return contentHashCode(elementData, offset, offset + size);
+        }
+
+        @Override
+        public String toString() {
+            return contentToString(this);
+        }
+
+        private void checkForComodification() {
+            settle();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        private void updateSizeAndModCount(int sizeChange) {
+            SubList subList = this;
+            do {
+                subList.size += sizeChange;
+                subList.expectedModCount = modCount;
+                subList = subList.parent;
+            } while (subList != null);
+        }
     }
 }
@@ -1,7 +1,15 @@
 package ru.kozhevnikov;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Упорядоченный список. Пользователь этого интерфейса может контролировать куда в списке вставляется каждый элемент.
@@ -51,6 +59,30 @@ public interface CustomList<E> extends Iterable<E> {
      */
     int indexOf(E element);
 
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    default int lastIndexOf(E element) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (Objects.equals(get(i), element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Проверяет, содержит ли список элемент, соответсвующий переданному элементу.
+     *
+     * @param element элемент, наличие которого в списке необходимо проверить
+     * @return {@code true}, если список содержит указанный элемент
+     */
+    default boolean contains(E element) {
+        return indexOf(element) != -1;
+    }
+
     /**
      * Удаляет элемент из списка по его индексу.Сдвигает все элементы,
      * следующие за удаляемым, на одну позицию влево.
@@ -79,6 +111,38 @@ public interface CustomList<E> extends Iterable<E> {
      */
     void removeIf(Predicate<? super E> filter);
 
+    /**
+     * Удаляет из списка все элементы, содержащиеся в передаваемой коллекции. Проверка
+     * выполняется методом {@code contains} коллекции, поэтому для больших коллекций
+     * рекомендуется передавать {@code Set}.
+     *
+     * @param collection коллекция элементов, которые необходимо удалить из списка
+     * @return {@code true}, если список изменился
+     * @throws NullPointerException если передаваемая коллекция равна {@code null}
+     */
+    default boolean removeAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        int oldSize = size();
+        removeIf(collection::contains);
+        return size() != oldSize;
+    }
+
+    /**
+     * Оставляет в списке только элементы, содержащиеся в передаваемой коллекции. Проверка
+     * выполняется методом {@code contains} коллекции, поэтому для больших коллекций
+     * рекомендуется передавать {@code Set}.
+     *
+     * @param collection коллекция элементов, которые необходимо оставить в списке
+     * @return {@code true}, если список изменился
+     * @throws NullPointerException если передаваемая коллекция равна {@code null}
+     */
+    default boolean retainAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        int oldSize = size();
+        removeIf(element -> !collection.contains(element));
+        return size() != oldSize;
+    }
+
     /**
      * Удаляет все элементы из списка.
      */
@@ -92,21 +156,141 @@ public interface CustomList<E> extends Iterable<E> {
     int size();
 
     /**
-     * Сортирует список с помощью алгоритма быстрой сортировки в соответствии с методом
+     * Сортирует список с помощью алгоритма интроспективной сортировки в соответствии с методом
      * {@code compare} компаратора - объекта класса, реализующего функциональный
      * интерфейс {@code Comparator}.
      *
-     * <p> При реализации алгоритма быстрой сортировки в качестве опорного элемента на каждом
-     * шаге выбирается случайный элемент, что уменьшает вероятность возникнования ниахудшего
-     * случая при сортировке, когда список уже отсортирован или почти отсортирован.
+     * <p> Алгоритм основан на быстрой сортировке с разбиением на три части и выбором опорного
+     * элемента как медианы трех, поэтому уже отсортированные списки и списки с большим количеством
+     * одинаковых элементов сортируются за O(n log n). При слишком глубоком разбиении сортировка
+     * переходит на пирамидальную, что гарантирует время O(n log n) в худшем случае, а глубина
+     * рекурсии не превышает log n. Сортировка не является устойчивой.
      *
      * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
      */
     void sort(Comparator<? super E> comparator);
 
     /**
-     * Возвращает новый список, включающий в себя элементы списка, на котором вызывает данный метод,
-     * расположенные от {@code begin} включительно до {@code end}.
+     * Сортирует список параллельной устойчивой сортировкой слиянием в общем пуле
+     * {@code ForkJoinPool.commonPool()} в соответствии с методом {@code compare} компаратора.
+     * Небольшие списки, а также списки, не основанные на массиве {@code CustomArrayList},
+     * сортируются последовательно.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     * @see Utils#parallelMergeSort(CustomList, Comparator, java.util.concurrent.ForkJoinPool, int)
+     */
+    default void parallelSort(Comparator<? super E> comparator) {
+        Utils.parallelMergeSort(this, comparator);
+    }
+
+    /**
+     * Переставляет элементы списка так, что на позиции {@code k} оказывается элемент, который
+     * стоял бы на ней после сортировки, все элементы левее не больше него, а все элементы правее
+     * не меньше него. Занимает O(n) в среднем и O(n log n) в худшем случае.
+     *
+     * @param k индекс выбираемого элемента
+     * @param comparator компаратор, задающий порядок элементов
+     * @return элемент, оказавшийся на позиции {@code k}
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     * @see Utils#nthElement(CustomList, int, Comparator)
+     */
+    default E nthElement(int k, Comparator<? super E> comparator) {
+        return Utils.nthElement(this, k, comparator);
+    }
+
+    /**
+     * Сортирует только {@code k} наименьших элементов списка и помещает их в начало списка.
+     * Порядок остальных элементов не определен. Занимает O(n + k log k) в среднем.
+     *
+     * @param k количество сортируемых наименьших элементов
+     * @param comparator компаратор, задающий порядок элементов
+     * @throws IllegalArgumentException если {@code k} отрицательное или больше размера списка
+     * @see Utils#partialSort(CustomList, int, Comparator)
+     */
+    default void partialSort(int k, Comparator<? super E> comparator) {
+        Utils.partialSort(this, k, comparator);
+    }
+
+    /**
+     * Ищет передаваемый элемент двоичным поиском. Список должен быть отсортирован по возрастанию
+     * в соответствии с компаратором, иначе результат не определен. Если список содержит несколько
+     * элементов, равных искомому, возвращается индекс любого из них. Для списков с доступом
+     * к элементу по индексу за O(1) поиск занимает O(log n).
+     *
+     * @param key искомый элемент
+     * @param comparator компаратор, в соответствии с которым отсортирован список
+     * @return индекс искомого элемента, если он содержится в списке, иначе
+     * {@code -(точка вставки) - 1}, где точка вставки - индекс первого элемента, большего искомого,
+     * или размер списка
+     */
+    default int binarySearch(E key, Comparator<? super E> comparator) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare(get(mid), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Возвращает индекс первого элемента, не меньшего передаваемого, или размер списка,
+     * если такого элемента нет. Список должен быть отсортирован по возрастанию в соответствии
+     * с компаратором.
+     *
+     * @param key искомый элемент
+     * @param comparator компаратор, в соответствии с которым отсортирован список
+     * @return индекс первого элемента, не меньшего {@code key}
+     */
+    default int lowerBound(E key, Comparator<? super E> comparator) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(get(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает индекс первого элемента, большего передаваемого, или размер списка,
+     * если такого элемента нет. Список должен быть отсортирован по возрастанию в соответствии
+     * с компаратором.
+     *
+     * @param key искомый элемент
+     * @param comparator компаратор, в соответствии с которым отсортирован список
+     * @return индекс первого элемента, большего {@code key}
+     */
+    default int upperBound(E key, Comparator<? super E> comparator) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(get(mid), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает представление части списка, на котором вызывает данный метод,
+     * расположенной от {@code begin} включительно до {@code end}. Реализация может возвращать
+     * как представление, разделяющее элементы с этим списком, так и независимую копию.
+     * Для гарантированного получения независимой копии следует использовать {@link #copyOfRange(int, int)}.
      *
      * @param begin начальный индекс
      * @param end конечный индекс
@@ -116,6 +300,19 @@ public interface CustomList<E> extends Iterable<E> {
      */
     CustomList<E> subList(int begin, int end);
 
+    /**
+     * Возвращает новый список, включающий в себя элементы списка, на котором вызывает данный метод,
+     * расположенные от {@code begin} включительно до {@code end}. Возвращаемый список не связан
+     * с этим списком.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    CustomList<E> copyOfRange(int begin, int end);
+
     /**
      * Производит замену элемента списка с передаваемым индексом на передаваемый элемент.
      *
@@ -124,4 +321,230 @@ public interface CustomList<E> extends Iterable<E> {
      * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
      */
     void set(int index, E element);
+
+    /**
+     * Добавляет все элементы передаваемого списка в конец этого списка в порядке их следования.
+     *
+     * @param list список, элементы которого добавляются в этот список
+     * @throws NullPointerException если передаваемый список равен {@code null}
+     */
+    default void addAll(CustomList<? extends E> list) {
+        addAll(size(), list);
+    }
+
+    /**
+     * Добавляет все элементы передаваемой коллекции в конец этого списка в порядке,
+     * возвращаемом ее итератором.
+     *
+     * @param collection коллекция, элементы которой добавляются в этот список
+     * @throws NullPointerException если передаваемая коллекция равна {@code null}
+     */
+    default void addAll(Collection<? extends E> collection) {
+        addAll(size(), collection);
+    }
+
+    /**
+     * Добавляет все элементы передаваемого массива в конец этого списка.
+     *
+     * @param elements массив, элементы которого добавляются в этот список
+     * @throws NullPointerException если передаваемый массив равен {@code null}
+     */
+    default void addAll(E[] elements) {
+        addAll(size(), elements);
+    }
+
+    /**
+     * Вставляет все элементы передаваемого списка в этот список, начиная с указанного индекса.
+     * Элементы, следующие за указанным индексом, сдвигаются вправо на количество вставленных элементов.
+     *
+     * @param index индекс, по которому будет вставлен первый элемент
+     * @param list список, элементы которого добавляются в этот список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     * @throws NullPointerException если передаваемый список равен {@code null}
+     */
+    default void addAll(int index, CustomList<? extends E> list) {
+        checkPositionIndex(index);
+        if (list == this) {
+            list = copyOfRange(0, size());
+        }
+        for (E element : list) {
+            insertOrAppend(index++, element);
+        }
+    }
+
+    /**
+     * Вставляет все элементы передаваемой коллекции в этот список, начиная с указанного индекса.
+     * Элементы, следующие за указанным индексом, сдвигаются вправо на количество вставленных элементов.
+     *
+     * @param index индекс, по которому будет вставлен первый элемент
+     * @param collection коллекция, элементы которой добавляются в этот список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     * @throws NullPointerException если передаваемая коллекция равна {@code null}
+     */
+    default void addAll(int index, Collection<? extends E> collection) {
+        checkPositionIndex(index);
+        for (E element : collection) {
+            insertOrAppend(index++, element);
+        }
+    }
+
+    /**
+     * Вставляет все элементы передаваемого массива в этот список, начиная с указанного индекса.
+     * Элементы, следующие за указанным индексом, сдвигаются вправо на количество вставленных элементов.
+     *
+     * @param index индекс, по которому будет вставлен первый элемент
+     * @param elements массив, элементы которого добавляются в этот список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     * @throws NullPointerException если передаваемый массив равен {@code null}
+     */
+    default void addAll(int index, E[] elements) {
+        checkPositionIndex(index);
+        for (E element : elements) {
+            insertOrAppend(index++, element);
+        }
+    }
+
+    /**
+     * Удаляет из списка элементы, расположенные от {@code begin} включительно до {@code end}.
+     * Элементы, следующие за удаляемыми, сдвигаются влево на количество удаленных элементов.
+     *
+     * @param begin индекс первого удаляемого элемента
+     * @param end индекс, следующий за последним удаляемым элементом
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    default void removeRange(int begin, int end) {
+        if (begin < 0 || begin > size())
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size()));
+        if (end > size())
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size()));
+        if (begin > end) throw new IllegalArgumentException();
+
+        for (int i = begin; i < end; i++) {
+            remove(begin);
+        }
+    }
+
+    /**
+     * Возвращает {@code Spliterator} по элементам этого списка. Реализация по умолчанию
+     * основана на итераторе списка и сообщает точный размер ({@code SIZED}) и порядок
+     * ({@code ORDERED}) элементов; реализации на основе массива переопределяют ее, чтобы
+     * разбиение для параллельной обработки было сбалансированным.
+     *
+     * @return {@code Spliterator} по элементам этого списка
+     */
+    @Override
+    default Spliterator<E> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Возвращает последовательный поток элементов этого списка.
+     *
+     * @return последовательный поток элементов этого списка
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Возвращает поток элементов этого списка, который может обрабатываться параллельно.
+     *
+     * @return параллельный поток элементов этого списка
+     */
+    default Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Возвращает итератор списка по элементам этого списка в правильной последовательности,
+     * начиная с первого элемента.
+     *
+     * @return итератор списка по элементам этого списка
+     * @see #listIterator(int)
+     */
+    default ListIterator<E> listIterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * Возвращает итератор списка по элементам этого списка в правильной последовательности,
+     * начиная с элемента с указанным индексом. Итератор позволяет перемещаться в обоих
+     * направлениях, а также удалять, заменять и добавлять элементы.
+     *
+     * <p>Реализация по умолчанию выполняет все операции через методы {@code get}, {@code set},
+     * {@code add} и {@code remove} этого списка и выбрасывает {@code ConcurrentModificationException},
+     * если размер списка изменен в обход итератора.
+     *
+     * @param index индекс первого элемента, возвращаемого методом {@code next}
+     * @return итератор списка по элементам этого списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или больше размера списка
+     */
+    default ListIterator<E> listIterator(int index) {
+        checkPositionIndex(index);
+        return new CustomListIterator<>(this, index);
+    }
+
+    /**
+     * Увеличивает вместимость списка, если это необходимо, так чтобы он мог вместить
+     * не менее {@code minCapacity} элементов без повторного выделения памяти.
+     * Реализации, не имеющие понятия вместимости, могут игнорировать вызов.
+     *
+     * @param minCapacity требуемая минимальная вместимость
+     */
+    default void ensureCapacity(int minCapacity) {
+    }
+
+    /**
+     * Уменьшает вместимость списка до его текущего размера, освобождая неиспользуемую память.
+     * Реализации, не имеющие понятия вместимости, могут игнорировать вызов.
+     */
+    default void trimToSize() {
+    }
+
+    /**
+     * Возвращает неизменяемый список {@code ImmutableCustomList}, содержащий элементы
+     * передаваемого списка. Если передаваемый список уже неизменяемый, возвращается он сам;
+     * для {@code CustomArrayList} используется {@link CustomArrayList#freeze()}, не копирующий
+     * элементы. Элементы остальных списков копируются.
+     *
+     * @param list список, элементы которого содержит возвращаемый список
+     * @param <E> тип элементов в списке
+     * @return неизменяемый список с элементами передаваемого списка
+     * @throws NullPointerException если передаваемый список равен {@code null}
+     */
+    static <E> ImmutableCustomList<E> copyOf(CustomList<? extends E> list) {
+        if (list instanceof ImmutableCustomList<? extends E> immutable) {
+            return (ImmutableCustomList<E>) immutable;
+        }
+        if (list instanceof CustomArrayList<? extends E> arrayList) {
+            return (ImmutableCustomList<E>) arrayList.freeze();
+        }
+        Object[] elements = new Object[list.size()];
+        int size = 0;
+        for (E element : list) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2 + 1);
+            }
+            elements[size++] = element;
+        }
+        return new ImmutableCustomList<>(elements, 0, size);
+    }
+
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size()));
+    }
+
+    private void insertOrAppend(int index, E element) {
+        if (index == size()) {
+            add(element);
+        } else {
+            add(index, element);
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package ru.kozhevnikov;
+
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Итератор списка, используемый реализацией по умолчанию метода
+ * {@link CustomList#listIterator(int)}. Выполняет все операции через методы {@code get},
+ * {@code set}, {@code add} и {@code remove} списка, поэтому подходит для любой реализации
+ * {@code CustomList}. Изменение размера списка в обход итератора обнаруживается при следующей
+ * операции итератора и приводит к {@code ConcurrentModificationException}.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList#listIterator(int)
+ */
+class CustomListIterator<E> implements ListIterator<E> {
+    private final CustomList<E> list;
+    /**
+     * Индекс элемента, который будет возвращен методом {@code next}
+     */
+    private int cursor;
+    /**
+     * Индекс последнего возвращенного элемента или -1, если элемент был удален
+     * или добавлен после последнего вызова {@code next} или {@code previous}
+     */
+    private int lastRet = -1;
+    /**
+     * Ожидаемый размер списка
+     */
+    private int expectedSize;
+
+    CustomListIterator(CustomList<E> list, int index) {
+        this.list = list;
+        this.cursor = index;
+        this.expectedSize = list.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor != expectedSize;
+    }
+
+    @Override
+    public E next() {
+        checkForComodification();
+        if (cursor >= expectedSize)
+            throw new NoSuchElementException();
+        lastRet = cursor++;
+        return list.get(lastRet);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return cursor != 0;
+    }
+
+    @Override
+    public E previous() {
+        checkForComodification();
+        if (cursor <= 0)
+            throw new NoSuchElementException();
+        lastRet = --cursor;
+        return list.get(lastRet);
+    }
+
+    @Override
+    public int nextIndex() {
+        return cursor;
+    }
+
+    @Override
+    public int previousIndex() {
+        return cursor - 1;
+    }
+
+    @Override
+    public void remove() {
+        if (lastRet < 0)
+            throw new IllegalStateException();
+        checkForComodification();
+        list.remove(lastRet);
+        cursor = lastRet;
+        lastRet = -1;
+        expectedSize = list.size();
+    }
+
+    @Override
+    public void set(E element) {
+        if (lastRet < 0)
+            throw new IllegalStateException();
+        checkForComodification();
+        list.set(lastRet, element);
+    }
+
+    @Override
+    public void add(E element) {
+        checkForComodification();
+        if (cursor == expectedSize) {
+            list.add(element);
+        } else {
+            list.add(cursor, element);
+        }
+        cursor++;
+        lastRet = -1;
+        expectedSize = list.size();
+    }
+
+    private void checkForComodification() {
+        if (list.size() != expectedSize)
+            throw new ConcurrentModificationException();
+    }
+}
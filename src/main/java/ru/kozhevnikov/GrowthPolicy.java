@@ -0,0 +1,151 @@
+package ru.kozhevnikov;
+
+/**
+ * Стратегия изменения вместимости списка {@code CustomArrayList}. Определяет новую вместимость
+ * при заполнении массива и, опционально, уменьшение вместимости после удаления элементов.
+ *
+ * <p>Стандартные стратегии создаются статическими методами: {@link #geometric(double)},
+ * {@link #fixedStep(int)}, {@link #powerOfTwo()} и {@link #capped(GrowthPolicy, int)}.
+ * Автоматическое уменьшение вместимости включается методом {@link #withAutoShrink()}.
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomArrayList
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+    /**
+     * Максимальный размер массива, который можно выделить
+     */
+    int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * Стратегия по умолчанию: вместимость увеличивается в полтора раза плюс один элемент.
+     */
+    GrowthPolicy DEFAULT = capacity -> (int) Math.min(MAX_CAPACITY, capacity * 3L / 2 + 1);
+
+    /**
+     * Возвращает новую вместимость для заполненного массива указанной вместимости.
+     * Если результат меньше требуемой вместимости, список использует требуемую.
+     *
+     * @param capacity текущая вместимость
+     * @return новая вместимость
+     */
+    int grow(int capacity);
+
+    /**
+     * Возвращает вместимость, до которой нужно уменьшить массив после удаления элементов,
+     * или текущую вместимость, если уменьшать массив не нужно. По умолчанию массив не уменьшается.
+     *
+     * @param capacity текущая вместимость
+     * @param size размер списка после удаления
+     * @return новая вместимость, не меньшая размера списка
+     */
+    default int shrink(int capacity, int size) {
+        return capacity;
+    }
+
+    /**
+     * Возвращает новую вместимость, достаточную для хранения {@code minCapacity} элементов.
+     *
+     * @param capacity текущая вместимость
+     * @param minCapacity требуемая вместимость
+     * @return новая вместимость
+     * @throws OutOfMemoryError если требуемая вместимость больше максимального размера массива
+     */
+    default int newCapacity(int capacity, int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY)
+            throw new OutOfMemoryError("Required array length is too large");
+        return Math.max(minCapacity, Math.min(MAX_CAPACITY, grow(capacity)));
+    }
+
+    /**
+     * Возвращает стратегию, увеличивающую вместимость в {@code factor} раз, но не менее чем
+     * на один элемент.
+     *
+     * @param factor множитель вместимости
+     * @return геометрическая стратегия
+     * @throws IllegalArgumentException если множитель не больше единицы
+     */
+    static GrowthPolicy geometric(double factor) {
+        if (!(factor > 1.0))
+            throw new IllegalArgumentException("Illegal growth factor");
+        return capacity -> (int) Math.min(MAX_CAPACITY, Math.max(capacity + 1L, (long) (capacity * factor)));
+    }
+
+    /**
+     * Возвращает стратегию, увеличивающую вместимость на постоянное количество элементов.
+     * Расходует меньше памяти, но добавление n элементов занимает O(n²/step).
+     *
+     * @param step количество элементов, на которое увеличивается вместимость
+     * @return стратегия с постоянным шагом
+     * @throws IllegalArgumentException если шаг не положительный
+     */
+    static GrowthPolicy fixedStep(int step) {
+        if (step <= 0)
+            throw new IllegalArgumentException("Illegal growth step");
+        return capacity -> (int) Math.min(MAX_CAPACITY, (long) capacity + step);
+    }
+
+    /**
+     * Возвращает стратегию, при которой вместимость равна наименьшей степени двойки,
+     * большей текущей вместимости.
+     *
+     * @return стратегия степеней двойки
+     */
+    static GrowthPolicy powerOfTwo() {
+        return capacity -> capacity >= 1 << 30 ? MAX_CAPACITY : Integer.highestOneBit(capacity) << 1;
+    }
+
+    /**
+     * Возвращает стратегию, увеличивающую вместимость так же, как {@code policy}, но не более чем
+     * на {@code maxStep} элементов за раз. Для больших списков ограничивает количество пустых
+     * ячеек, оставшихся после увеличения вместимости.
+     *
+     * @param policy исходная стратегия
+     * @param maxStep наибольшее увеличение вместимости
+     * @return ограниченная стратегия
+     * @throws IllegalArgumentException если наибольшее увеличение не положительное
+     */
+    static GrowthPolicy capped(GrowthPolicy policy, int maxStep) {
+        if (maxStep <= 0)
+            throw new IllegalArgumentException("Illegal growth step");
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity) {
+                return (int) Math.min(policy.grow(capacity), (long) capacity + maxStep);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                return policy.shrink(capacity, size);
+            }
+        };
+    }
+
+    /**
+     * Возвращает стратегию, увеличивающую вместимость так же, как эта, и уменьшающую ее с
+     * гистерезисом: когда после удаления или очистки список заполнен меньше чем на четверть,
+     * вместимость уменьшается вдвое больше размера списка, но не меньше 10. Поскольку после
+     * уменьшения список заполнен наполовину, чередование добавлений и удалений на границе
+     * не приводит к постоянному перевыделению массива.
+     *
+     * @return стратегия с автоматическим уменьшением вместимости
+     */
+    default GrowthPolicy withAutoShrink() {
+        GrowthPolicy policy = this;
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity) {
+                return policy.grow(capacity);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                if (capacity <= 10 || size >= capacity / 4) {
+                    return capacity;
+                }
+                return Math.max(10, size * 2);
+            }
+        };
+    }
+}
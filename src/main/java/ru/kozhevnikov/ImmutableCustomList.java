@@ -0,0 +1,385 @@
+package ru.kozhevnikov;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Неизменяемый список, возвращаемый методами {@link CustomArrayList#freeze()} и
+ * {@link CustomList#copyOf(CustomList)}. Позволяет хранить все элементы, включая {@code null}.
+ * Класс {@code ImmutableCustomList} является потокобезопасным, если он безопасно опубликован.
+ *
+ * <p>Список не копирует элементы, а использует участок массива исходного списка: исходный
+ * {@code CustomArrayList} копирует массив при первом изменении после вызова {@code freeze()}.
+ * Метод {@link #subList(int, int)} также не копирует элементы и возвращает неизменяемый список,
+ * использующий тот же массив, поэтому передача списка или его части занимает O(1).
+ * Хэш-код вычисляется один раз при первом вызове {@link #hashCode()}.
+ *
+ * <p>Все методы, изменяющие список, выбрасывают {@code UnsupportedOperationException}.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see CustomArrayList
+ */
+public final class ImmutableCustomList<E> implements CustomList<E> {
+    /**
+     * Массив, содержащий элементы списка. Элементы этого участка массива никогда не изменяются
+     */
+    private final Object[] elementData;
+    /**
+     * Индекс первого элемента списка в массиве
+     */
+    private final int offset;
+    /**
+     * Размер списка
+     */
+    private final int size;
+    /**
+     * Вычисленный хэш-код или 0, если он еще не вычислен
+     */
+    private int hash;
+    /**
+     * {@code true}, если вычисленный хэш-код равен 0
+     */
+    private boolean hashIsZero;
+
+    ImmutableCustomList(Object[] elementData, int offset, int size) {
+        this.elementData = elementData;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public void add(E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(CustomList<? extends E> list) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(E[] elements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(int index, CustomList<? extends E> list) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(int index, Collection<? extends E> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(int index, E[] elements) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает элемент из списка по его индексу.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public E get(int index) {
+        checkIndexRange(index, size);
+        return (E) elementData[offset + index];
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int indexOf(E element) {
+        int index = ArrayScan.indexOf(elementData, offset, offset + size, element);
+        return index == -1 ? -1 : index - offset;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        int index = ArrayScan.lastIndexOf(elementData, offset, offset + size, element);
+        return index == -1 ? -1 : index - offset;
+    }
+
+    @Override
+    public void remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeRange(int begin, int end) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void parallelSort(Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E nthElement(int k, Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void partialSort(int k, Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает неизменяемый список, включающий в себя элементы этого списка, расположенные
+     * от {@code begin} включительно до {@code end}. Элементы не копируются.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public ImmutableCustomList<E> subList(int begin, int end) {
+        checkSubListRange(begin, end, size);
+        if (begin == 0 && end == size) {
+            return this;
+        }
+        return new ImmutableCustomList<>(elementData, offset + begin, end - begin);
+    }
+
+    /**
+     * Возвращает новый изменяемый список {@code CustomArrayList}, включающий в себя элементы
+     * этого списка, расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomArrayList<E> copyOfRange(int begin, int end) {
+        checkSubListRange(begin, end, size);
+        CustomArrayList<E> copy = new CustomArrayList<>(end - begin);
+        copy.addAll(this.subList(begin, end));
+        return copy;
+    }
+
+    @Override
+    public void set(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает итератор по элементам этого списка в правильной последовательности.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int cursor = offset;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < offset + size;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return (E) elementData[cursor++];
+            }
+        };
+    }
+
+    /**
+     * Выполняет действие для каждого элемента списка, обходя массив напрямую.
+     *
+     * @param action действие, выполняемое для каждого элемента
+     * @throws NullPointerException если действие равно {@code null}
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        for (int i = offset; i < offset + size; i++) {
+            action.accept((E) elementData[i]);
+        }
+    }
+
+    /**
+     * Возвращает сплитератор по участку массива, содержащему элементы списка.
+     *
+     * @return сплитератор по элементам этого списка
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(elementData, offset, offset + size,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     * Неизменяемые списки с уже вычисленными различными хэш-кодами сравниваются за O(1).
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof ImmutableCustomList<?> that) {
+            if (size != that.size) return false;
+            if (isHashComputed() && that.isHashComputed() && hash != that.hash) return false;
+            return that.rangeEquals(elementData, offset, offset + size);
+        }
+        if (o instanceof CustomArrayList<?> that) return that.equals(this);
+        if (!(o instanceof CustomList<?> that)) return false;
+        if (size != that.size()) return false;
+        Iterator<?> iterator = that.iterator();
+        for (int i = offset; i < offset + size; i++) {
+            if (!Objects.equals(elementData[i], iterator.next())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается на основе содержимого спсика
+     * при первом вызове и затем сохраняется.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = 1;
+            for (int i = offset; i < offset + size; i++) {
+                h = 31 * h + Objects.hashCode(elementData[i]);
+            }
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        if (size == 0) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = offset; i < offset + size; i++) {
+            if (i > offset) sb.append(", ");
+            sb.append(elementData[i]);
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Сравнивает элементы этого списка с участком передаваемого массива.
+     */
+    boolean rangeEquals(Object[] a, int begin, int end) {
+        return Arrays.equals(elementData, offset, offset + size, a, begin, end);
+    }
+
+    Object[] toArray() {
+        return Arrays.copyOfRange(elementData, offset, offset + size);
+    }
+
+    private boolean isHashComputed() {
+        return hash != 0 || hashIsZero;
+    }
+
+    private static void checkIndexRange(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private static void checkSubListRange(int begin, int end, int size) {
+        if (begin < 0 || begin > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size));
+        if (end > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        if (begin > end) throw new IllegalArgumentException();
+    }
+}
@@ -0,0 +1,542 @@
+package ru.kozhevnikov;
+
+import ru.kozhevnikov.primitive.IntCustomArrayList;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Реализация интерфейса {@code CustomList} на основе {@code CustomArrayList}, дополненная
+ * хэш-индексом, который для каждого элемента хранит упорядоченный список его позиций в списке.
+ * Благодаря индексу методы {@code indexOf}, {@code lastIndexOf}, {@code contains} и поиск
+ * удаляемого элемента в {@code remove(E)} выполняются за O(1) в среднем вместо полного
+ * просмотра списка. Позволяет хранить все элементы, включая {@code null}.
+ * Класс {@code IndexedCustomArrayList} не является потокобезопасным.
+ *
+ * <p>Индекс может поддерживаться в одном из двух режимов:
+ * <ul>
+ * <li>немедленном (по умолчанию) - индекс обновляется при каждом изменении списка. Добавление
+ * в конец и замена элемента обновляют индекс за O(1), вставка и удаление из середины -
+ * пропорционально количеству сдвигаемых элементов, массовые операции и сортировка
+ * перестраивают индекс целиком;</li>
+ * <li>отложенном - любое изменение списка сбрасывает индекс, а строится он заново при первом
+ * поиске. Этот режим подходит для фаз, в которых список в основном изменяется.</li>
+ * </ul>
+ *
+ * <p>Метод {@link #subList(int, int)} возвращает независимую копию, так как изменения через
+ * представление прошли бы мимо индекса.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see CustomArrayList
+ */
+public class IndexedCustomArrayList<E> implements CustomList<E> {
+    /**
+     * Список, содержащий элементы
+     */
+    private final CustomArrayList<E> elements;
+    /**
+     * Режим построения индекса: {@code true} - отложенный, {@code false} - немедленный
+     */
+    private final boolean lazyIndex;
+    /**
+     * Индекс: элемент - упорядоченный по возрастанию список его позиций. Равен {@code null},
+     * если индекс еще не построен или сброшен
+     */
+    private Map<Object, IntCustomArrayList> index;
+
+    /**
+     * Конструктор для создания пустого списка с вместимостью 10 и немедленным обновлением индекса.
+     */
+    public IndexedCustomArrayList() {
+        this(false);
+    }
+
+    /**
+     * Конструктор для создания пустого списка с вместимостью 10 и указанным режимом построения индекса.
+     *
+     * @param lazyIndex {@code true}, если индекс должен строиться при первом поиске
+     *                  и сбрасываться при изменении списка
+     */
+    public IndexedCustomArrayList(boolean lazyIndex) {
+        this(10, lazyIndex);
+    }
+
+    /**
+     * Конструктор для создания пустого списка с указанной вместимостью и режимом построения индекса.
+     *
+     * @param initCapacity начальная вместимость списка
+     * @param lazyIndex {@code true}, если индекс должен строиться при первом поиске
+     *                  и сбрасываться при изменении списка
+     * @throws IllegalArgumentException в случае передачи отрицательной
+     * вместимости
+     */
+    public IndexedCustomArrayList(int initCapacity, boolean lazyIndex) {
+        this.elements = new CustomArrayList<>(initCapacity);
+        this.lazyIndex = lazyIndex;
+        if (!lazyIndex) {
+            index = new HashMap<>();
+        }
+    }
+
+    /**
+     * Добавляет передаваемый элемент в конец списка.
+     *
+     * @param element элемент, добавляемый в список
+     */
+    @Override
+    public void add(E element) {
+        elements.add(element);
+        if (isIndexMaintained()) {
+            addPosition(element, elements.size() - 1);
+        }
+    }
+
+    /**
+     * Добавляет передаваемый элемент в указанное место списка по индексу.
+     * Сдвигает все элементы, следующие за указанным, на одну позицию вправо.
+     *
+     * @param index индекс, по которому элемент будет добавлен в список
+     * @param element элемент, добавляемый в список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void add(int index, E element) {
+        elements.add(index, element);
+        if (isIndexMaintained()) {
+            for (int i = elements.size() - 1; i > index; i--) {
+                movePosition(elements.get(i), i - 1, i);
+            }
+            addPosition(element, index);
+        }
+    }
+
+    /**
+     * Возвращает элемент из списка по его индексу.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия. Поиск выполняется по индексу.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int indexOf(E element) {
+        IntCustomArrayList positions = positionsOf(element);
+        return positions == null ? -1 : positions.get(0);
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия. Поиск выполняется по индексу.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        IntCustomArrayList positions = positionsOf(element);
+        return positions == null ? -1 : positions.get(positions.size() - 1);
+    }
+
+    /**
+     * Проверяет, содержит ли список элемент, соответсвующий переданному элементу.
+     * Поиск выполняется по индексу.
+     *
+     * @param element элемент, наличие которого в списке необходимо проверить
+     * @return {@code true}, если список содержит указанный элемент
+     */
+    @Override
+    public boolean contains(E element) {
+        return positionsOf(element) != null;
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу. Сдвигает все элементы,
+     * следующие за удаляемым, на одну позицию влево.
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void remove(int index) {
+        E removed = elements.get(index);
+        elements.remove(index);
+        if (isIndexMaintained()) {
+            removePosition(removed, index);
+            for (int i = index; i < elements.size(); i++) {
+                movePosition(elements.get(i), i + 1, i);
+            }
+        }
+    }
+
+    /**
+     * Удаляет перый элемент из списка, соответсвующий переданному элементу, в случае
+     * его наличия. В случае отсутствия такого элемента список не изменяется.
+     * Удаляемый элемент находится по индексу.
+     *
+     * @param element жлемент, который необходимо удалить из списка
+     * @return {@code true} если список содержит указанный элемент
+     */
+    @Override
+    public boolean remove(E element) {
+        int index = indexOf(element);
+        if (index != -1) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию. В случае
+     * отсуствия таких элементов список не изменяется.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     */
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        int oldSize = elements.size();
+        elements.removeIf(filter);
+        if (elements.size() != oldSize) {
+            indexChanged();
+        }
+    }
+
+    /**
+     * Удаляет все элементы из списка.
+     */
+    @Override
+    public void clear() {
+        elements.clear();
+        if (index != null) {
+            index.clear();
+        }
+    }
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * Сортирует список так же, как {@link CustomArrayList#sort(Comparator)}, после чего
+     * перестраивает индекс.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     */
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        elements.sort(comparator);
+        indexChanged();
+    }
+
+    /**
+     * Сортирует список так же, как {@link CustomArrayList#parallelSort(Comparator)}, после чего
+     * перестраивает индекс.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     */
+    @Override
+    public void parallelSort(Comparator<? super E> comparator) {
+        elements.parallelSort(comparator);
+        indexChanged();
+    }
+
+    /**
+     * Выбирает элемент для позиции {@code k} так же, как {@link CustomList#nthElement(int, Comparator)},
+     * после чего перестраивает индекс.
+     *
+     * @param k индекс выбираемого элемента
+     * @param comparator компаратор, задающий порядок элементов
+     * @return элемент, оказавшийся на позиции {@code k}
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    @Override
+    public E nthElement(int k, Comparator<? super E> comparator) {
+        E element = elements.nthElement(k, comparator);
+        indexChanged();
+        return element;
+    }
+
+    /**
+     * Сортирует {@code k} наименьших элементов так же, как
+     * {@link CustomList#partialSort(int, Comparator)}, после чего перестраивает индекс.
+     *
+     * @param k количество сортируемых наименьших элементов
+     * @param comparator компаратор, задающий порядок элементов
+     * @throws IllegalArgumentException если {@code k} отрицательное или больше размера списка
+     */
+    @Override
+    public void partialSort(int k, Comparator<? super E> comparator) {
+        elements.partialSort(k, comparator);
+        indexChanged();
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}. Возвращаемый список не связан
+     * с этим списком.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomList<E> subList(int begin, int end) {
+        return elements.copyOfRange(begin, end);
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomList<E> copyOfRange(int begin, int end) {
+        return elements.copyOfRange(begin, end);
+    }
+
+    /**
+     * Производит замену элемента списка с передаваемым индексом на передаваемый элемент.
+     *
+     * @param index индекс заменяемого элемента
+     * @param element элемент, на который будет произведена замена
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    @Override
+    public void set(int index, E element) {
+        E replaced = elements.get(index);
+        elements.set(index, element);
+        if (isIndexMaintained()) {
+            removePosition(replaced, index);
+            addPosition(element, index);
+        }
+    }
+
+    @Override
+    public void addAll(int index, CustomList<? extends E> list) {
+        int oldSize = elements.size();
+        elements.addAll(index, list);
+        afterBulkInsert(index, oldSize);
+    }
+
+    @Override
+    public void addAll(int index, Collection<? extends E> collection) {
+        int oldSize = elements.size();
+        elements.addAll(index, collection);
+        afterBulkInsert(index, oldSize);
+    }
+
+    @Override
+    public void addAll(int index, E[] elements) {
+        int oldSize = this.elements.size();
+        this.elements.addAll(index, elements);
+        afterBulkInsert(index, oldSize);
+    }
+
+    @Override
+    public void removeRange(int begin, int end) {
+        elements.removeRange(begin, end);
+        if (begin < end) {
+            indexChanged();
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        elements.ensureCapacity(minCapacity);
+    }
+
+    @Override
+    public void trimToSize() {
+        elements.trimToSize();
+    }
+
+    /**
+     * Возвращает итератор по элементам этого списка в правильной последовательности.
+     * Удаление через итератор выполняется методом {@link #remove(int)}, поэтому индекс
+     * остается согласованным со списком.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return listIterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        elements.forEach(action);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return elements.spliterator();
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || elements.equals(o);
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
+     * на основе содержимого спсика.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        return elements.hashCode();
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        return elements.toString();
+    }
+
+    private boolean isIndexMaintained() {
+        if (lazyIndex) {
+            index = null;
+            return false;
+        }
+        return true;
+    }
+
+    private void afterBulkInsert(int insertIndex, int oldSize) {
+        if (elements.size() == oldSize) {
+            return;
+        }
+        if (insertIndex == oldSize && isIndexMaintained()) {
+            for (int i = oldSize; i < elements.size(); i++) {
+                addPosition(elements.get(i), i);
+            }
+        } else {
+            indexChanged();
+        }
+    }
+
+    /**
+     * Сбрасывает индекс в отложенном режиме или перестраивает его в немедленном.
+     */
+    private void indexChanged() {
+        index = null;
+        if (!lazyIndex) {
+            buildIndex();
+        }
+    }
+
+    private void buildIndex() {
+        Map<Object, IntCustomArrayList> newIndex = new HashMap<>();
+        int i = 0;
+        for (E element : elements) {
+            newIndex.computeIfAbsent(element, key -> new IntCustomArrayList(1)).add(i++);
+        }
+        index = newIndex;
+    }
+
+    private IntCustomArrayList positionsOf(Object element) {
+        if (index == null) {
+            buildIndex();
+        }
+        return index.get(element);
+    }
+
+    private void addPosition(Object element, int position) {
+        IntCustomArrayList positions = index.get(element);
+        if (positions == null) {
+            positions = new IntCustomArrayList(1);
+            index.put(element, positions);
+        }
+        int insertionPoint = -(binarySearch(positions, position) + 1);
+        if (insertionPoint == positions.size()) {
+            positions.add(position);
+        } else {
+            positions.add(insertionPoint, position);
+        }
+    }
+
+    private void removePosition(Object element, int position) {
+        IntCustomArrayList positions = index.get(element);
+        positions.remove(binarySearch(positions, position));
+        if (positions.size() == 0) {
+            index.remove(element);
+        }
+    }
+
+    /**
+     * Заменяет позицию {@code from} элемента на {@code to}. Позиции между ними у этого элемента
+     * отсутствуют, поэтому порядок позиций сохраняется.
+     */
+    private void movePosition(Object element, int from, int to) {
+        IntCustomArrayList positions = index.get(element);
+        positions.set(binarySearch(positions, from), to);
+    }
+
+    private static int binarySearch(IntCustomArrayList positions, int position) {
+        int low = 0;
+        int high = positions.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = positions.get(mid);
+            if (value < position) {
+                low = mid + 1;
+            } else if (value > position) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,291 @@
+package ru.kozhevnikov;
+
+import java.util.Comparator;
+
+/**
+ * Интроспективная сортировка (introsort) участка массива, используемая методом
+ * {@link CustomArrayList#sort(Comparator)}.
+ *
+ * <p>Основа алгоритма - быстрая сортировка с разбиением на три части (меньше опорного, равные
+ * опорному и больше опорного), благодаря которому большое количество одинаковых элементов не
+ * приводит к квадратичному времени. Опорный элемент выбирается как медиана трех элементов,
+ * а для больших участков - как медиана трех медиан. Рекурсивный вызов всегда выполняется для
+ * меньшей части, а большая обрабатывается в цикле, поэтому глубина стека не превышает log n.
+ * Если глубина разбиений превышает 2 log n, участок досортировывается пирамидальной
+ * сортировкой, что гарантирует время O(n log n) в худшем случае. Короткие участки
+ * сортируются вставками.
+ *
+ * <p>Сортировка не является устойчивой и не использует дополнительной памяти.
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomArrayList#sort(Comparator)
+ */
+final class IntroSort {
+    /**
+     * Длина участка, меньше которой используется сортировка вставками
+     */
+    static final int INSERTION_SORT_THRESHOLD = 16;
+    /**
+     * Длина участка, начиная с которой опорный элемент выбирается как медиана трех медиан
+     */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    private IntroSort() {
+    }
+
+    /**
+     * Сортирует участок массива от {@code begin} включительно до {@code end} в соответствии
+     * с методом {@code compare} компаратора.
+     *
+     * @param a сортируемый массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <T> тип элементов массива
+     */
+    static <T> void sort(Object[] a, int begin, int end, Comparator<? super T> comparator) {
+        if (end - begin < 2) {
+            return;
+        }
+        sort(a, begin, end, (Comparator<Object>) comparator, depthLimit(end - begin), new int[2]);
+    }
+
+    private static void sort(Object[] a, int begin, int end, Comparator<Object> c, int depthLimit,
+                             int[] bounds) {
+        while (end - begin > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, begin, end, c);
+                return;
+            }
+
+            partition(a, begin, end, c, bounds);
+            int lessEnd = bounds[0];
+            int greaterBegin = bounds[1];
+
+            if (lessEnd - begin < end - greaterBegin) {
+                sort(a, begin, lessEnd, c, depthLimit, bounds);
+                begin = greaterBegin;
+            } else {
+                sort(a, greaterBegin, end, c, depthLimit, bounds);
+                end = lessEnd;
+            }
+        }
+        insertionSort(a, begin, end, c);
+    }
+
+    /**
+     * Переставляет элементы участка массива так, что на позиции {@code nth} оказывается элемент,
+     * который стоял бы на ней после сортировки, все элементы левее не больше него, а все элементы
+     * правее не меньше него (интроспективный выбор, introselect). Разбиение то же, что и при
+     * сортировке, но продолжается только в той части, которая содержит {@code nth}, поэтому
+     * в среднем выбор занимает O(n). Если глубина разбиений превышает 2 log n, выбор завершается
+     * с помощью пирамиды, что гарантирует время O(n log n) в худшем случае.
+     *
+     * @param a массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param nth индекс выбираемого элемента в массиве, {@code begin <= nth < end}
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <T> тип элементов массива
+     */
+    static <T> void select(Object[] a, int begin, int end, int nth, Comparator<? super T> comparator) {
+        Comparator<Object> c = (Comparator<Object>) comparator;
+        int depthLimit = depthLimit(end - begin);
+        int[] bounds = new int[2];
+        while (end - begin > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSelect(a, begin, end, nth, c);
+                return;
+            }
+
+            partition(a, begin, end, c, bounds);
+            if (nth < bounds[0]) {
+                end = bounds[0];
+            } else if (nth >= bounds[1]) {
+                begin = bounds[1];
+            } else {
+                return;
+            }
+        }
+        insertionSort(a, begin, end, c);
+    }
+
+    /**
+     * Переставляет элементы участка массива так, что первые {@code k} позиций занимают
+     * наименьшие элементы в отсортированном порядке. Порядок остальных элементов не определен.
+     * Занимает O(n + k log k) в среднем: сначала выполняется {@link #select}, затем сортируются
+     * только первые {@code k} элементов.
+     *
+     * @param a массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param k количество сортируемых наименьших элементов, {@code 0 <= k <= end - begin}
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <T> тип элементов массива
+     */
+    static <T> void partialSort(Object[] a, int begin, int end, int k, Comparator<? super T> comparator) {
+        if (k == 0) {
+            return;
+        }
+        if (begin + k < end) {
+            select(a, begin, end, begin + k, comparator);
+        }
+        sort(a, begin, begin + k, comparator);
+    }
+
+    /**
+     * Выбирает элемент для позиции {@code nth} с помощью пирамиды: наименьшие элементы собираются
+     * в пирамиду с наибольшим элементом в корне, после чего корень ставится на позицию {@code nth}.
+     */
+    private static void heapSelect(Object[] a, int begin, int end, int nth, Comparator<Object> c) {
+        int heapSize = nth - begin + 1;
+        heapify(a, begin, heapSize, c);
+        for (int i = nth + 1; i < end; i++) {
+            if (c.compare(a[i], a[begin]) < 0) {
+                swap(a, begin, i);
+                siftDown(a, begin, 0, heapSize, c);
+            }
+        }
+        swap(a, begin, nth);
+    }
+
+    /**
+     * Возвращает допустимую глубину разбиений для участка длины {@code length}: 2 log2(length).
+     *
+     * @param length длина участка
+     * @return допустимая глубина разбиений
+     */
+    static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(length));
+    }
+
+    /**
+     * Разбивает участок массива длиной не меньше 3 на три части относительно опорного элемента:
+     * элементы меньше опорного, равные ему и больше него. После разбиения {@code bounds[0]} содержит
+     * индекс первого элемента, равного опорному, а {@code bounds[1]} - индекс первого элемента,
+     * большего опорного.
+     *
+     * @param a массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param c компаратор, задающий порядок элементов
+     * @param bounds массив для возврата границ части, равной опорному элементу
+     */
+    static void partition(Object[] a, int begin, int end, Comparator<Object> c, int[] bounds) {
+        Object pivot = a[choosePivotIndex(a, begin, end, c)];
+
+        int less = begin;
+        int i = begin;
+        int greater = end - 1;
+        while (i <= greater) {
+            int comparison = c.compare(a[i], pivot);
+            if (comparison < 0) {
+                swap(a, less++, i++);
+            } else if (comparison > 0) {
+                swap(a, i, greater--);
+            } else {
+                i++;
+            }
+        }
+        bounds[0] = less;
+        bounds[1] = greater + 1;
+    }
+
+    private static int choosePivotIndex(Object[] a, int begin, int end, Comparator<Object> c) {
+        int last = end - 1;
+        int mid = (begin + last) >>> 1;
+        if (end - begin >= NINTHER_THRESHOLD) {
+            int step = (end - begin) / 8;
+            int first = medianOfThree(a, begin, begin + step, begin + 2 * step, c);
+            int second = medianOfThree(a, mid - step, mid, mid + step, c);
+            int third = medianOfThree(a, last - 2 * step, last - step, last, c);
+            return medianOfThree(a, first, second, third, c);
+        }
+        return medianOfThree(a, begin, mid, last, c);
+    }
+
+    private static int medianOfThree(Object[] a, int i, int j, int k, Comparator<Object> c) {
+        if (c.compare(a[i], a[j]) < 0) {
+            if (c.compare(a[j], a[k]) < 0) return j;
+            return c.compare(a[i], a[k]) < 0 ? k : i;
+        }
+        if (c.compare(a[k], a[j]) < 0) return j;
+        return c.compare(a[k], a[i]) < 0 ? k : i;
+    }
+
+    /**
+     * Сортирует участок массива вставками.
+     *
+     * @param a массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param c компаратор, задающий порядок элементов
+     */
+    static void insertionSort(Object[] a, int begin, int end, Comparator<Object> c) {
+        for (int i = begin + 1; i < end; i++) {
+            Object element = a[i];
+            int j = i - 1;
+            while (j >= begin && c.compare(a[j], element) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = element;
+        }
+    }
+
+    /**
+     * Сортирует участок массива пирамидальной сортировкой.
+     *
+     * @param a массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param c компаратор, задающий порядок элементов
+     */
+    static void heapSort(Object[] a, int begin, int end, Comparator<Object> c) {
+        int length = end - begin;
+        heapify(a, begin, length, c);
+        for (int heapSize = length - 1; heapSize > 0; heapSize--) {
+            swap(a, begin, begin + heapSize);
+            siftDown(a, begin, 0, heapSize, c);
+        }
+    }
+
+    /**
+     * Перестраивает {@code heapSize} элементов массива, начиная с {@code base}, в пирамиду
+     * с наибольшим элементом в корне.
+     *
+     * @param a массив
+     * @param base индекс корня пирамиды
+     * @param heapSize количество элементов пирамиды
+     * @param c компаратор, задающий порядок элементов
+     */
+    static void heapify(Object[] a, int base, int heapSize, Comparator<Object> c) {
+        for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+            siftDown(a, base, i, heapSize, c);
+        }
+    }
+
+    static void siftDown(Object[] a, int base, int index, int heapSize, Comparator<Object> c) {
+        Object element = a[base + index];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < heapSize && c.compare(a[base + child], a[base + right]) < 0) {
+                child = right;
+            }
+            if (c.compare(element, a[base + child]) >= 0) {
+                break;
+            }
+            a[base + index] = a[base + child];
+            index = child;
+        }
+        a[base + index] = element;
+    }
+
+    static void swap(Object[] a, int i, int j) {
+        Object tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+}
@@ -0,0 +1,197 @@
+package ru.kozhevnikov;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельная устойчивая сортировка слиянием участка массива на {@code ForkJoinPool}.
+ *
+ * <p>Участок делится пополам до тех пор, пока части не станут меньше гранулы, части сортируются
+ * параллельно последовательным {@link TimSort}, после чего соседние отсортированные части
+ * сливаются во вспомогательный массив. Само слияние тоже выполняется параллельно: большая
+ * из двух сливаемых серий делится пополам, а место разреза во второй серии находится
+ * бинарным поиском, после чего обе половины сливаются независимо.
+ *
+ * @author Kozhevnikov Valentin
+ * @see Utils#parallelMergeSort(CustomList, Comparator, ForkJoinPool, int)
+ */
+final class ParallelMergeSort {
+    /**
+     * Размер участка по умолчанию, меньше которого сортировка выполняется последовательно
+     */
+    static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    private ParallelMergeSort() {
+    }
+
+    /**
+     * Сортирует участок массива от {@code begin} включительно до {@code end} в соответствии
+     * с методом {@code compare} компаратора. Сортировка устойчива. Участки длиной не больше
+     * {@code threshold}, а также сортировка в пуле с параллелизмом 1, выполняются последовательно.
+     *
+     * @param a сортируемый массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param comparator компаратор, задающий порядок элементов
+     * @param pool пул потоков, в котором выполняется сортировка
+     * @param threshold размер участка, меньше которого сортировка выполняется последовательно
+     * @param <T> тип элементов массива
+     */
+    static <T> void sort(Object[] a, int begin, int end, Comparator<? super T> comparator,
+                         ForkJoinPool pool, int threshold) {
+        int length = end - begin;
+        int parallelism = pool.getParallelism();
+        if (length <= threshold || parallelism <= 1) {
+            TimSort.sort(a, begin, end, comparator);
+            return;
+        }
+
+        // На каждый поток приходится несколько частей, чтобы работа распределялась равномерно.
+        int granularity = Math.max(length / (parallelism << 2), threshold);
+        Object[] buffer = new Object[length];
+        pool.invoke(new Sorter(a, buffer, begin, end, begin, (Comparator<Object>) comparator, granularity));
+    }
+
+    /**
+     * Задача сортировки участка {@code a[begin, end)}. Вспомогательный массив {@code buffer}
+     * используется со сдвигом {@code bufferOffset}.
+     */
+    private static final class Sorter extends RecursiveAction {
+        private final Object[] a;
+        private final Object[] buffer;
+        private final int begin;
+        private final int end;
+        private final int bufferOffset;
+        private final Comparator<Object> comparator;
+        private final int granularity;
+
+        private Sorter(Object[] a, Object[] buffer, int begin, int end, int bufferOffset,
+                       Comparator<Object> comparator, int granularity) {
+            this.a = a;
+            this.buffer = buffer;
+            this.begin = begin;
+            this.end = end;
+            this.bufferOffset = bufferOffset;
+            this.comparator = comparator;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - begin <= granularity) {
+                TimSort.sort(a, begin, end, comparator);
+                return;
+            }
+
+            int mid = (begin + end) >>> 1;
+            invokeAll(new Sorter(a, buffer, begin, mid, bufferOffset, comparator, granularity),
+                    new Sorter(a, buffer, mid, end, bufferOffset, comparator, granularity));
+
+            if (comparator.compare(a[mid - 1], a[mid]) <= 0) {
+                return;
+            }
+            new Merger(a, begin, mid, mid, end, buffer, begin - bufferOffset, comparator, granularity).compute();
+            System.arraycopy(buffer, begin - bufferOffset, a, begin, end - begin);
+        }
+    }
+
+    /**
+     * Задача устойчивого слияния серий {@code a[begin1, end1)} и {@code a[begin2, end2)}
+     * в массив {@code dest}, начиная с индекса {@code destBegin}.
+     */
+    private static final class Merger extends RecursiveAction {
+        private final Object[] a;
+        private final int begin1;
+        private final int end1;
+        private final int begin2;
+        private final int end2;
+        private final Object[] dest;
+        private final int destBegin;
+        private final Comparator<Object> comparator;
+        private final int granularity;
+
+        private Merger(Object[] a, int begin1, int end1, int begin2, int end2, Object[] dest, int destBegin,
+                       Comparator<Object> comparator, int granularity) {
+            this.a = a;
+            this.begin1 = begin1;
+            this.end1 = end1;
+            this.begin2 = begin2;
+            this.end2 = end2;
+            this.dest = dest;
+            this.destBegin = destBegin;
+            this.comparator = comparator;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int length1 = end1 - begin1;
+            int length2 = end2 - begin2;
+            if (length1 + length2 <= granularity || length1 == 0 || length2 == 0) {
+                merge();
+                return;
+            }
+
+            int split1;
+            int split2;
+            if (length1 >= length2) {
+                // Элементы второй серии, равные опорному, должны попасть после него.
+                split1 = (begin1 + end1) >>> 1;
+                split2 = lowerBound(a[split1], begin2, end2);
+            } else {
+                // Элементы первой серии, равные опорному, должны попасть перед ним.
+                split2 = (begin2 + end2) >>> 1;
+                split1 = upperBound(a[split2], begin1, end1);
+            }
+            if (split1 == begin1 && split2 == begin2) {
+                // Разрез не уменьшил задачу: правая часть совпадает с исходной.
+                merge();
+                return;
+            }
+            int rightDestBegin = destBegin + (split1 - begin1) + (split2 - begin2);
+
+            invokeAll(new Merger(a, begin1, split1, begin2, split2, dest, destBegin, comparator, granularity),
+                    new Merger(a, split1, end1, split2, end2, dest, rightDestBegin, comparator, granularity));
+        }
+
+        private void merge() {
+            int i = begin1;
+            int j = begin2;
+            int k = destBegin;
+            while (i < end1 && j < end2) {
+                if (comparator.compare(a[i], a[j]) <= 0) {
+                    dest[k++] = a[i++];
+                } else {
+                    dest[k++] = a[j++];
+                }
+            }
+            System.arraycopy(a, i, dest, k, end1 - i);
+            System.arraycopy(a, j, dest, k + end1 - i, end2 - j);
+        }
+
+        private int lowerBound(Object key, int begin, int end) {
+            while (begin < end) {
+                int mid = (begin + end) >>> 1;
+                if (comparator.compare(a[mid], key) < 0) {
+                    begin = mid + 1;
+                } else {
+                    end = mid;
+                }
+            }
+            return begin;
+        }
+
+        private int upperBound(Object key, int begin, int end) {
+            while (begin < end) {
+                int mid = (begin + end) >>> 1;
+                if (comparator.compare(a[mid], key) <= 0) {
+                    begin = mid + 1;
+                } else {
+                    end = mid;
+                }
+            }
+            return begin;
+        }
+    }
+}
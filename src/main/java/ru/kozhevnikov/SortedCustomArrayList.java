@@ -0,0 +1,671 @@
+package ru.kozhevnikov;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Реализация интерфейса {@code CustomList} на основе {@code CustomArrayList}, элементы которой
+ * всегда упорядочены по возрастанию в соответствии с компаратором. Равные с точки зрения
+ * компаратора элементы хранятся в порядке добавления. Класс {@code SortedCustomArrayList}
+ * не является потокобезопасным.
+ *
+ * <p>Элемент вставляется в позицию, найденную двоичным поиском, со сдвигом следующих за ней
+ * элементов одним вызовом {@code System.arraycopy}. Поиск {@code indexOf}, {@code lastIndexOf}
+ * и {@code contains} выполняется за O(log n) и просматривает только элементы, равные искомому
+ * с точки зрения компаратора. Массовое добавление сортирует добавляемые элементы и сливает их
+ * с элементами списка за один проход.
+ *
+ * <p>Методы {@link #range(Object, Object)}, {@link #headList(Object)}, {@link #tailList(Object)}
+ * и {@link #subList(int, int)} находят границы за O(log n) и возвращают представления части
+ * списка, работающие непосредственно с его массивом, поэтому ни запрос, ни последующая вставка
+ * не копируют массив. Через представление можно читать и удалять элементы; вставка, замена
+ * и сортировка через представление не поддерживаются. Если список изменен в обход представления,
+ * последующие операции над представлением выбрасывают {@code ConcurrentModificationException}.
+ *
+ * <p>Методы, которые могут нарушить порядок элементов, - {@code add(int, E)}, {@code set},
+ * {@code sort} и добавление по индексу - выбрасывают {@code UnsupportedOperationException}.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see CustomArrayList
+ */
+public class SortedCustomArrayList<E> implements CustomList<E> {
+    /**
+     * Список, содержащий упорядоченные элементы
+     */
+    final CustomArrayList<E> elements;
+    /**
+     * Компаратор, задающий порядок элементов
+     */
+    private final Comparator<? super E> comparator;
+
+    /**
+     * Конструктор для создания пустого списка, упорядоченного в натуральном порядке элементов.
+     * Элементы должны реализовывать интерфейс {@code Comparable}.
+     */
+    @SuppressWarnings("unchecked")
+    public SortedCustomArrayList() {
+        this((Comparator<? super E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Конструктор для создания пустого списка, упорядоченного в соответствии с компаратором.
+     *
+     * @param comparator компаратор, задающий порядок элементов
+     * @throws NullPointerException если компаратор равен {@code null}
+     */
+    public SortedCustomArrayList(Comparator<? super E> comparator) {
+        this.comparator = Objects.requireNonNull(comparator);
+        this.elements = new CustomArrayList<>();
+    }
+
+    /**
+     * Возвращает компаратор, задающий порядок элементов.
+     *
+     * @return компаратор списка
+     */
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Добавляет передаваемый элемент в список, сохраняя порядок: после всех элементов,
+     * равных ему с точки зрения компаратора.
+     *
+     * @param element элемент, добавляемый в список
+     */
+    @Override
+    public void add(E element) {
+        int index = upperBound(element);
+        if (index == elements.size()) {
+            elements.add(element);
+        } else {
+            elements.add(index, element);
+        }
+    }
+
+    /**
+     * Не поддерживается: позиция элемента определяется компаратором.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void add(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Добавляет все элементы передаваемого списка, сохраняя порядок.
+     *
+     * @param list список, элементы которого добавляются в этот список
+     * @throws NullPointerException если передаваемый список равен {@code null}
+     */
+    @Override
+    public void addAll(CustomList<? extends E> list) {
+        Object[] values = new Object[list.size()];
+        int i = 0;
+        for (E element : list) {
+            values[i++] = element;
+        }
+        insertAll(values);
+    }
+
+    /**
+     * Добавляет все элементы передаваемой коллекции, сохраняя порядок.
+     *
+     * @param collection коллекция, элементы которой добавляются в этот список
+     * @throws NullPointerException если передаваемая коллекция равна {@code null}
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        insertAll(collection.toArray());
+    }
+
+    /**
+     * Добавляет все элементы передаваемого массива, сохраняя порядок.
+     *
+     * @param elements массив, элементы которого добавляются в этот список
+     * @throws NullPointerException если передаваемый массив равен {@code null}
+     */
+    @Override
+    public void addAll(E[] elements) {
+        insertAll(elements.clone());
+    }
+
+    @Override
+    public void addAll(int index, CustomList<? extends E> list) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(int index, Collection<? extends E> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(int index, E[] elements) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Сортирует добавляемые элементы устойчивой сортировкой, дописывает их в конец списка
+     * и сливает две упорядоченные части массива с конца, используя массив добавляемых
+     * элементов как буфер. Занимает O(n + k log k).
+     */
+    private void insertAll(Object[] values) {
+        int count = values.length;
+        if (count == 0) {
+            return;
+        }
+        TimSort.sort(values, 0, count, comparator);
+        elements.addAll((E[]) values);
+        CustomArrayList.applyToBackingArray(elements, (a, begin, end) -> {
+            int i = end - count - 1;
+            int j = count - 1;
+            int k = end - 1;
+            while (j >= 0) {
+                if (i >= begin && comparator.compare((E) a[i], (E) values[j]) > 0) {
+                    a[k--] = a[i--];
+                } else {
+                    a[k--] = values[j--];
+                }
+            }
+        });
+    }
+
+    /**
+     * Возвращает элемент из списка по его индексу.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия. Граница поиска находится двоичным поиском, после чего
+     * методом {@code equals} проверяются только элементы, равные искомому по компаратору.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int indexOf(E element) {
+        int size = elements.size();
+        for (int i = lowerBound(element); i < size; i++) {
+            E candidate = elements.get(i);
+            if (comparator.compare(candidate, element) != 0) break;
+            if (Objects.equals(candidate, element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия. Граница поиска находится двоичным поиском.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        for (int i = upperBound(element) - 1; i >= 0; i--) {
+            E candidate = elements.get(i);
+            if (comparator.compare(candidate, element) != 0) break;
+            if (Objects.equals(candidate, element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Ищет элемент, равный передаваемому с точки зрения компаратора списка, двоичным поиском.
+     *
+     * @param key искомый элемент
+     * @return индекс найденного элемента или {@code -(точка вставки) - 1}
+     * @see CustomList#binarySearch(Object, Comparator)
+     */
+    public int binarySearch(E key) {
+        return binarySearch(key, comparator);
+    }
+
+    /**
+     * Возвращает индекс первого элемента, не меньшего передаваемого с точки зрения компаратора
+     * списка, или размер списка.
+     *
+     * @param key искомый элемент
+     * @return индекс первого элемента, не меньшего {@code key}
+     */
+    public int lowerBound(E key) {
+        return lowerBound(key, comparator);
+    }
+
+    /**
+     * Возвращает индекс первого элемента, большего передаваемого с точки зрения компаратора
+     * списка, или размер списка.
+     *
+     * @param key искомый элемент
+     * @return индекс первого элемента, большего {@code key}
+     */
+    public int upperBound(E key) {
+        return upperBound(key, comparator);
+    }
+
+    /**
+     * Возвращает представление элементов, не меньших {@code from} и меньших {@code to}.
+     * Границы находятся за O(log n), элементы не копируются.
+     *
+     * @param from нижняя граница, включительно
+     * @param to верхняя граница, не включительно
+     * @return представление элементов из диапазона
+     * @throws IllegalArgumentException если {@code from} больше {@code to}
+     */
+    public CustomList<E> range(E from, E to) {
+        if (comparator.compare(from, to) > 0)
+            throw new IllegalArgumentException();
+        return new RangeView<>(elements.subList(lowerBound(from), lowerBound(to)));
+    }
+
+    /**
+     * Возвращает представление элементов, меньших {@code to}.
+     *
+     * @param to верхняя граница, не включительно
+     * @return представление элементов из диапазона
+     */
+    public CustomList<E> headList(E to) {
+        return new RangeView<>(elements.subList(0, lowerBound(to)));
+    }
+
+    /**
+     * Возвращает представление элементов, не меньших {@code from}.
+     *
+     * @param from нижняя граница, включительно
+     * @return представление элементов из диапазона
+     */
+    public CustomList<E> tailList(E from) {
+        return new RangeView<>(elements.subList(lowerBound(from), elements.size()));
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу.
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void remove(int index) {
+        elements.remove(index);
+    }
+
+    /**
+     * Удаляет перый элемент из списка, соответсвующий переданному элементу, в случае
+     * его наличия. Элемент ищется за O(log n).
+     *
+     * @param element жлемент, который необходимо удалить из списка
+     * @return {@code true} если список содержит указанный элемент
+     */
+    @Override
+    public boolean remove(E element) {
+        int index = indexOf(element);
+        if (index != -1) {
+            elements.remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeRange(int begin, int end) {
+        elements.removeRange(begin, end);
+    }
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     */
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        elements.removeIf(filter);
+    }
+
+    /**
+     * Удаляет все элементы из списка.
+     */
+    @Override
+    public void clear() {
+        elements.clear();
+    }
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * Не поддерживается: порядок элементов определяется компаратором списка.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: порядок элементов определяется компаратором списка.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void parallelSort(Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: порядок элементов определяется компаратором списка.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public E nthElement(int k, Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Не поддерживается: порядок элементов определяется компаратором списка.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void partialSort(int k, Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает представление части списка, расположенной от {@code begin} включительно
+     * до {@code end}. Элементы не копируются.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomList<E> subList(int begin, int end) {
+        return new RangeView<>(elements.subList(begin, end));
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomArrayList<E> copyOfRange(int begin, int end) {
+        return elements.copyOfRange(begin, end);
+    }
+
+    /**
+     * Не поддерживается: позиция элемента определяется компаратором.
+     *
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void set(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Возвращает итератор по элементам этого списка в порядке возрастания. Итератор
+     * поддерживает удаление элементов, но не является {@code ListIterator}, поэтому не позволяет
+     * заменять и вставлять элементы в обход порядка списка.
+     *
+     * @return итератор по элементам этого списка
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> iterator = elements.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        elements.forEach(action);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return elements.spliterator();
+    }
+
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        elements.ensureCapacity(minCapacity);
+    }
+
+    @Override
+    public void trimToSize() {
+        elements.trimToSize();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return elements.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return elements.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return elements.toString();
+    }
+    /**
+     * Представление части упорядоченного списка, возвращаемое методами {@link #range(Object, Object)},
+     * {@link #headList(Object)}, {@link #tailList(Object)} и {@link #subList(int, int)}. Все операции
+     * выполняются над представлением {@code CustomArrayList.subList}. Удаление элементов порядок
+     * не нарушает и поддерживается, а методы, которые могут его нарушить, выбрасывают
+     * {@code UnsupportedOperationException}.
+     */
+    private static final class RangeView<E> implements CustomList<E> {
+        private final CustomList<E> range;
+
+        private RangeView(CustomList<E> range) {
+            this.range = range;
+        }
+
+        @Override
+        public void add(E element) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void add(int index, E element) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAll(CustomList<? extends E> list) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAll(Collection<? extends E> collection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAll(E[] elements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAll(int index, CustomList<? extends E> list) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAll(int index, Collection<? extends E> collection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAll(int index, E[] elements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public E get(int index) {
+            return range.get(index);
+        }
+
+        @Override
+        public int indexOf(E element) {
+            return range.indexOf(element);
+        }
+
+        @Override
+        public int lastIndexOf(E element) {
+            return range.lastIndexOf(element);
+        }
+
+        @Override
+        public void remove(int index) {
+            range.remove(index);
+        }
+
+        @Override
+        public boolean remove(E element) {
+            return range.remove(element);
+        }
+
+        @Override
+        public void removeRange(int begin, int end) {
+            range.removeRange(begin, end);
+        }
+
+        @Override
+        public void removeIf(Predicate<? super E> filter) {
+            range.removeIf(filter);
+        }
+
+        @Override
+        public void clear() {
+            range.clear();
+        }
+
+        @Override
+        public int size() {
+            return range.size();
+        }
+
+        @Override
+        public void sort(Comparator<? super E> comparator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void parallelSort(Comparator<? super E> comparator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public E nthElement(int k, Comparator<? super E> comparator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void partialSort(int k, Comparator<? super E> comparator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CustomList<E> subList(int begin, int end) {
+            return new RangeView<>(range.subList(begin, end));
+        }
+
+        @Override
+        public CustomList<E> copyOfRange(int begin, int end) {
+            return range.copyOfRange(begin, end);
+        }
+
+        @Override
+        public void set(int index, E element) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return range.iterator();
+        }
+
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            range.forEach(action);
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return range.spliterator();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            return range.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return range.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return range.toString();
+        }
+    }
+}
@@ -0,0 +1,610 @@
+package ru.kozhevnikov;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Реализация интерфейса {@code CustomList} в виде многоуровневого массива (tiered vector),
+ * рассчитанная на частые вставки и удаления в середине списка. Позволяет хранить все элементы,
+ * включая {@code null}. Класс {@code TieredCustomArrayList} не является потокобезопасным.
+ *
+ * <p>Элементы хранятся в блоках одинакового размера B, равного степени двойки, каждый из
+ * которых является кольцевым буфером. Все блоки, кроме последнего, заполнены полностью, поэтому
+ * элемент с индексом {@code i} находится в блоке {@code i / B}, и {@code get} и {@code set}
+ * выполняются за O(1). При вставке сдвигаются элементы только внутри одного блока, а в каждом
+ * следующем блоке последний элемент предыдущего блока переносится в начало за O(1) поворотом
+ * кольцевого буфера; удаление выполняется симметрично. Размер блока поддерживается порядка
+ * квадратного корня из размера списка, поэтому вставка и удаление по индексу занимают O(√n)
+ * вместо O(n) у {@code CustomArrayList}. При изменении размера списка в четыре раза блоки
+ * перестраиваются за O(n), что в среднем дает O(1) на операцию.
+ *
+ * <p>Добавление в конец выполняется за O(1) в среднем. Методы {@link #subList(int, int)} и
+ * {@link #copyOfRange(int, int)} возвращают независимые копии {@code CustomArrayList}.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see CustomArrayList
+ */
+public class TieredCustomArrayList<E> implements CustomList<E> {
+    /**
+     * Двоичный логарифм минимального размера блока
+     */
+    private static final int MIN_SHIFT = 4;
+
+    /**
+     * Блоки, каждый из которых является кольцевым буфером длины {@code 1 << shift}
+     */
+    private Object[][] blocks;
+    /**
+     * Индекс первого элемента каждого блока в его массиве
+     */
+    private int[] heads;
+    /**
+     * Количество используемых блоков
+     */
+    private int blockCount;
+    /**
+     * Двоичный логарифм размера блока
+     */
+    private int shift;
+    /**
+     * Размер списка
+     */
+    private int size;
+    /**
+     * Количество структурных изменений списка, используемое итератором для их обнаружения
+     */
+    private int modCount;
+
+    /**
+     * Конструктор для создания пустого списка.
+     */
+    public TieredCustomArrayList() {
+        shift = MIN_SHIFT;
+        blocks = new Object[4][];
+        heads = new int[4];
+    }
+
+    /**
+     * Добавляет передаваемый элемент в конец списка.
+     *
+     * @param element элемент, добавляемый в список
+     */
+    @Override
+    public void add(E element) {
+        if (size == blockCount << shift) {
+            if (size == 4 << (2 * shift)) {
+                rebuild(toArray(), size, shift + 1);
+            }
+            addBlock();
+        }
+        int last = blockCount - 1;
+        int count = size - (last << shift);
+        blocks[last][(heads[last] + count) & mask()] = element;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Добавляет передаваемый элемент в указанное место списка по индексу.
+     * Сдвигает элементы внутри одного блока и переносит по одному элементу между
+     * последующими блоками, что занимает O(√n).
+     *
+     * @param index индекс, по которому элемент будет добавлен в список
+     * @param element элемент, добавляемый в список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void add(int index, E element) {
+        checkIndexRange(index, size);
+        insert(index, element);
+    }
+
+    private void insert(int index, Object element) {
+        if (size == blockCount << shift) {
+            if (size == 4 << (2 * shift)) {
+                rebuild(toArray(), size, shift + 1);
+            }
+            addBlock();
+        }
+        int mask = mask();
+        int block = index >>> shift;
+        int last = blockCount - 1;
+
+        // Последний элемент каждого полного блока переносится в начало следующего блока,
+        // начиная с конца списка, поэтому место освобождается в конце блока block.
+        for (int j = last; j > block; j--) {
+            Object[] previous = blocks[j - 1];
+            int previousBack = (heads[j - 1] + mask) & mask;
+            heads[j] = (heads[j] - 1) & mask;
+            blocks[j][heads[j]] = previous[previousBack];
+        }
+
+        Object[] target = blocks[block];
+        int head = heads[block];
+        int count = block == last ? size - (last << shift) : (1 << shift) - 1;
+        int offset = index & mask;
+        for (int i = count; i > offset; i--) {
+            target[(head + i) & mask] = target[(head + i - 1) & mask];
+        }
+        target[(head + offset) & mask] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void addAll(int index, CustomList<? extends E> list) {
+        checkPositionIndex(index, size);
+        Object[] elements = new Object[list.size()];
+        int count = 0;
+        for (E element : list) {
+            if (count == elements.length) {
+                elements = Arrays.copyOf(elements, count * 2 + 1);
+            }
+            elements[count++] = element;
+        }
+        insertAll(index, elements, count);
+    }
+
+    @Override
+    public void addAll(int index, Collection<? extends E> collection) {
+        checkPositionIndex(index, size);
+        Object[] elements = collection.toArray();
+        insertAll(index, elements, elements.length);
+    }
+
+    @Override
+    public void addAll(int index, E[] elements) {
+        checkPositionIndex(index, size);
+        insertAll(index, elements, elements.length);
+    }
+
+    /**
+     * Вставляет элементы по одному, если их мало, и перестраивает список целиком за O(n + k),
+     * если поэлементная вставка обошлась бы дороже.
+     */
+    private void insertAll(int index, Object[] elements, int count) {
+        if ((long) count << shift <= size) {
+            for (int i = 0; i < count; i++) {
+                if (index + i == size) {
+                    add((E) elements[i]);
+                } else {
+                    insert(index + i, elements[i]);
+                }
+            }
+            return;
+        }
+        Object[] all = new Object[size + count];
+        copyTo(0, index, all, 0);
+        System.arraycopy(elements, 0, all, index, count);
+        copyTo(index, size, all, index + count);
+        rebuild(all, all.length, shiftFor(all.length));
+        modCount++;
+    }
+
+    /**
+     * Возвращает элемент из списка по его индексу.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public E get(int index) {
+        checkIndexRange(index, size);
+
+        int block = index >>> shift;
+        return (E) blocks[block][(heads[block] + index) & mask()];
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int indexOf(E element) {
+        int mask = mask();
+        for (int i = 0; i < size; i++) {
+            int block = i >>> shift;
+            if (Objects.equals(blocks[block][(heads[block] + i) & mask], element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        int mask = mask();
+        for (int i = size - 1; i >= 0; i--) {
+            int block = i >>> shift;
+            if (Objects.equals(blocks[block][(heads[block] + i) & mask], element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу. Сдвигает элементы внутри одного блока
+     * и переносит по одному элементу между последующими блоками, что занимает O(√n).
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void remove(int index) {
+        checkIndexRange(index, size);
+
+        int mask = mask();
+        int block = index >>> shift;
+        int last = blockCount - 1;
+
+        Object[] target = blocks[block];
+        int head = heads[block];
+        int count = block == last ? size - (last << shift) : 1 << shift;
+        for (int i = index & mask; i < count - 1; i++) {
+            target[(head + i) & mask] = target[(head + i + 1) & mask];
+        }
+
+        // Первый элемент каждого следующего блока переносится в конец предыдущего.
+        for (int j = block + 1; j <= last; j++) {
+            Object[] next = blocks[j];
+            blocks[j - 1][(heads[j - 1] + mask) & mask] = next[heads[j]];
+            next[heads[j]] = null;
+            heads[j] = (heads[j] + 1) & mask;
+        }
+        if (block == last) {
+            target[(head + count - 1) & mask] = null;
+        }
+
+        size--;
+        modCount++;
+        if (size == (blockCount - 1) << shift) {
+            blocks[--blockCount] = null;
+            heads[blockCount] = 0;
+        }
+        if (shift > MIN_SHIFT && size < 1 << (2 * shift - 4)) {
+            rebuild(toArray(), size, shift - 1);
+        }
+    }
+
+    /**
+     * Удаляет перый элемент из списка, соответсвующий переданному элементу, в случае
+     * его наличия. В случае отсутствия такого элемента список не изменяется.
+     *
+     * @param element жлемент, который необходимо удалить из списка
+     * @return {@code true} если список содержит указанный элемент
+     */
+    @Override
+    public boolean remove(E element) {
+        int index = indexOf(element);
+        if (index != -1) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeRange(int begin, int end) {
+        checkSubListRange(begin, end, size);
+
+        int count = end - begin;
+        if ((long) count << shift <= size) {
+            for (int i = 0; i < count; i++) {
+                remove(begin);
+            }
+            return;
+        }
+        Object[] all = new Object[size - count];
+        copyTo(0, begin, all, 0);
+        copyTo(end, size, all, begin);
+        rebuild(all, all.length, shiftFor(all.length));
+        modCount++;
+    }
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию. Условие вычисляется
+     * для всех элементов до изменения списка, после чего список перестраивается за один проход.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     * @throws ConcurrentModificationException если условие изменяет список
+     */
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        if (filter == null)
+            throw new NullPointerException();
+
+        Object[] all = toArray();
+        int expectedModCount = modCount;
+        long[] removed = ArrayFilter.mark(all, 0, all.length, filter);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        if (removed == null) {
+            return;
+        }
+        int newSize = ArrayFilter.compact(all, 0, all.length, removed);
+        rebuild(all, newSize, shiftFor(newSize));
+        modCount++;
+    }
+
+    /**
+     * Удаляет все элементы из списка.
+     */
+    @Override
+    public void clear() {
+        shift = MIN_SHIFT;
+        blocks = new Object[4][];
+        heads = new int[4];
+        blockCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Сортирует список так же, как {@link CustomArrayList#sort(Comparator)}. Элементы копируются
+     * в массив, сортируются и записываются обратно.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     */
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        Object[] all = toArray();
+        IntroSort.sort(all, 0, all.length, comparator);
+        rebuild(all, all.length, shift);
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}. Возвращаемый список не связан
+     * с этим списком.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomList<E> subList(int begin, int end) {
+        return copyOfRange(begin, end);
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList}, включающий в себя элементы этого списка,
+     * расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public CustomArrayList<E> copyOfRange(int begin, int end) {
+        checkSubListRange(begin, end, size);
+
+        Object[] range = new Object[end - begin];
+        copyTo(begin, end, range, 0);
+        CustomArrayList<E> copy = new CustomArrayList<>(range.length);
+        copy.addAll((E[]) range);
+        return copy;
+    }
+
+    /**
+     * Производит замену элемента списка с передаваемым индексом на передаваемый элемент.
+     *
+     * @param index индекс заменяемого элемента
+     * @param element элемент, на который будет произведена замена
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    @Override
+    public void set(int index, E element) {
+        checkIndexRange(index, size);
+
+        int block = index >>> shift;
+        blocks[block][(heads[block] + index) & mask()] = element;
+    }
+
+    /**
+     * Возвращает итератор по элементам этого списка в правильной последовательности.
+     * Итератор выбрасывает {@code ConcurrentModificationException}, если размер списка
+     * изменен в обход итератора.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int currentIndex = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size;
+            }
+
+            @Override
+            public E next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                int block = currentIndex >>> shift;
+                return (E) blocks[block][(heads[block] + currentIndex++) & mask()];
+            }
+        };
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomList<?> that)) return false;
+        if (size != that.size()) return false;
+        Iterator<?> iterator = that.iterator();
+        for (E element : this) {
+            if (!Objects.equals(element, iterator.next())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
+     * на основе содержимого спсика.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (E element : this) {
+            result = 31 * result + Objects.hashCode(element);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        if (size == 0) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (E element : this) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(element);
+        }
+        return sb.append("]").toString();
+    }
+
+    private int mask() {
+        return (1 << shift) - 1;
+    }
+
+    private void addBlock() {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            heads = Arrays.copyOf(heads, blockCount * 2);
+        }
+        blocks[blockCount] = new Object[1 << shift];
+        heads[blockCount] = 0;
+        blockCount++;
+    }
+
+    private Object[] toArray() {
+        Object[] all = new Object[size];
+        copyTo(0, size, all, 0);
+        return all;
+    }
+
+    /**
+     * Копирует элементы списка от {@code begin} включительно до {@code end} в массив,
+     * начиная с индекса {@code position}.
+     */
+    private void copyTo(int begin, int end, Object[] target, int position) {
+        int blockSize = 1 << shift;
+        int mask = blockSize - 1;
+        int i = begin;
+        while (i < end) {
+            int block = i >>> shift;
+            int start = (heads[block] + i) & mask;
+            int count = Math.min(end - i, blockSize - (i & mask));
+            int firstPart = Math.min(count, blockSize - start);
+            System.arraycopy(blocks[block], start, target, position, firstPart);
+            System.arraycopy(blocks[block], 0, target, position + firstPart, count - firstPart);
+            position += count;
+            i += count;
+        }
+    }
+
+    /**
+     * Заполняет список первыми {@code count} элементами массива, используя блоки размера
+     * {@code 1 << newShift}.
+     */
+    private void rebuild(Object[] elements, int count, int newShift) {
+        shift = newShift;
+        int blockSize = 1 << shift;
+        int newBlockCount = (count + blockSize - 1) >>> shift;
+        int length = Math.max(4, newBlockCount);
+        blocks = new Object[length][];
+        heads = new int[length];
+        for (int block = 0; block < newBlockCount; block++) {
+            blocks[block] = new Object[blockSize];
+            int from = block << shift;
+            System.arraycopy(elements, from, blocks[block], 0, Math.min(blockSize, count - from));
+        }
+        blockCount = newBlockCount;
+        size = count;
+    }
+
+    /**
+     * Возвращает размер блока, при котором квадрат размера блока примерно равен размеру списка.
+     */
+    private static int shiftFor(int size) {
+        int shift = (33 - Integer.numberOfLeadingZeros(Math.max(size, 1))) / 2;
+        return Math.max(MIN_SHIFT, shift);
+    }
+
+    private static void checkIndexRange(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private static void checkPositionIndex(int index, int size) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private static void checkSubListRange(int begin, int end, int size) {
+        if (begin < 0 || begin > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size));
+        if (end > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        if (begin > end) throw new IllegalArgumentException();
+    }
+}
@@ -0,0 +1,577 @@
+package ru.kozhevnikov;
+
+import java.util.Comparator;
+
+/**
+ * Устойчивая сортировка слиянием естественных серий (TimSort), работающая непосредственно
+ * с массивом элементов списка {@code CustomArrayList}.
+ *
+ * <p>Алгоритм находит в массиве уже упорядоченные участки (серии), дополняет короткие серии
+ * до минимальной длины сортировкой вставками и сливает серии попарно, поддерживая на стеке
+ * инварианты их длин. При слиянии используется "галоп" - экспоненциальный поиск, позволяющий
+ * переносить длинные последовательности элементов одной серии одним вызовом {@code System.arraycopy}.
+ * Для почти отсортированных данных время работы близко к O(n), в худшем случае - O(n log n).
+ *
+ * <p>Для всей сортировки используется один вспомогательный буфер, длина которого не превышает
+ * половины сортируемого участка и увеличивается только при необходимости.
+ *
+ * @author Kozhevnikov Valentin
+ * @see Utils#mergeSort(CustomList, Comparator)
+ */
+final class TimSort {
+    /**
+     * Длина участка, меньше которой сортировка выполняется только вставками
+     */
+    private static final int MIN_MERGE = 32;
+    /**
+     * Начальное количество подряд выигранных сравнений, после которого слияние переходит в режим галопа
+     */
+    private static final int MIN_GALLOP = 7;
+    /**
+     * Максимальная начальная длина вспомогательного буфера
+     */
+    private static final int INITIAL_TMP_LENGTH = 256;
+
+    private final Object[] a;
+    private final Comparator<Object> comparator;
+    /**
+     * Текущий порог перехода в режим галопа, адаптирующийся к данным
+     */
+    private int minGallop = MIN_GALLOP;
+    /**
+     * Вспомогательный буфер для слияния, общий для всей сортировки
+     */
+    private Object[] tmp;
+    /**
+     * Стек еще не слитых серий: индекс начала и длина каждой серии
+     */
+    private int stackSize;
+    private final int[] runBase;
+    private final int[] runLen;
+
+    private TimSort(Object[] a, Comparator<Object> comparator, int length) {
+        this.a = a;
+        this.comparator = comparator;
+
+        int tmpLength = length < 2 * INITIAL_TMP_LENGTH ? length >>> 1 : INITIAL_TMP_LENGTH;
+        tmp = new Object[tmpLength];
+
+        // Длина стека рассчитана так, чтобы при соблюдении инвариантов длин серий
+        // его гарантированно хватило для участка указанной длины.
+        int stackLength = length < 120 ? 5 : length < 1542 ? 10 : length < 119151 ? 24 : 49;
+        runBase = new int[stackLength];
+        runLen = new int[stackLength];
+    }
+
+    /**
+     * Сортирует участок массива от {@code begin} включительно до {@code end} в соответствии
+     * с методом {@code compare} компаратора. Сортировка устойчива.
+     *
+     * @param a сортируемый массив
+     * @param begin начальный индекс участка
+     * @param end конечный индекс участка (не включительно)
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <T> тип элементов массива
+     * @throws IllegalArgumentException если компаратор нарушает контракт {@code Comparator}
+     */
+    static <T> void sort(Object[] a, int begin, int end, Comparator<? super T> comparator) {
+        Comparator<Object> c = (Comparator<Object>) comparator;
+        int remaining = end - begin;
+        if (remaining < 2) {
+            return;
+        }
+
+        if (remaining < MIN_MERGE) {
+            int initRunLength = countRunAndMakeAscending(a, begin, end, c);
+            binarySort(a, begin, end, begin + initRunLength, c);
+            return;
+        }
+
+        TimSort timSort = new TimSort(a, c, remaining);
+        int minRun = minRunLength(remaining);
+        int low = begin;
+        do {
+            int runLength = countRunAndMakeAscending(a, low, end, c);
+
+            if (runLength < minRun) {
+                int force = Math.min(remaining, minRun);
+                binarySort(a, low, low + force, low + runLength, c);
+                runLength = force;
+            }
+
+            timSort.pushRun(low, runLength);
+            timSort.mergeCollapse();
+
+            low += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+
+        timSort.mergeForceCollapse();
+    }
+
+    /**
+     * Сортирует участок массива вставками, находя место для очередного элемента бинарным поиском.
+     * Элементы от {@code begin} до {@code start} должны быть уже упорядочены.
+     */
+    private static void binarySort(Object[] a, int begin, int end, int start, Comparator<Object> c) {
+        if (start == begin) {
+            start++;
+        }
+        for (; start < end; start++) {
+            Object pivot = a[start];
+            int left = begin;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(pivot, a[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    /**
+     * Возвращает длину серии, начинающейся с {@code begin}. Строго убывающая серия
+     * разворачивается, чтобы все серии были неубывающими; нестрогое убывание не допускается,
+     * так как разворот нарушил бы устойчивость.
+     */
+    private static int countRunAndMakeAscending(Object[] a, int begin, int end, Comparator<Object> c) {
+        int runEnd = begin + 1;
+        if (runEnd == end) {
+            return 1;
+        }
+
+        if (c.compare(a[runEnd++], a[begin]) < 0) {
+            while (runEnd < end && c.compare(a[runEnd], a[runEnd - 1]) < 0) {
+                runEnd++;
+            }
+            reverseRange(a, begin, runEnd);
+        } else {
+            while (runEnd < end && c.compare(a[runEnd], a[runEnd - 1]) >= 0) {
+                runEnd++;
+            }
+        }
+        return runEnd - begin;
+    }
+
+    private static void reverseRange(Object[] a, int begin, int end) {
+        end--;
+        while (begin < end) {
+            Object tmp = a[begin];
+            a[begin++] = a[end];
+            a[end--] = tmp;
+        }
+    }
+
+    /**
+     * Возвращает минимальную длину серии для участка длины {@code n}: число от MIN_MERGE / 2
+     * до MIN_MERGE, при котором количество серий равно степени двойки или чуть меньше ее.
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private void pushRun(int base, int length) {
+        runBase[stackSize] = base;
+        runLen[stackSize] = length;
+        stackSize++;
+    }
+
+    /**
+     * Сливает серии на вершине стека, пока не будут восстановлены инварианты:
+     * runLen[i - 2] > runLen[i - 1] + runLen[i] и runLen[i - 1] > runLen[i].
+     */
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                if (runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                n--;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * Сливает серии с номерами {@code i} и {@code i + 1} на стеке.
+     */
+    private void mergeAt(int i) {
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i + 1];
+        int len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // Элементы первой серии, не превосходящие первого элемента второй, уже стоят на своих местах.
+        int k = gallopRight(a[base2], a, base1, len1, 0, comparator);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) {
+            return;
+        }
+
+        // Элементы второй серии, не меньшие последнего элемента первой, тоже уже на своих местах.
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1, comparator);
+        if (len2 == 0) {
+            return;
+        }
+
+        if (len1 <= len2) {
+            mergeLo(base1, len1, base2, len2);
+        } else {
+            mergeHi(base1, len1, base2, len2);
+        }
+    }
+
+    /**
+     * Возвращает позицию, в которую нужно вставить {@code key} в упорядоченный участок
+     * {@code array[base, base + length)}, левее всех равных ему элементов. Поиск начинается
+     * с позиции {@code hint} и расширяется экспоненциально.
+     */
+    private static int gallopLeft(Object key, Object[] array, int base, int length, int hint,
+                                  Comparator<Object> c) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (c.compare(key, array[base + hint]) > 0) {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && c.compare(key, array[base + hint + offset]) > 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && c.compare(key, array[base + hint - offset]) <= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int tmp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - tmp;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int mid = lastOffset + ((offset - lastOffset) >>> 1);
+            if (c.compare(key, array[base + mid]) > 0) {
+                lastOffset = mid + 1;
+            } else {
+                offset = mid;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Аналог {@link #gallopLeft}, возвращающий позицию правее всех элементов, равных {@code key}.
+     */
+    private static int gallopRight(Object key, Object[] array, int base, int length, int hint,
+                                   Comparator<Object> c) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (c.compare(key, array[base + hint]) < 0) {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && c.compare(key, array[base + hint - offset]) < 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int tmp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - tmp;
+        } else {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && c.compare(key, array[base + hint + offset]) >= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int mid = lastOffset + ((offset - lastOffset) >>> 1);
+            if (c.compare(key, array[base + mid]) < 0) {
+                offset = mid;
+            } else {
+                lastOffset = mid + 1;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Сливает две соседние серии слева направо, копируя во вспомогательный буфер первую
+     * (более короткую) серию. Первый элемент второй серии меньше первого элемента первой,
+     * а последний элемент первой серии больше всех элементов второй.
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2) {
+        Object[] a = this.a;
+        Object[] tmp = ensureCapacity(len1);
+        Comparator<Object> c = comparator;
+        System.arraycopy(a, base1, tmp, 0, len1);
+
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+
+        a[dest++] = a[cursor2++];
+        if (--len2 == 0) {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+            return;
+        }
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+
+            // Поэлементное слияние, пока одна из серий не начнет стабильно выигрывать.
+            do {
+                if (c.compare(a[cursor2], tmp[cursor1]) < 0) {
+                    a[dest++] = a[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest++] = tmp[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // Галоп: переносим целые блоки, пока это выгодно.
+            do {
+                count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0, c);
+                if (count1 != 0) {
+                    System.arraycopy(tmp, cursor1, a, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    len1 -= count1;
+                    if (len1 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest++] = a[cursor2++];
+                if (--len2 == 0) {
+                    break outer;
+                }
+
+                count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0, c);
+                if (count2 != 0) {
+                    System.arraycopy(a, cursor2, a, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    len2 -= count2;
+                    if (len2 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest++] = tmp[cursor1++];
+                if (--len1 == 1) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+        } else if (len1 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+        }
+    }
+
+    /**
+     * Сливает две соседние серии справа налево, копируя во вспомогательный буфер вторую
+     * (более короткую) серию. Условия на серии те же, что и у {@link #mergeLo}.
+     */
+    private void mergeHi(int base1, int len1, int base2, int len2) {
+        Object[] a = this.a;
+        Object[] tmp = ensureCapacity(len2);
+        Comparator<Object> c = comparator;
+        System.arraycopy(a, base2, tmp, 0, len2);
+
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = len2 - 1;
+        int dest = base2 + len2 - 1;
+
+        a[dest--] = a[cursor1--];
+        if (--len1 == 0) {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            return;
+        }
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+
+            do {
+                if (c.compare(tmp[cursor2], a[cursor1]) < 0) {
+                    a[dest--] = a[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest--] = tmp[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1, c);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    len1 -= count1;
+                    System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                    if (len1 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest--] = tmp[cursor2--];
+                if (--len2 == 1) {
+                    break outer;
+                }
+
+                count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1, c);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    len2 -= count2;
+                    System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                    if (len2 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest--] = a[cursor1--];
+                if (--len1 == 0) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+        } else if (len2 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+        }
+    }
+
+    /**
+     * Возвращает вспомогательный буфер длиной не меньше {@code minCapacity}, при необходимости
+     * заменяя его буфером длиной в ближайшую степень двойки.
+     */
+    private Object[] ensureCapacity(int minCapacity) {
+        if (tmp.length < minCapacity) {
+            int newSize = -1 >>> Integer.numberOfLeadingZeros(minCapacity);
+            newSize++;
+            if (newSize < 0) {
+                newSize = minCapacity;
+            } else {
+                newSize = Math.max(minCapacity, Math.min(newSize, a.length >>> 1));
+            }
+            tmp = new Object[newSize];
+        }
+        return tmp;
+    }
+}
@@ -1,10 +1,19 @@
 package ru.kozhevnikov;
 
 import java.util.Comparator;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Вспомогательный класс, содержащий статические методы для сортировки слиянием объектов,
- * реализующих интерфейс {@code CustomList}.
+ * реализующих интерфейс {@code CustomList}, а также для частичной сортировки и выбора
+ * наименьших элементов.
+ *
+ * <p>Списки {@code CustomArrayList} и их представления сортируются алгоритмом {@code TimSort}
+ * непосредственно на уровне массива: без создания промежуточных списков, с одним вспомогательным
+ * буфером на всю сортировку и за время, близкое к линейному, на почти отсортированных данных.
+ * Остальные реализации {@code CustomList} сортируются классической сортировкой слиянием
+ * через методы {@code get} и {@code set}.
  *
  * @author Kozhevnikov Valentin
  * @see CustomList
@@ -14,24 +23,248 @@ public class Utils {
      * Сортирует передаваемый в качестве параметра список, реализующий интерфейс {@code CustomList},
      * с помощью алгоритма сортировки слиянием в соответствии с методом
      * {@code compare} компаратора - объекта класса, реализующего функциональный
-     * интерфейс {@code Comparator}.
+     * интерфейс {@code Comparator}. Сортировка устойчива.
      *
      * @param list сортируемый список, реализующий интерфейс {@code CustomList}
      * @param comparator объект класса, реализующий функциональный интерфейс интерфейс {@code Comparator}
      * @param <E> тип элементов в списке
      */
     public static <E> void mergeSort(CustomList<E> list, Comparator<? super E> comparator) {
-        mergeSort(list, list.size(), comparator);
+        boolean sorted = CustomArrayList.sortBackingArray(list,
+                (elementData, begin, end) -> TimSort.sort(elementData, begin, end, comparator));
+        if (!sorted) {
+            mergeSort(list, list.size(), comparator);
+        }
     }
     /**
      * Сортирует передаваемый в качестве параметра список, реализующий интерфейс {@code CustomList},
-     * с помощью алгоритма сортировки слиянием в натуральном порядке.
+     * с помощью алгоритма сортировки слиянием в натуральном порядке. Сортировка устойчива.
      *
      * @param list сортируемый список, реализующий интерфейс {@code CustomList}
      * @param <E> тип элементов в списке
      */
     public static <E extends Comparable<? super E>> void mergeSort(CustomList<E> list) {
-        mergeSort(list, list.size());
+        boolean sorted = CustomArrayList.sortBackingArray(list,
+                (elementData, begin, end) -> TimSort.sort(elementData, begin, end, Comparator.<E>naturalOrder()));
+        if (!sorted) {
+            mergeSort(list, list.size());
+        }
+    }
+
+    /**
+     * Сортирует передаваемый список параллельной сортировкой слиянием в общем пуле
+     * {@code ForkJoinPool.commonPool()} в соответствии с методом {@code compare} компаратора.
+     *
+     * @param list сортируемый список, реализующий интерфейс {@code CustomList}
+     * @param comparator объект класса, реализующий функциональный интерфейс {@code Comparator}
+     * @param <E> тип элементов в списке
+     * @see #parallelMergeSort(CustomList, Comparator, ForkJoinPool, int)
+     */
+    public static <E> void parallelMergeSort(CustomList<E> list, Comparator<? super E> comparator) {
+        parallelMergeSort(list, comparator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Сортирует передаваемый список параллельной сортировкой слиянием в общем пуле
+     * {@code ForkJoinPool.commonPool()} в натуральном порядке.
+     *
+     * @param list сортируемый список, реализующий интерфейс {@code CustomList}
+     * @param <E> тип элементов в списке
+     * @see #parallelMergeSort(CustomList, Comparator, ForkJoinPool, int)
+     */
+    public static <E extends Comparable<? super E>> void parallelMergeSort(CustomList<E> list) {
+        parallelMergeSort(list, Comparator.<E>naturalOrder());
+    }
+
+    /**
+     * Сортирует передаваемый список параллельной сортировкой слиянием в указанном пуле
+     * в соответствии с методом {@code compare} компаратора.
+     *
+     * @param list сортируемый список, реализующий интерфейс {@code CustomList}
+     * @param comparator объект класса, реализующий функциональный интерфейс {@code Comparator}
+     * @param pool пул потоков, в котором выполняется сортировка
+     * @param <E> тип элементов в списке
+     * @see #parallelMergeSort(CustomList, Comparator, ForkJoinPool, int)
+     */
+    public static <E> void parallelMergeSort(CustomList<E> list, Comparator<? super E> comparator,
+                                             ForkJoinPool pool) {
+        parallelMergeSort(list, comparator, pool, ParallelMergeSort.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Сортирует передаваемый список параллельной сортировкой слиянием в указанном пуле
+     * в соответствии с методом {@code compare} компаратора. Сортировка устойчива.
+     *
+     * <p>Массив списка {@code CustomArrayList} (или его представления) делится на части, которые
+     * сортируются параллельно и затем параллельно сливаются. Списки, размер которых не превышает
+     * {@code threshold}, сортируются последовательно так же, как в {@link #mergeSort(CustomList, Comparator)}.
+     * Прочие реализации {@code CustomList} всегда сортируются последовательно.
+     *
+     * @param list сортируемый список, реализующий интерфейс {@code CustomList}
+     * @param comparator объект класса, реализующий функциональный интерфейс {@code Comparator}
+     * @param pool пул потоков, в котором выполняется сортировка
+     * @param threshold размер списка, начиная с которого сортировка выполняется параллельно
+     * @param <E> тип элементов в списке
+     * @throws NullPointerException если пул равен {@code null}
+     * @throws IllegalArgumentException если {@code threshold} меньше 1
+     */
+    public static <E> void parallelMergeSort(CustomList<E> list, Comparator<? super E> comparator,
+                                             ForkJoinPool pool, int threshold) {
+        if (pool == null)
+            throw new NullPointerException();
+        if (threshold < 1)
+            throw new IllegalArgumentException("Illegal threshold");
+
+        boolean sorted = CustomArrayList.sortBackingArray(list,
+                (elementData, begin, end) -> ParallelMergeSort.sort(elementData, begin, end, comparator,
+                        pool, threshold));
+        if (!sorted) {
+            mergeSort(list, comparator);
+        }
+    }
+
+    /**
+     * Сливает два списка, отсортированных по возрастанию в соответствии с компаратором, в новый
+     * отсортированный список за O(n + m). Слияние устойчиво: из равных элементов первыми
+     * следуют элементы первого списка.
+     *
+     * @param first первый отсортированный список
+     * @param second второй отсортированный список
+     * @param comparator компаратор, в соответствии с которым отсортированы списки
+     * @param <E> тип элементов в списке
+     * @return новый список, содержащий элементы обоих списков
+     */
+    public static <E> CustomArrayList<E> merge(CustomList<? extends E> first, CustomList<? extends E> second,
+                                               Comparator<? super E> comparator) {
+        int firstLength = first.size();
+        int secondLength = second.size();
+        CustomArrayList<E> result = new CustomArrayList<>(firstLength + secondLength);
+        int i = 0, j = 0;
+        while (i < firstLength && j < secondLength) {
+            E left = first.get(i);
+            E right = second.get(j);
+            if (comparator.compare(left, right) <= 0) {
+                result.add(left);
+                i++;
+            } else {
+                result.add(right);
+                j++;
+            }
+        }
+        while (i < firstLength) {
+            result.add(first.get(i++));
+        }
+        while (j < secondLength) {
+            result.add(second.get(j++));
+        }
+        return result;
+    }
+
+    /**
+     * Переставляет элементы списка так, что на позиции {@code k} оказывается элемент, который
+     * стоял бы на ней после сортировки, все элементы левее не больше него, а все элементы правее
+     * не меньше него. Порядок элементов внутри частей не определен. Выбор выполняется алгоритмом
+     * introselect за O(n) в среднем и O(n log n) в худшем случае.
+     *
+     * <p>Списки {@code CustomArrayList} и их представления обрабатываются на уровне массива,
+     * остальные реализации копируются в массив и записываются обратно методом {@code set}.
+     *
+     * @param list список, реализующий интерфейс {@code CustomList}
+     * @param k индекс выбираемого элемента
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <E> тип элементов в списке
+     * @return элемент, оказавшийся на позиции {@code k}
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    public static <E> E nthElement(CustomList<E> list, int k, Comparator<? super E> comparator) {
+        int size = list.size();
+        if (k < 0 || k >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", k, size));
+        rearrange(list, (elementData, begin, end) ->
+                IntroSort.select(elementData, begin, end, begin + k, comparator));
+        return list.get(k);
+    }
+
+    /**
+     * Переставляет элементы списка так, что первые {@code k} позиций занимают наименьшие элементы
+     * в отсортированном порядке. Порядок остальных элементов не определен. Занимает
+     * O(n + k log k) в среднем вместо O(n log n) для полной сортировки. Сортировка не является
+     * устойчивой.
+     *
+     * @param list список, реализующий интерфейс {@code CustomList}
+     * @param k количество сортируемых наименьших элементов
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <E> тип элементов в списке
+     * @throws IllegalArgumentException если {@code k} отрицательное или больше размера списка
+     */
+    public static <E> void partialSort(CustomList<E> list, int k, Comparator<? super E> comparator) {
+        if (k < 0 || k > list.size())
+            throw new IllegalArgumentException("Illegal k: " + k);
+        rearrange(list, (elementData, begin, end) ->
+                IntroSort.partialSort(elementData, begin, end, k, comparator));
+    }
+
+    /**
+     * Возвращает новый список, содержащий {@code k} наименьших в соответствии с компаратором
+     * элементов передаваемого списка в отсортированном порядке. Для выбора наибольших элементов
+     * следует передать обратный компаратор. Передаваемый список не изменяется и не копируется:
+     * элементы просматриваются один раз и отбираются в пирамиду из {@code k} элементов,
+     * поэтому выбор занимает O(n log k) времени и O(k) дополнительной памяти. Из равных элементов
+     * на границе отбора выбираются встретившиеся раньше.
+     *
+     * @param list список, реализующий интерфейс {@code CustomList}
+     * @param k количество выбираемых элементов
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <E> тип элементов в списке
+     * @return новый список из {@code min(k, list.size())} наименьших элементов
+     * @throws IllegalArgumentException если {@code k} отрицательное
+     */
+    public static <E> CustomArrayList<E> topK(CustomList<? extends E> list, int k,
+                                              Comparator<? super E> comparator) {
+        if (k < 0)
+            throw new IllegalArgumentException("Illegal k: " + k);
+        Comparator<Object> c = (Comparator<Object>) comparator;
+        Object[] heap = new Object[Math.min(k, list.size())];
+        int heapSize = 0;
+        if (heap.length > 0) {
+            for (E element : list) {
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = element;
+                    if (heapSize == heap.length) {
+                        IntroSort.heapify(heap, 0, heapSize, c);
+                    }
+                } else if (c.compare(element, heap[0]) < 0) {
+                    heap[0] = element;
+                    IntroSort.siftDown(heap, 0, 0, heapSize, c);
+                }
+            }
+        }
+        IntroSort.heapSort(heap, 0, heapSize, c);
+        CustomArrayList<E> result = new CustomArrayList<>(heapSize);
+        result.addAll((E[]) heap);
+        return result;
+    }
+
+    /**
+     * Выполняет операцию над массивом списка {@code CustomArrayList} или над копией элементов
+     * любого другого списка, после чего записывает копию обратно.
+     */
+    private static <E> void rearrange(CustomList<E> list, CustomArrayList.ArrayRangeAction action) {
+        if (CustomArrayList.sortBackingArray(list, action)) {
+            return;
+        }
+        Object[] elements = new Object[list.size()];
+        int i = 0;
+        for (E element : list) {
+            elements[i++] = element;
+        }
+        action.apply(elements, 0, elements.length);
+        ListIterator<E> iterator = list.listIterator();
+        for (Object element : elements) {
+            iterator.next();
+            iterator.set((E) element);
+        }
     }
 
     private static <E> void mergeSort(CustomList<E> list, int n, Comparator<? super E> comparator) {
@@ -41,7 +274,9 @@ public class Utils {
 
         int mid = n / 2;
 
-        CustomList<E> left = list.subList(0, mid);
+        // Левая половина копируется, правая сливается на месте: запись в list всегда
+        // отстает от чтения из right, поэтому ее представление не затирается.
+        CustomList<E> left = list.copyOfRange(0, mid);
         CustomList<E> right = list.subList(mid, n);
 
         mergeSort(left, left.size(), comparator);
@@ -76,7 +311,9 @@ public class Utils {
 
         int mid = n / 2;
 
-        CustomList<E> left = list.subList(0, mid);
+        // Левая половина копируется, правая сливается на месте: запись в list всегда
+        // отстает от чтения из right, поэтому ее представление не затирается.
+        CustomList<E> left = list.copyOfRange(0, mid);
         CustomList<E> right = list.subList(mid, n);
 
         mergeSort(left, left.size());
@@ -0,0 +1,127 @@
+package ru.kozhevnikov.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Вспомогательный класс, содержащий кодеки для стандартных типов элементов.
+ * Кодеки не поддерживают {@code null}.
+ *
+ * @author Kozhevnikov Valentin
+ * @see ElementCodec
+ * @see FixedWidthCodec
+ */
+public class Codecs {
+    /**
+     * Кодек для {@code Integer}, занимающий 4 байта
+     */
+    public static final FixedWidthCodec<Integer> INTEGER = new FixedWidthCodec<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer target, int offset, Integer element) {
+            target.putInt(offset, element);
+        }
+
+        @Override
+        public Integer read(ByteBuffer source, int offset) {
+            return source.getInt(offset);
+        }
+    };
+
+    /**
+     * Кодек для {@code Long}, занимающий 8 байт
+     */
+    public static final FixedWidthCodec<Long> LONG = new FixedWidthCodec<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer target, int offset, Long element) {
+            target.putLong(offset, element);
+        }
+
+        @Override
+        public Long read(ByteBuffer source, int offset) {
+            return source.getLong(offset);
+        }
+    };
+
+    /**
+     * Кодек для {@code Double}, занимающий 8 байт
+     */
+    public static final FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer target, int offset, Double element) {
+            target.putDouble(offset, element);
+        }
+
+        @Override
+        public Double read(ByteBuffer source, int offset) {
+            return source.getDouble(offset);
+        }
+    };
+
+    /**
+     * Кодек для {@code String} переменной длины, кодирующий строку в UTF-8
+     */
+    public static final ElementCodec<String> STRING = new ElementCodec<>() {
+        @Override
+        public int encodedLength(String element) {
+            return utf8Length(element);
+        }
+
+        @Override
+        public void encode(String element, ByteBuffer target) {
+            target.put(element.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decode(ByteBuffer source, int length) {
+            byte[] bytes = new byte[length];
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private Codecs() {
+    }
+
+    /**
+     * Возвращает длину строки в кодировке UTF-8 без создания промежуточного массива байт.
+     * Непарные суррогаты кодируются одним байтом, как и при {@link String#getBytes}.
+     *
+     * @param s строка
+     * @return количество байт в кодировке UTF-8
+     */
+    public static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
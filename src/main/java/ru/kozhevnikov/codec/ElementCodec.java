@@ -0,0 +1,45 @@
+package ru.kozhevnikov.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Кодек, преобразующий элементы списка в последовательность байт и обратно. Используется
+ * реализациями {@code CustomList}, хранящими элементы вне кучи или в файле.
+ *
+ * <p>Длина закодированного элемента может зависеть от самого элемента. Кодеки, у которых все
+ * элементы занимают одинаковое количество байт, реализуют интерфейс {@link FixedWidthCodec}.
+ *
+ * @param <E> тип кодируемых элементов
+ *
+ * @author Kozhevnikov Valentin
+ * @see FixedWidthCodec
+ * @see Codecs
+ */
+public interface ElementCodec<E> {
+    /**
+     * Возвращает количество байт, которое займет передаваемый элемент после кодирования.
+     *
+     * @param element кодируемый элемент
+     * @return длина закодированного элемента в байтах
+     */
+    int encodedLength(E element);
+
+    /**
+     * Записывает закодированный элемент в буфер, начиная с его текущей позиции, и сдвигает
+     * позицию буфера на {@link #encodedLength(Object)} байт.
+     *
+     * @param element кодируемый элемент
+     * @param target буфер, в который записывается элемент
+     */
+    void encode(E element, ByteBuffer target);
+
+    /**
+     * Читает элемент длиной {@code length} байт из буфера, начиная с его текущей позиции,
+     * и сдвигает позицию буфера на {@code length} байт.
+     *
+     * @param source буфер, из которого читается элемент
+     * @param length длина закодированного элемента в байтах
+     * @return прочитанный элемент
+     */
+    E decode(ByteBuffer source, int length);
+}
@@ -0,0 +1,62 @@
+package ru.kozhevnikov.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Кодек, кодирующий каждый элемент одним и тем же количеством байт. Позволяет обращаться
+ * к элементу с номером {@code i} по смещению {@code i * width()} без таблицы смещений,
+ * а также читать и записывать элементы по абсолютному смещению, не изменяя позицию буфера.
+ *
+ * @param <E> тип кодируемых элементов
+ *
+ * @author Kozhevnikov Valentin
+ * @see ElementCodec
+ * @see Codecs
+ */
+public interface FixedWidthCodec<E> extends ElementCodec<E> {
+    /**
+     * Возвращает длину закодированного элемента в байтах.
+     *
+     * @return длина закодированного элемента
+     */
+    int width();
+
+    /**
+     * Записывает закодированный элемент в буфер по абсолютному смещению. Позиция буфера
+     * не изменяется.
+     *
+     * @param target буфер, в который записывается элемент
+     * @param offset смещение в байтах от начала буфера
+     * @param element кодируемый элемент
+     */
+    void write(ByteBuffer target, int offset, E element);
+
+    /**
+     * Читает элемент из буфера по абсолютному смещению. Позиция буфера не изменяется.
+     *
+     * @param source буфер, из которого читается элемент
+     * @param offset смещение в байтах от начала буфера
+     * @return прочитанный элемент
+     */
+    E read(ByteBuffer source, int offset);
+
+    @Override
+    default int encodedLength(E element) {
+        return width();
+    }
+
+    @Override
+    default void encode(E element, ByteBuffer target) {
+        int position = target.position();
+        write(target, position, element);
+        target.position(position + width());
+    }
+
+    @Override
+    default E decode(ByteBuffer source, int length) {
+        int position = source.position();
+        E element = read(source, position);
+        source.position(position + width());
+        return element;
+    }
+}
@@ -0,0 +1,286 @@
+package ru.kozhevnikov.io;
+
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.codec.ElementCodec;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Читает из канала {@link ReadableByteChannel} списки, записанные классом {@link CustomListWriter}.
+ * Описание формата приведено в документации {@link CustomListWriter}.
+ *
+ * <p>Количество элементов читается из заголовка до чтения самих элементов, поэтому список
+ * {@code CustomArrayList} сразу получает нужную вместимость и не увеличивается при чтении.
+ * Заголовку и длинам элементов поврежденного потока нельзя доверять, поэтому память под них
+ * выделяется только в пределах данных, которые действительно есть в канале. Если канал реализует
+ * {@link SeekableByteChannel}, объявленные размеры сверяются с количеством оставшихся в нем байт
+ * (каждый элемент занимает хотя бы один байт), и превышающие его размеры сразу приводят
+ * к {@code EOFException}. Для остальных каналов вместимость списка и входной буфер увеличиваются
+ * ограниченными шагами по мере поступления данных, начиная с {@link #MAX_INITIAL_CAPACITY}
+ * элементов, поэтому поток, закончившийся раньше объявленного размера, приводит
+ * к {@code EOFException}, а не к {@code OutOfMemoryError}.
+ * Данные читаются из канала через буфер, который переиспользуется между вызовами {@link #read()}.
+ * Если в канал последовательно записано несколько списков, каждый вызов {@link #read()}
+ * возвращает следующий из них.
+ *
+ * @param <E> тип читаемых элементов
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomListWriter
+ * @see ElementCodec
+ */
+public class CustomListReader<E> implements Closeable {
+    /**
+     * Наибольшая начальная вместимость возвращаемого списка
+     */
+    static final int MAX_INITIAL_CAPACITY = 1 << 16;
+    /**
+     * Наибольшая степень сжатия алгоритма deflate
+     */
+    static final int MAX_COMPRESSION_RATIO = 1032;
+
+    private final ReadableByteChannel channel;
+    private final ElementCodec<E> codec;
+    /**
+     * Данные, прочитанные из канала (в режиме чтения)
+     */
+    private ByteBuffer input = ByteBuffer.allocate(CustomListWriter.BLOCK_SIZE).limit(0);
+    /**
+     * Распакованный блок (в режиме чтения), создается при первой необходимости
+     */
+    private ByteBuffer block;
+    private Inflater inflater;
+    private boolean closed;
+
+    /**
+     * Конструктор для создания объекта, читающего списки из канала.
+     *
+     * @param channel канал, из которого читаются списки
+     * @param codec кодек, которым были закодированы элементы
+     * @throws NullPointerException если канал или кодек равны {@code null}
+     */
+    public CustomListReader(ReadableByteChannel channel, ElementCodec<E> codec) {
+        this.channel = Objects.requireNonNull(channel);
+        this.codec = Objects.requireNonNull(codec);
+    }
+
+    /**
+     * Читает из канала следующий список.
+     *
+     * @return прочитанный список
+     * @throws EOFException если канал закончился раньше, чем был прочитан список
+     * @throws IOException в случае ошибки ввода-вывода или если данные не соответствуют формату
+     * @throws IllegalStateException если объект закрыт
+     */
+    public CustomArrayList<E> read() throws IOException {
+        CustomArrayList<E> list = new CustomArrayList<>(0);
+        read(list);
+        return list;
+    }
+
+    /**
+     * Читает из канала следующий список и добавляет его элементы в конец передаваемого списка.
+     * Вместимость списка увеличивается до прочтения элементов, поэтому при чтении из
+     * {@link SeekableByteChannel} массив списка выделяется не больше одного раза.
+     *
+     * @param target список, в который добавляются прочитанные элементы
+     * @return количество прочитанных элементов
+     * @throws EOFException если канал закончился раньше, чем был прочитан список
+     * @throws IOException в случае ошибки ввода-вывода или если данные не соответствуют формату
+     * @throws IllegalStateException если объект закрыт
+     * @throws NullPointerException если список равен {@code null}
+     */
+    public int read(CustomArrayList<? super E> target) throws IOException {
+        Objects.requireNonNull(target);
+        if (closed)
+            throw new IllegalStateException("Reader is closed");
+
+        fill(CustomListWriter.HEADER_SIZE);
+        if (input.getInt() != CustomListWriter.MAGIC)
+            throw new IOException("Not a CustomList stream");
+        int version = input.getInt();
+        if (version != CustomListWriter.VERSION)
+            throw new IOException("Unsupported format version " + version);
+        boolean compressed = (input.getInt() & CustomListWriter.FLAG_COMPRESSED) != 0;
+        int count = input.getInt();
+        if (count < 0)
+            throw new IOException("Illegal element count " + count);
+
+        long available = available();
+        int reserved;
+        if (available >= 0) {
+            if (count > (compressed ? available * MAX_COMPRESSION_RATIO : available))
+                throw new EOFException();
+            reserved = count;
+        } else {
+            reserved = Math.min(count, MAX_INITIAL_CAPACITY);
+        }
+        int offset = target.size();
+        if ((long) offset + count > Integer.MAX_VALUE)
+            throw new IOException("Illegal element count " + count);
+        target.ensureCapacity(offset + reserved);
+        if (compressed && block != null) {
+            block.limit(0);
+        }
+        for (int i = 0; i < count; i++) {
+            if (i == reserved) {
+                reserved = (int) Math.min(count, reserved * 2L);
+                target.ensureCapacity(offset + reserved);
+            }
+            ByteBuffer source;
+            int length;
+            if (compressed) {
+                source = nextRecordInBlock();
+                length = getVarInt(source);
+                if (length < 0 || source.remaining() < length)
+                    throw new IOException("Element crosses block boundary");
+            } else {
+                length = readVarInt();
+                if (length < 0)
+                    throw new IOException("Illegal element length " + length);
+                fill(length);
+                source = input;
+            }
+
+            int end = source.position() + length;
+            target.add(codec.decode(source, length));
+            if (source.position() != end)
+                throw new IOException(String.format(
+                        "Codec read %d bytes instead of %d", source.position() - end + length, length));
+        }
+        if (compressed && block != null && block.hasRemaining())
+            throw new IOException("Unexpected data after the last element");
+        return count;
+    }
+
+    /**
+     * Освобождает ресурсы декомпрессора и закрывает канал.
+     *
+     * @throws IOException в случае ошибки ввода-вывода
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (inflater != null) {
+            inflater.end();
+        }
+        channel.close();
+    }
+
+    /**
+     * Возвращает распакованный блок, содержащий следующий элемент, при необходимости
+     * читая и распаковывая очередной блок из канала.
+     */
+    private ByteBuffer nextRecordInBlock() throws IOException {
+        if (block != null && block.hasRemaining()) {
+            return block;
+        }
+
+        fill(CustomListWriter.BLOCK_HEADER_SIZE);
+        int rawLength = input.getInt();
+        int compressedLength = input.getInt();
+        if (rawLength <= 0 || compressedLength < 0)
+            throw new IOException("Illegal block header");
+        fill(compressedLength);
+        if (rawLength > (long) compressedLength * MAX_COMPRESSION_RATIO)
+            throw new IOException("Illegal block header");
+
+        if (block == null || block.capacity() < rawLength) {
+            block = ByteBuffer.allocate(Math.max(rawLength, CustomListWriter.BLOCK_SIZE));
+        }
+        block.clear().limit(rawLength);
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.reset();
+        int inputLimit = input.limit();
+        input.limit(input.position() + compressedLength);
+        inflater.setInput(input);
+        try {
+            while (block.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(block) == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new IOException("Truncated compressed block");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted compressed block", e);
+        } finally {
+            input.limit(inputLimit);
+        }
+        if (block.hasRemaining())
+            throw new IOException("Truncated compressed block");
+        block.flip();
+        return block;
+    }
+
+    /**
+     * Гарантирует, что во входном буфере доступно не меньше {@code length} байт,
+     * при необходимости читая данные из канала и увеличивая буфер. Если размер канала неизвестен,
+     * буфер увеличивается не больше чем вдвое за шаг по мере поступления данных, а не сразу
+     * до длины, объявленной в потоке.
+     */
+    private void fill(int length) throws IOException {
+        if (input.remaining() >= length) {
+            return;
+        }
+        long available = available();
+        if (available >= 0 && available < length)
+            throw new EOFException();
+        input.compact();
+        while (input.position() < length) {
+            if (!input.hasRemaining()) {
+                int capacity = available >= 0 ? length : (int) Math.min(length, input.capacity() * 2L);
+                input = ByteBuffer.allocate(capacity).put(input.flip());
+            }
+            if (channel.read(input) < 0)
+                throw new EOFException();
+        }
+        input.flip();
+    }
+
+    /**
+     * Возвращает количество байт, оставшихся во входном буфере и в канале, или -1,
+     * если канал не реализует {@link SeekableByteChannel}.
+     */
+    private long available() throws IOException {
+        if (!(channel instanceof SeekableByteChannel seekable)) {
+            return -1;
+        }
+        return input.remaining() + Math.max(0L, seekable.size() - seekable.position());
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            fill(1);
+            byte b = input.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int getVarInt(ByteBuffer source) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35 && source.hasRemaining(); shift += 7) {
+            byte b = source.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
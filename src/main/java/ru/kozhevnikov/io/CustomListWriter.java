@@ -0,0 +1,220 @@
+package ru.kozhevnikov.io;
+
+import ru.kozhevnikov.CustomList;
+import ru.kozhevnikov.codec.ElementCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * Записывает списки {@code CustomList} в канал {@link WritableByteChannel} в компактном
+ * двоичном формате, который читается классом {@link CustomListReader}.
+ *
+ * <p>Формат (все числа фиксированной длины записываются в порядке байт big-endian):
+ * <pre>
+ *   заголовок (16 байт): магическое число, версия формата, флаги, количество элементов;
+ *   элементы:            длина закодированного элемента (unsigned varint), затем сам элемент.
+ * </pre>
+ * Если установлен флаг сжатия, элементы после заголовка разбиваются на блоки, каждый из которых
+ * записывается как длина блока до сжатия (int), длина после сжатия (int) и данные, сжатые
+ * алгоритмом Deflate. Элемент никогда не разбивается между блоками.
+ *
+ * <p>Элементы кодируются через один буфер, который переиспользуется между вызовами
+ * {@link #write(CustomList)}, поэтому запись не создает промежуточных массивов для каждого
+ * элемента. В один канал можно последовательно записать несколько списков.
+ *
+ * @param <E> тип записываемых элементов
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomListReader
+ * @see ElementCodec
+ */
+public class CustomListWriter<E> implements Closeable {
+    /**
+     * Магическое число в начале записанного списка ("CLSB")
+     */
+    static final int MAGIC = 0x434C5342;
+    /**
+     * Версия формата
+     */
+    static final int VERSION = 1;
+    /**
+     * Флаг сжатия элементов блоками
+     */
+    static final int FLAG_COMPRESSED = 1;
+    /**
+     * Длина заголовка в байтах
+     */
+    static final int HEADER_SIZE = 16;
+    /**
+     * Длина заголовка сжатого блока в байтах
+     */
+    static final int BLOCK_HEADER_SIZE = 8;
+    /**
+     * Размер буфера и, соответственно, максимальный размер блока до сжатия
+     */
+    static final int BLOCK_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ElementCodec<E> codec;
+    /**
+     * Компрессор или {@code null}, если сжатие не используется
+     */
+    private final Deflater deflater;
+    /**
+     * Буфер для кодирования элементов
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+    /**
+     * Буфер для сжатого блока, создается при первой необходимости
+     */
+    private ByteBuffer compressedBlock;
+    private boolean closed;
+
+    /**
+     * Конструктор для создания объекта, записывающего элементы без сжатия.
+     *
+     * @param channel канал, в который записываются списки
+     * @param codec кодек, кодирующий элементы
+     * @throws NullPointerException если канал или кодек равны {@code null}
+     */
+    public CustomListWriter(WritableByteChannel channel, ElementCodec<E> codec) {
+        this(channel, codec, false);
+    }
+
+    /**
+     * Конструктор для создания объекта, записывающего элементы со сжатием или без него.
+     *
+     * @param channel канал, в который записываются списки
+     * @param codec кодек, кодирующий элементы
+     * @param compressed {@code true}, если элементы следует сжимать блоками
+     * @throws NullPointerException если канал или кодек равны {@code null}
+     */
+    public CustomListWriter(WritableByteChannel channel, ElementCodec<E> codec, boolean compressed) {
+        this.channel = Objects.requireNonNull(channel);
+        this.codec = Objects.requireNonNull(codec);
+        this.deflater = compressed ? new Deflater() : null;
+    }
+
+    /**
+     * Записывает передаваемый список в канал.
+     *
+     * @param list записываемый список
+     * @throws IOException в случае ошибки ввода-вывода
+     * @throws IllegalStateException если объект закрыт или кодек записал количество байт,
+     * отличное от возвращенного методом {@code encodedLength}
+     */
+    public void write(CustomList<? extends E> list) throws IOException {
+        if (closed)
+            throw new IllegalStateException("Writer is closed");
+
+        buffer.clear();
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(deflater != null ? FLAG_COMPRESSED : 0)
+                .putInt(list.size());
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+
+        for (E element : list) {
+            int length = codec.encodedLength(element);
+            int recordLength = varIntLength(length) + length;
+            if (recordLength > buffer.remaining()) {
+                flushBlock();
+                if (recordLength > buffer.capacity()) {
+                    buffer = ByteBuffer.allocate(recordLength);
+                }
+            }
+
+            putVarInt(buffer, length);
+            int start = buffer.position();
+            codec.encode(element, buffer);
+            if (buffer.position() - start != length)
+                throw new IllegalStateException(String.format(
+                        "Codec wrote %d bytes instead of %d", buffer.position() - start, length));
+        }
+        flushBlock();
+    }
+
+    /**
+     * Освобождает ресурсы компрессора и закрывает канал.
+     *
+     * @throws IOException в случае ошибки ввода-вывода
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (deflater != null) {
+            deflater.end();
+        }
+        channel.close();
+    }
+
+    private void flushBlock() throws IOException {
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            return;
+        }
+        if (deflater == null) {
+            writeFully(buffer);
+            buffer.clear();
+            return;
+        }
+
+        int rawLength = buffer.remaining();
+        int bound = BLOCK_HEADER_SIZE + rawLength + (rawLength >> 4) + 64;
+        if (compressedBlock == null || compressedBlock.capacity() < bound) {
+            compressedBlock = ByteBuffer.allocate(bound);
+        }
+        compressedBlock.clear().position(BLOCK_HEADER_SIZE);
+
+        deflater.reset();
+        deflater.setInput(buffer);
+        deflater.finish();
+        while (!deflater.finished()) {
+            if (!compressedBlock.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(compressedBlock.capacity() * 2);
+                compressedBlock.flip();
+                compressedBlock = larger.put(compressedBlock);
+            }
+            deflater.deflate(compressedBlock);
+        }
+
+        compressedBlock.putInt(0, rawLength);
+        compressedBlock.putInt(4, compressedBlock.position() - BLOCK_HEADER_SIZE);
+        compressedBlock.flip();
+        writeFully(compressedBlock);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    static int varIntLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    static void putVarInt(ByteBuffer target, int value) {
+        while ((value & ~0x7F) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+}
@@ -0,0 +1,325 @@
+package ru.kozhevnikov.io;
+
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.CustomList;
+import ru.kozhevnikov.Utils;
+import ru.kozhevnikov.codec.ElementCodec;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Внешняя сортировка слиянием для последовательностей элементов, которые не помещаются в памяти.
+ *
+ * <p>Элементы читаются в буфер {@code CustomArrayList} размером не более {@code runSize},
+ * буфер сортируется и записывается во временный файл как отсортированная серия. Серии
+ * записываются классом {@link CustomListWriter} частями по {@code runSize / fanIn} элементов,
+ * поэтому при слиянии в памяти одновременно находится не больше {@code runSize} элементов.
+ * Затем серии сливаются с помощью очереди с приоритетом: если серий больше {@code fanIn},
+ * сначала выполняются промежуточные проходы, сливающие по {@code fanIn} соседних серий в одну.
+ * Последний проход передает элементы получателю, не сохраняя их.
+ *
+ * <p>Сортировка устойчива. Если все элементы поместились в буфер, временные файлы не создаются.
+ * Временные файлы удаляются по окончании сортировки, в том числе в случае ошибки. Класс
+ * {@code ExternalSorter} не хранит состояния между вызовами и может использоваться повторно.
+ *
+ * @param <E> тип сортируемых элементов
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomListWriter
+ * @see CustomListReader
+ * @see ElementCodec
+ */
+public class ExternalSorter<E> {
+    /**
+     * Размер буфера по умолчанию
+     */
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+    /**
+     * Количество серий, сливаемых за один проход, по умолчанию
+     */
+    public static final int DEFAULT_FAN_IN = 64;
+
+    private final ElementCodec<E> codec;
+    private final Comparator<? super E> comparator;
+    /**
+     * Наибольшее количество элементов в буфере
+     */
+    private final int runSize;
+    /**
+     * Наибольшее количество серий, сливаемых за один проход
+     */
+    private final int fanIn;
+    /**
+     * Количество элементов в одной части серии
+     */
+    private final int chunkSize;
+    /**
+     * Каталог для временных файлов или {@code null} для системного каталога
+     */
+    private final Path tempDirectory;
+
+    /**
+     * Конструктор для создания объекта с размером буфера и количеством сливаемых серий
+     * по умолчанию, использующего системный каталог временных файлов.
+     *
+     * @param codec кодек, кодирующий элементы во временных файлах
+     * @param comparator компаратор, в соответствии с которым сортируются элементы
+     * @throws NullPointerException если кодек или компаратор равны {@code null}
+     */
+    public ExternalSorter(ElementCodec<E> codec, Comparator<? super E> comparator) {
+        this(codec, comparator, DEFAULT_RUN_SIZE, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * Конструктор для создания объекта с указанными ограничениями.
+     *
+     * @param codec кодек, кодирующий элементы во временных файлах
+     * @param comparator компаратор, в соответствии с которым сортируются элементы
+     * @param runSize наибольшее количество элементов, одновременно находящихся в памяти
+     * @param fanIn наибольшее количество серий, сливаемых за один проход
+     * @param tempDirectory каталог для временных файлов или {@code null} для системного каталога
+     * @throws NullPointerException если кодек или компаратор равны {@code null}
+     * @throws IllegalArgumentException если размер буфера не положительный или количество
+     * сливаемых серий меньше двух
+     */
+    public ExternalSorter(ElementCodec<E> codec, Comparator<? super E> comparator,
+                          int runSize, int fanIn, Path tempDirectory) {
+        if (runSize <= 0)
+            throw new IllegalArgumentException("Illegal run size");
+        if (fanIn < 2)
+            throw new IllegalArgumentException("Illegal fan-in");
+        this.codec = Objects.requireNonNull(codec);
+        this.comparator = Objects.requireNonNull(comparator);
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.chunkSize = Math.max(1, runSize / fanIn);
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Сортирует элементы передаваемого источника и добавляет их в конец списка.
+     *
+     * @param source источник элементов
+     * @param target список, в который добавляются отсортированные элементы
+     * @return количество отсортированных элементов
+     * @throws IOException в случае ошибки ввода-вывода
+     * @throws NullPointerException если источник или список равны {@code null}
+     */
+    public long sort(Iterable<? extends E> source, CustomList<? super E> target) throws IOException {
+        Objects.requireNonNull(target);
+        return sort(source.iterator(), target::add);
+    }
+
+    /**
+     * Сортирует элементы передаваемого итератора и передает их получателю в порядке возрастания.
+     *
+     * @param source итератор по сортируемым элементам
+     * @param sink получатель отсортированных элементов
+     * @return количество отсортированных элементов
+     * @throws IOException в случае ошибки ввода-вывода
+     * @throws NullPointerException если итератор или получатель равны {@code null}
+     */
+    public long sort(Iterator<? extends E> source, Consumer<? super E> sink) throws IOException {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(sink);
+        CustomArrayList<Path> files = new CustomArrayList<>();
+        try {
+            CustomArrayList<Run> runs = new CustomArrayList<>();
+            CustomArrayList<E> buffer = new CustomArrayList<>();
+            long count = 0;
+            while (source.hasNext()) {
+                buffer.add(source.next());
+                count++;
+                if (buffer.size() == runSize && source.hasNext()) {
+                    runs.add(spill(buffer, files));
+                }
+            }
+            if (runs.size() == 0) {
+                Utils.mergeSort(buffer, comparator);
+                buffer.forEach(sink);
+                return count;
+            }
+            if (buffer.size() > 0) {
+                runs.add(spill(buffer, files));
+            }
+            buffer = null;
+
+            while (runs.size() > fanIn) {
+                CustomArrayList<Run> merged = new CustomArrayList<>();
+                for (int begin = 0; begin < runs.size(); begin += fanIn) {
+                    CustomList<Run> group = runs.subList(begin, Math.min(begin + fanIn, runs.size()));
+                    try (RunOutput output = new RunOutput(files)) {
+                        merge(group, output::add);
+                        merged.add(output.run);
+                    }
+                    for (Run run : group) {
+                        Files.deleteIfExists(run.path);
+                    }
+                }
+                runs = merged;
+            }
+            merge(runs, sink::accept);
+            return count;
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Сортирует буфер, записывает его во временный файл и очищает буфер.
+     */
+    private Run spill(CustomArrayList<E> buffer, CustomList<Path> files) throws IOException {
+        Utils.mergeSort(buffer, comparator);
+        Run run;
+        try (RunOutput output = new RunOutput(files)) {
+            for (int begin = 0; begin < buffer.size(); begin += chunkSize) {
+                output.writer.write(buffer.subList(begin, Math.min(begin + chunkSize, buffer.size())));
+            }
+            run = output.run;
+            run.count = buffer.size();
+        }
+        buffer.clear();
+        return run;
+    }
+
+    /**
+     * Сливает серии, передавая элементы получателю. Из равных элементов первым передается
+     * элемент серии с меньшим индексом, что сохраняет устойчивость сортировки.
+     */
+    private void merge(CustomList<Run> runs, Sink<E> sink) throws IOException {
+        PriorityQueue<RunCursor> queue = new PriorityQueue<>(runs.size(), (a, b) -> {
+            int cmp = comparator.compare(a.head, b.head);
+            return cmp != 0 ? cmp : Integer.compare(a.index, b.index);
+        });
+        CustomArrayList<RunCursor> cursors = new CustomArrayList<>(runs.size());
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunCursor cursor = new RunCursor(runs.get(i), i);
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunCursor cursor = queue.poll();
+                sink.accept(cursor.head);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.reader.close();
+            }
+        }
+    }
+
+    /**
+     * Получатель элементов, который может выбросить {@code IOException}
+     */
+    @FunctionalInterface
+    private interface Sink<E> {
+        void accept(E element) throws IOException;
+    }
+
+    /**
+     * Временный файл, содержащий отсортированную серию
+     */
+    private static final class Run {
+        private final Path path;
+        private long count;
+
+        private Run(Path path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Записывает серию во временный файл частями по {@code chunkSize} элементов
+     */
+    private final class RunOutput implements AutoCloseable {
+        private final Run run;
+        private final CustomListWriter<E> writer;
+        private final CustomArrayList<E> chunk = new CustomArrayList<>();
+
+        private RunOutput(CustomList<Path> files) throws IOException {
+            Path path = tempDirectory == null
+                    ? Files.createTempFile("custom-list-run", ".tmp")
+                    : Files.createTempFile(tempDirectory, "custom-list-run", ".tmp");
+            files.add(path);
+            run = new Run(path);
+            writer = new CustomListWriter<>(FileChannel.open(path, StandardOpenOption.WRITE), codec);
+        }
+
+        private void add(E element) throws IOException {
+            chunk.add(element);
+            run.count++;
+            if (chunk.size() == chunkSize) {
+                writer.write(chunk);
+                chunk.clear();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (chunk.size() > 0) {
+                    writer.write(chunk);
+                    chunk.clear();
+                }
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Читает серию из временного файла по частям и хранит ее текущий элемент
+     */
+    private final class RunCursor {
+        private final CustomListReader<E> reader;
+        private final int index;
+        private long remaining;
+        private CustomArrayList<E> chunk = new CustomArrayList<>();
+        private int position;
+        private E head;
+
+        private RunCursor(Run run, int index) throws IOException {
+            this.reader = new CustomListReader<>(FileChannel.open(run.path, StandardOpenOption.READ), codec);
+            this.index = index;
+            this.remaining = run.count;
+        }
+
+        /**
+         * Переходит к следующему элементу серии.
+         *
+         * @return {@code false}, если серия закончилась
+         */
+        private boolean advance() throws IOException {
+            if (position == chunk.size()) {
+                if (remaining == 0) {
+                    head = null;
+                    return false;
+                }
+                chunk = reader.read();
+                position = 0;
+                if (chunk.size() == 0 || chunk.size() > remaining)
+                    throw new IOException("Corrupted run file");
+                remaining -= chunk.size();
+            }
+            head = chunk.get(position++);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.kozhevnikov.metrics;
+
+/**
+ * Получатель событий внутренних операций списка {@code CustomArrayList}. Устанавливается
+ * методом {@link ru.kozhevnikov.CustomArrayList#setListener(ListEventListener)}; пока получатель
+ * не установлен, список не вычисляет и не передает никаких данных о своих операциях.
+ *
+ * <p>Методы вызываются в потоке, выполняющем операцию над списком, и не должны изменять список.
+ * Один получатель может быть установлен для нескольких списков, используемых разными потоками,
+ * поэтому реализации должны быть потокобезопасными. Все методы по умолчанию ничего не делают.
+ *
+ * @author Kozhevnikov Valentin
+ * @see ListMetrics
+ */
+public interface ListEventListener {
+    /**
+     * Вызывается при изменении вместимости списка: при ее увеличении, уменьшении стратегией
+     * {@code GrowthPolicy}, а также методами {@code ensureCapacity} и {@code trimToSize}.
+     *
+     * @param size размер списка
+     * @param oldCapacity вместимость до изменения
+     * @param newCapacity вместимость после изменения
+     */
+    default void onCapacityChange(int size, int oldCapacity, int newCapacity) {
+    }
+
+    /**
+     * Вызывается, когда вставка или удаление сдвигает элементы внутри массива.
+     *
+     * @param elements количество сдвинутых элементов
+     */
+    default void onShift(int elements) {
+    }
+
+    /**
+     * Вызывается после поиска элемента методами {@code indexOf} и {@code lastIndexOf}.
+     *
+     * @param length количество просмотренных элементов
+     */
+    default void onScan(int length) {
+    }
+
+    /**
+     * Вызывается после сортировки списка или его представления методами {@code sort},
+     * {@code parallelSort}, {@code partialSort}, {@code nthElement} и {@code Utils.mergeSort}.
+     *
+     * @param size количество отсортированных элементов
+     * @param nanos длительность сортировки в наносекундах
+     */
+    default void onSort(int size, long nanos) {
+    }
+
+    /**
+     * Сообщает текущую заполненность списка. Вызывается перед очисткой списка, перед удалением
+     * нескольких элементов методами {@code removeRange} и {@code removeIf}, перед уменьшением
+     * вместимости методом {@code trimToSize} и после сортировки. Вместе с размером, передаваемым
+     * в {@link #onCapacityChange(int, int, int)}, позволяет оценить наибольший размер списка.
+     *
+     * @param size размер списка
+     * @param capacity вместимость списка
+     */
+    default void onOccupancy(int size, int capacity) {
+    }
+}
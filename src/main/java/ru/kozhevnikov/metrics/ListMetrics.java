@@ -0,0 +1,209 @@
+package ru.kozhevnikov.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Получатель событий, накапливающий статистику операций одного или нескольких списков
+ * {@code CustomArrayList}: количество изменений вместимости, наибольшие размер и вместимость,
+ * количество сдвинутых элементов, длины поисков и длительности сортировок. Статистика доступна
+ * через методы интерфейса {@link ListMetricsMBean} и через JMX после вызова {@link #register(String)}.
+ *
+ * <p>Наибольший размер и доля незанятой вместимости {@code 1 - peakSize / peakCapacity} позволяют
+ * подобрать начальную вместимость по реальным данным. Размер списка не передается при каждом
+ * добавлении, а фиксируется при изменении вместимости, очистке, удалении нескольких элементов,
+ * уменьшении вместимости и сортировке, поэтому наибольший размер может быть занижен для списков,
+ * которые после последнего увеличения вместимости не очищаются и не сортируются. Если статистика
+ * установлена для нескольких списков, наибольшие значения относятся ко всем спискам вместе.
+ *
+ * <p>Счетчики основаны на {@code LongAdder} и {@code LongAccumulator}, поэтому один объект
+ * можно устанавливать для списков, используемых разными потоками. Значения, зависящие от
+ * нескольких счетчиков, например средняя длина поиска, вычисляются без блокировки и при
+ * одновременных изменениях могут быть приблизительными.
+ *
+ * <pre>{@code
+ * ListMetrics metrics = new ListMetrics();
+ * metrics.register("orders");
+ * list.setListener(metrics);
+ * }</pre>
+ *
+ * @author Kozhevnikov Valentin
+ * @see ListEventListener
+ */
+public class ListMetrics implements ListEventListener, ListMetricsMBean {
+    /**
+     * Домен имен JMX, под которыми регистрируется статистика
+     */
+    public static final String DOMAIN = "ru.kozhevnikov";
+
+    private final LongAdder growCount = new LongAdder();
+    private final LongAdder shrinkCount = new LongAdder();
+    private final LongAccumulator peakCapacity = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator peakSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder shiftedElements = new LongAdder();
+    private final LongAdder shiftCount = new LongAdder();
+    private final LongAdder scanCount = new LongAdder();
+    private final LongAdder scannedElements = new LongAdder();
+    private final LongAccumulator maxScanLength = new LongAccumulator(Math::max, 0);
+    private final LongAdder sortCount = new LongAdder();
+    private final LongAdder totalSortNanos = new LongAdder();
+    private final LongAccumulator maxSortNanos = new LongAccumulator(Math::max, 0);
+    /**
+     * Имя, под которым статистика зарегистрирована в JMX, или {@code null}
+     */
+    private volatile ObjectName objectName;
+
+    @Override
+    public void onCapacityChange(int size, int oldCapacity, int newCapacity) {
+        if (newCapacity > oldCapacity) {
+            growCount.increment();
+        } else if (newCapacity < oldCapacity) {
+            shrinkCount.increment();
+        }
+        peakCapacity.accumulate(Math.max(oldCapacity, newCapacity));
+        peakSize.accumulate(size);
+    }
+
+    @Override
+    public void onOccupancy(int size, int capacity) {
+        peakCapacity.accumulate(capacity);
+        peakSize.accumulate(size);
+    }
+
+    @Override
+    public void onShift(int elements) {
+        shiftCount.increment();
+        shiftedElements.add(elements);
+    }
+
+    @Override
+    public void onScan(int length) {
+        scanCount.increment();
+        scannedElements.add(length);
+        maxScanLength.accumulate(length);
+    }
+
+    @Override
+    public void onSort(int size, long nanos) {
+        sortCount.increment();
+        totalSortNanos.add(nanos);
+        maxSortNanos.accumulate(nanos);
+    }
+
+    @Override
+    public long getGrowCount() {
+        return growCount.sum();
+    }
+
+    @Override
+    public long getShrinkCount() {
+        return shrinkCount.sum();
+    }
+
+    @Override
+    public int getPeakCapacity() {
+        return (int) peakCapacity.get();
+    }
+
+    @Override
+    public int getPeakSize() {
+        return (int) peakSize.get();
+    }
+
+    @Override
+    public double getWastedCapacityRatio() {
+        long capacity = peakCapacity.get();
+        return capacity == 0 ? 0.0 : 1.0 - (double) Math.min(peakSize.get(), capacity) / capacity;
+    }
+
+    @Override
+    public long getShiftedElements() {
+        return shiftedElements.sum();
+    }
+
+    @Override
+    public long getShiftCount() {
+        return shiftCount.sum();
+    }
+
+    @Override
+    public long getScanCount() {
+        return scanCount.sum();
+    }
+
+    @Override
+    public double getAverageScanLength() {
+        long count = scanCount.sum();
+        return count == 0 ? 0.0 : (double) scannedElements.sum() / count;
+    }
+
+    @Override
+    public long getMaxScanLength() {
+        return maxScanLength.get();
+    }
+
+    @Override
+    public long getSortCount() {
+        return sortCount.sum();
+    }
+
+    @Override
+    public long getTotalSortNanos() {
+        return totalSortNanos.sum();
+    }
+
+    @Override
+    public long getMaxSortNanos() {
+        return maxSortNanos.get();
+    }
+
+    @Override
+    public void reset() {
+        growCount.reset();
+        shrinkCount.reset();
+        peakCapacity.reset();
+        peakSize.reset();
+        shiftedElements.reset();
+        shiftCount.reset();
+        scanCount.reset();
+        scannedElements.reset();
+        maxScanLength.reset();
+        sortCount.reset();
+        totalSortNanos.reset();
+        maxSortNanos.reset();
+    }
+
+    /**
+     * Регистрирует статистику в платформенном сервере MBean под именем
+     * {@code ru.kozhevnikov:type=ListMetrics,name=<name>}.
+     *
+     * @param name имя статистики, например назначение списка
+     * @return имя, под которым статистика зарегистрирована
+     * @throws JMException если имя некорректно или уже занято
+     * @throws IllegalStateException если статистика уже зарегистрирована
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        if (objectName != null)
+            throw new IllegalStateException("Metrics are already registered as " + objectName);
+
+        ObjectName newName = new ObjectName(DOMAIN + ":type=ListMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+        objectName = newName;
+        return newName;
+    }
+
+    /**
+     * Удаляет статистику из платформенного сервера MBean, если она была зарегистрирована.
+     *
+     * @throws JMException если статистику не удалось удалить
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.kozhevnikov.metrics;
+
+/**
+ * Интерфейс управления JMX для {@link ListMetrics}. Все значения накапливаются с момента
+ * создания или последнего вызова {@link #reset()}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+public interface ListMetricsMBean {
+    /**
+     * @return количество увеличений вместимости
+     */
+    long getGrowCount();
+
+    /**
+     * @return количество уменьшений вместимости
+     */
+    long getShrinkCount();
+
+    /**
+     * @return наибольшая вместимость списка
+     */
+    int getPeakCapacity();
+
+    /**
+     * @return наибольший наблюдавшийся размер списка
+     */
+    int getPeakSize();
+
+    /**
+     * @return доля вместимости, не занятой даже при наибольшем размере списка:
+     * {@code 1 - peakSize / peakCapacity}, от 0 до 1
+     */
+    double getWastedCapacityRatio();
+
+    /**
+     * @return количество элементов, сдвинутых вставками и удалениями
+     */
+    long getShiftedElements();
+
+    /**
+     * @return количество операций, сдвигавших элементы
+     */
+    long getShiftCount();
+
+    /**
+     * @return количество поисков элементов
+     */
+    long getScanCount();
+
+    /**
+     * @return средняя длина поиска в элементах
+     */
+    double getAverageScanLength();
+
+    /**
+     * @return наибольшая длина поиска в элементах
+     */
+    long getMaxScanLength();
+
+    /**
+     * @return количество сортировок
+     */
+    long getSortCount();
+
+    /**
+     * @return суммарная длительность сортировок в наносекундах
+     */
+    long getTotalSortNanos();
+
+    /**
+     * @return наибольшая длительность сортировки в наносекундах
+     */
+    long getMaxSortNanos();
+
+    /**
+     * Обнуляет все накопленные значения.
+     */
+    void reset();
+}
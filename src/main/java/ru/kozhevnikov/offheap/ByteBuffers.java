@@ -0,0 +1,52 @@
+package ru.kozhevnikov.offheap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Вспомогательные операции над байтовыми буферами, используемые списками,
+ * хранящими элементы вне кучи.
+ *
+ * @author Kozhevnikov Valentin
+ */
+final class ByteBuffers {
+    /**
+     * Размер вспомогательного массива, через который сдвигаются байты внутри буфера
+     */
+    static final int MOVE_CHUNK_SIZE = 8192;
+
+    private ByteBuffers() {
+    }
+
+    /**
+     * Копирует {@code length} байт буфера со смещения {@code from} на смещение {@code to}
+     * через вспомогательный массив {@code chunk}. Участки могут перекрываться: копирование
+     * выполняется в направлении, при котором еще не скопированные байты не затираются.
+     * Позиция буфера не изменяется.
+     *
+     * @param buffer буфер
+     * @param from смещение исходного участка
+     * @param to смещение целевого участка
+     * @param length количество копируемых байт
+     * @param chunk вспомогательный массив ненулевой длины
+     */
+    static void move(ByteBuffer buffer, int from, int to, int length, byte[] chunk) {
+        if (length == 0 || from == to) {
+            return;
+        }
+        if (to < from) {
+            for (int done = 0; done < length; ) {
+                int count = Math.min(chunk.length, length - done);
+                buffer.get(from + done, chunk, 0, count);
+                buffer.put(to + done, chunk, 0, count);
+                done += count;
+            }
+        } else {
+            for (int remaining = length; remaining > 0; ) {
+                int count = Math.min(chunk.length, remaining);
+                remaining -= count;
+                buffer.get(from + remaining, chunk, 0, count);
+                buffer.put(to + remaining, chunk, 0, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,826 @@
+package ru.kozhevnikov.offheap;
+
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.CustomList;
+import ru.kozhevnikov.codec.ElementCodec;
+import ru.kozhevnikov.codec.FixedWidthCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Реализация интерфейса {@code CustomList}, хранящая элементы в файле, отображенном в память.
+ * Элементы кодируются кодеком {@link ElementCodec}; если кодек реализует {@link FixedWidthCodec},
+ * элемент с индексом {@code i} находится по смещению {@code i * width()} от начала данных,
+ * в противном случае смещения элементов хранятся в таблице в начале файла.
+ * Класс {@code MappedCustomList} не является потокобезопасным.
+ *
+ * <p>Файл имеет следующий формат (все числа записываются в порядке байт big-endian):
+ * <pre>
+ *   заголовок (32 байта): магическое число, версия формата, длина записи (0 для кодеков
+ *                         переменной длины), размер списка, вместимость таблицы смещений,
+ *                         количество занятых байт данных;
+ *   таблица смещений:     для кодеков переменной длины - смещение конца каждого элемента
+ *                         относительно начала данных (int);
+ *   данные:               закодированные элементы подряд.
+ * </pre>
+ * Заголовок обновляется при каждом изменении списка, поэтому файл всегда находится в
+ * согласованном состоянии. Метод {@link #open(Path, ElementCodec)} только проверяет заголовок
+ * и отображает файл в память, не читая элементы, так что время открытия не зависит от размера
+ * списка. Метод {@link #force()} записывает изменения на диск.
+ *
+ * <p>Размер файла ограничен размером одного отображения - {@code Integer.MAX_VALUE} байт.
+ * При заполнении файл увеличивается и отображается заново. Методы {@link #subList(int, int)}
+ * и {@link #copyOfRange(int, int)} возвращают независимые копии в куче.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see ElementCodec
+ */
+public class MappedCustomList<E> implements CustomList<E>, Closeable {
+    /**
+     * Магическое число в начале файла ("CLST")
+     */
+    static final int MAGIC = 0x434C5354;
+    /**
+     * Версия формата файла
+     */
+    static final int VERSION = 1;
+    /**
+     * Длина заголовка файла в байтах
+     */
+    static final int HEADER_SIZE = 32;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int WIDTH_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int SLOTS_OFFSET = 16;
+    private static final int DATA_LENGTH_OFFSET = 20;
+
+    private static final int DEFAULT_CAPACITY = 10;
+    /**
+     * Начальная вместимость области данных для кодеков переменной длины
+     */
+    private static final int DEFAULT_VARIABLE_DATA_CAPACITY = 256;
+
+    private final ElementCodec<E> codec;
+    /**
+     * Кодек фиксированной длины или {@code null}, если длина элементов переменная
+     */
+    private final FixedWidthCodec<E> fixedCodec;
+    /**
+     * Длина одной записи в байтах или 0, если длина элементов переменная
+     */
+    private final int width;
+    private final FileChannel channel;
+    /**
+     * Отображение файла в память или {@code null}, если список закрыт
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * Размер отображенной части файла
+     */
+    private int fileSize;
+    /**
+     * Вместимость таблицы смещений
+     */
+    private int slots;
+    /**
+     * Смещение начала данных от начала файла
+     */
+    private int dataStart;
+    /**
+     * Количество занятых байт данных
+     */
+    private int dataLength;
+    /**
+     * Размер списка
+     */
+    private int size;
+    private byte[] moveChunk;
+
+    private MappedCustomList(ElementCodec<E> codec, FileChannel channel) {
+        this.codec = codec;
+        this.fixedCodec = codec instanceof FixedWidthCodec<E> fixed ? fixed : null;
+        this.width = fixedCodec != null ? fixedCodec.width() : 0;
+        this.channel = channel;
+    }
+
+    /**
+     * Создает новый пустой список в указанном файле. Существующий файл перезаписывается.
+     *
+     * @param path путь к файлу
+     * @param codec кодек, кодирующий элементы списка
+     * @param <E> тип элементов в списке
+     * @return созданный список
+     * @throws IOException в случае ошибки ввода-вывода
+     * @throws NullPointerException если путь или кодек равны {@code null}
+     * @throws IllegalArgumentException если кодек фиксированной длины имеет неположительную длину записи
+     */
+    public static <E> MappedCustomList<E> create(Path path, ElementCodec<E> codec) throws IOException {
+        Objects.requireNonNull(codec);
+        if (codec instanceof FixedWidthCodec<E> fixed && fixed.width() <= 0)
+            throw new IllegalArgumentException("Illegal record width");
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedCustomList<E> list = new MappedCustomList<>(codec, channel);
+        try {
+            if (list.width > 0) {
+                list.slots = 0;
+                list.dataStart = HEADER_SIZE;
+                list.map(HEADER_SIZE + DEFAULT_CAPACITY * list.width);
+            } else {
+                list.slots = DEFAULT_CAPACITY;
+                list.dataStart = HEADER_SIZE + DEFAULT_CAPACITY * Integer.BYTES;
+                list.map(list.dataStart + DEFAULT_VARIABLE_DATA_CAPACITY);
+            }
+            list.buffer.putInt(MAGIC_OFFSET, MAGIC);
+            list.buffer.putInt(VERSION_OFFSET, VERSION);
+            list.buffer.putInt(WIDTH_OFFSET, list.width);
+            list.writeHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return list;
+    }
+
+    /**
+     * Открывает список, ранее сохраненный в указанном файле. Файл отображается в память
+     * целиком без чтения элементов.
+     *
+     * @param path путь к файлу
+     * @param codec кодек, которым были закодированы элементы списка
+     * @param <E> тип элементов в списке
+     * @return открытый список
+     * @throws IOException в случае ошибки ввода-вывода или если файл не является списком
+     * {@code MappedCustomList} поддерживаемой версии
+     * @throws NullPointerException если путь или кодек равны {@code null}
+     * @throws IllegalArgumentException если длина записи кодека не совпадает с длиной записи в файле
+     */
+    public static <E> MappedCustomList<E> open(Path path, ElementCodec<E> codec) throws IOException {
+        Objects.requireNonNull(codec);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedCustomList<E> list = new MappedCustomList<>(codec, channel);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE)
+                throw new IOException("Not a CustomList file: " + path);
+            list.map((int) fileSize);
+
+            MappedByteBuffer buffer = list.buffer;
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC)
+                throw new IOException("Not a CustomList file: " + path);
+            if (buffer.getInt(VERSION_OFFSET) != VERSION)
+                throw new IOException("Unsupported format version " + buffer.getInt(VERSION_OFFSET));
+            if (buffer.getInt(WIDTH_OFFSET) != list.width)
+                throw new IllegalArgumentException("Codec does not match record width "
+                        + buffer.getInt(WIDTH_OFFSET));
+
+            list.size = buffer.getInt(SIZE_OFFSET);
+            list.slots = buffer.getInt(SLOTS_OFFSET);
+            list.dataLength = buffer.getInt(DATA_LENGTH_OFFSET);
+            list.dataStart = HEADER_SIZE + list.slots * Integer.BYTES;
+            if (list.size < 0 || list.slots < 0 || list.dataLength < 0
+                    || (list.width == 0 && list.size > list.slots)
+                    || (list.width > 0 && (long) list.size * list.width != list.dataLength)
+                    || (long) list.dataStart + list.dataLength > fileSize)
+                throw new IOException("Corrupted CustomList file: " + path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return list;
+    }
+
+    /**
+     * Добавляет передаваемый элемент в конец списка.
+     *
+     * @param element элемент, добавляемый в список
+     * @throws IllegalStateException если список закрыт или файл достиг максимального размера
+     * @throws UncheckedIOException в случае ошибки ввода-вывода при увеличении файла
+     */
+    @Override
+    public void add(E element) {
+        ensureOpen();
+        insert(size, element);
+    }
+
+    /**
+     * Добавляет передаваемый элемент в указанное место списка по индексу.
+     * Сдвигает все элементы, следующие за указанным, на одну позицию вправо.
+     *
+     * @param index индекс, по которому элемент будет добавлен в список
+     * @param element элемент, добавляемый в список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     * @throws IllegalStateException если список закрыт или файл достиг максимального размера
+     * @throws UncheckedIOException в случае ошибки ввода-вывода при увеличении файла
+     */
+    @Override
+    public void add(int index, E element) {
+        ensureOpen();
+        checkIndexRange(index);
+        insert(index, element);
+    }
+
+    private void insert(int index, E element) {
+        int length = codec.encodedLength(element);
+        ensureCapacityInternal(size + 1, (long) dataLength + length);
+
+        int position = start(index);
+        moveData(position, position + length, dataLength - position);
+        if (width == 0) {
+            for (int i = size; i > index; i--) {
+                setEnd(i, end(i - 1) + length);
+            }
+            setEnd(index, position + length);
+        }
+        encodeAt(position, element);
+        size++;
+        dataLength += length;
+        writeHeader();
+    }
+
+    /**
+     * Возвращает элемент из списка по его индексу, декодируя его из файла.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public E get(int index) {
+        ensureOpen();
+        checkIndexRange(index);
+        return decodeAt(index);
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public int indexOf(E element) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(decodeAt(i), element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        ensureOpen();
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(decodeAt(i), element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу. Сдвигает все элементы,
+     * следующие за удаляемым, на одну позицию влево.
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void remove(int index) {
+        ensureOpen();
+        checkIndexRange(index);
+
+        int position = start(index);
+        int length = end(index) - position;
+        moveData(position + length, position, dataLength - position - length);
+        if (width == 0) {
+            for (int i = index; i < size - 1; i++) {
+                setEnd(i, end(i + 1) - length);
+            }
+        }
+        size--;
+        dataLength -= length;
+        writeHeader();
+    }
+
+    /**
+     * Удаляет перый элемент из списка, соответсвующий переданному элементу, в случае
+     * его наличия. В случае отсутствия такого элемента список не изменяется.
+     *
+     * @param element жлемент, который необходимо удалить из списка
+     * @return {@code true} если список содержит указанный элемент
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public boolean remove(E element) {
+        int index = indexOf(element);
+        if (index != -1) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию. В случае
+     * отсуствия таких элементов список не изменяется. Условие вычисляется для всех
+     * элементов до изменения списка, после чего оставшиеся элементы сдвигаются за один проход.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        if (filter == null)
+            throw new NullPointerException();
+        ensureOpen();
+
+        long[] removed = null;
+        for (int i = 0; i < size; i++) {
+            if (filter.test(decodeAt(i))) {
+                if (removed == null) {
+                    removed = new long[((size - 1) >> 6) + 1];
+                }
+                removed[i >> 6] |= 1L << i;
+            }
+        }
+        if (removed == null) {
+            return;
+        }
+
+        int newSize = 0;
+        int newDataLength = 0;
+        for (int i = 0; i < size; i++) {
+            if ((removed[i >> 6] & (1L << i)) == 0) {
+                int position = start(i);
+                int length = end(i) - position;
+                moveData(position, newDataLength, length);
+                newDataLength += length;
+                if (width == 0) {
+                    setEnd(newSize, newDataLength);
+                }
+                newSize++;
+            }
+        }
+        size = newSize;
+        dataLength = newDataLength;
+        writeHeader();
+    }
+
+    @Override
+    public void removeRange(int begin, int end) {
+        ensureOpen();
+        checkRange(begin, end);
+        if (begin == end) {
+            return;
+        }
+
+        int position = start(begin);
+        int length = end(end - 1) - position;
+        moveData(position + length, position, dataLength - position - length);
+        if (width == 0) {
+            for (int i = end; i < size; i++) {
+                setEnd(i - (end - begin), end(i) - length);
+            }
+        }
+        size -= end - begin;
+        dataLength -= length;
+        writeHeader();
+    }
+
+    /**
+     * Удаляет все элементы из списка. Размер файла не изменяется.
+     *
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        size = 0;
+        dataLength = 0;
+        writeHeader();
+    }
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Сортирует список в соответствии с методом {@code compare} компаратора. Для сортировки
+     * все элементы декодируются во временный массив, который после сортировки записывается
+     * обратно в файл. Сортировка устойчива.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        ensureOpen();
+        Object[] elements = toArray(0, size);
+        Arrays.sort((E[]) elements, comparator);
+
+        int position = 0;
+        for (int i = 0; i < elements.length; i++) {
+            E element = (E) elements[i];
+            encodeAt(position, element);
+            position += codec.encodedLength(element);
+            if (width == 0) {
+                setEnd(i, position);
+            }
+        }
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList} в куче, включающий в себя элементы этого
+     * списка, расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public CustomList<E> subList(int begin, int end) {
+        return copyOfRange(begin, end);
+    }
+
+    /**
+     * Возвращает новый список {@code CustomArrayList} в куче, включающий в себя элементы этого
+     * списка, расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public CustomList<E> copyOfRange(int begin, int end) {
+        ensureOpen();
+        checkRange(begin, end);
+
+        CustomArrayList<E> copy = new CustomArrayList<>(end - begin);
+        copy.addAll((E[]) toArray(begin, end));
+        return copy;
+    }
+
+    /**
+     * Производит замену элемента списка с передаваемым индексом на передаваемый элемент.
+     * Если длина нового элемента отличается от длины заменяемого, следующие за ним
+     * элементы сдвигаются.
+     *
+     * @param index индекс заменяемого элемента
+     * @param element элемент, на который будет произведена замена
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     * @throws IllegalStateException если список закрыт или файл достиг максимального размера
+     * @throws UncheckedIOException в случае ошибки ввода-вывода при увеличении файла
+     */
+    @Override
+    public void set(int index, E element) {
+        ensureOpen();
+        checkIndexRange(index);
+
+        if (width > 0) {
+            fixedCodec.write(buffer, dataStart + index * width, element);
+            return;
+        }
+
+        int position = start(index);
+        int oldEnd = end(index);
+        int delta = codec.encodedLength(element) - (oldEnd - position);
+        if (delta != 0) {
+            ensureCapacityInternal(size, (long) dataLength + delta);
+            moveData(oldEnd, oldEnd + delta, dataLength - oldEnd);
+            for (int i = index; i < size; i++) {
+                setEnd(i, end(i) + delta);
+            }
+            dataLength += delta;
+            writeHeader();
+        }
+        encodeAt(position, element);
+    }
+
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        ensureOpen();
+        long minDataLength = width > 0 ? (long) minCapacity * width : dataLength;
+        ensureCapacityInternal(minCapacity, minDataLength);
+    }
+
+    /**
+     * Уменьшает файл до размера, необходимого для хранения текущих элементов.
+     *
+     * @throws IllegalStateException если список закрыт
+     * @throws UncheckedIOException в случае ошибки ввода-вывода
+     */
+    @Override
+    public void trimToSize() {
+        ensureOpen();
+        if (width == 0 && slots > size) {
+            int newDataStart = HEADER_SIZE + size * Integer.BYTES;
+            moveBytes(dataStart, newDataStart, dataLength);
+            slots = size;
+            dataStart = newDataStart;
+            writeHeader();
+        }
+        int newFileSize = dataStart + dataLength;
+        if (newFileSize < fileSize) {
+            try {
+                map(newFileSize);
+                channel.truncate(newFileSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Возвращает итератор по элементам этого списка в правильной последовательности.
+     * Элементы декодируются по мере обхода.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public Iterator<E> iterator() {
+        ensureOpen();
+        return new Iterator<E>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size;
+            }
+
+            @Override
+            public E next() {
+                ensureOpen();
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return decodeAt(currentIndex++);
+            }
+        };
+    }
+
+    /**
+     * Записывает на диск все изменения, сделанные в отображенном в память файле.
+     *
+     * @throws IllegalStateException если список закрыт
+     */
+    public void force() {
+        ensureOpen();
+        buffer.force();
+    }
+
+    /**
+     * Записывает изменения на диск и закрывает файл. После вызова любая операция над списком,
+     * кроме {@code size()} и повторного {@code close()}, выбрасывает {@code IllegalStateException}.
+     *
+     * @throws IOException в случае ошибки ввода-вывода
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        buffer.force();
+        buffer = null;
+        moveChunk = null;
+        channel.close();
+    }
+
+    /**
+     * Проверяет, закрыт ли список.
+     *
+     * @return {@code true}, если список закрыт
+     */
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomList<?> that)) return false;
+        if (size != that.size()) return false;
+        Iterator<?> iterator = that.iterator();
+        for (E element : this) {
+            if (!Objects.equals(element, iterator.next())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
+     * на основе содержимого спсика.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (E element : this) {
+            result = 31 * result + Objects.hashCode(element);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        if (isClosed()) return "[closed]";
+        if (size == 0) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(decodeAt(i));
+        }
+        return sb.append("]").toString();
+    }
+
+    private Object[] toArray(int begin, int end) {
+        Object[] elements = new Object[end - begin];
+        for (int i = begin; i < end; i++) {
+            elements[i - begin] = decodeAt(i);
+        }
+        return elements;
+    }
+
+    /**
+     * Возвращает смещение начала элемента относительно начала данных.
+     */
+    private int start(int index) {
+        if (width > 0) return index * width;
+        return index == 0 ? 0 : buffer.getInt(HEADER_SIZE + (index - 1) * Integer.BYTES);
+    }
+
+    /**
+     * Возвращает смещение конца элемента относительно начала данных.
+     */
+    private int end(int index) {
+        if (width > 0) return (index + 1) * width;
+        return buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+    }
+
+    private void setEnd(int index, int end) {
+        buffer.putInt(HEADER_SIZE + index * Integer.BYTES, end);
+    }
+
+    private E decodeAt(int index) {
+        if (width > 0) {
+            return fixedCodec.read(buffer, dataStart + index * width);
+        }
+        int position = start(index);
+        buffer.position(dataStart + position);
+        return codec.decode(buffer, end(index) - position);
+    }
+
+    private void encodeAt(int position, E element) {
+        if (width > 0) {
+            fixedCodec.write(buffer, dataStart + position, element);
+        } else {
+            buffer.position(dataStart + position);
+            codec.encode(element, buffer);
+        }
+    }
+
+    private void writeHeader() {
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putInt(SLOTS_OFFSET, slots);
+        buffer.putInt(DATA_LENGTH_OFFSET, dataLength);
+    }
+
+    /**
+     * Увеличивает таблицу смещений и область данных так, чтобы в списке помещалось
+     * {@code minSlots} элементов общей длиной {@code minDataLength} байт. Если таблица смещений
+     * увеличивается, данные сдвигаются к концу файла.
+     */
+    private void ensureCapacityInternal(int minSlots, long minDataLength) {
+        int newSlots = slots;
+        if (width == 0 && minSlots > slots) {
+            newSlots = (int) Math.min(Math.max((long) slots * 3 / 2 + 1, minSlots), Integer.MAX_VALUE);
+        }
+        long newDataStart = HEADER_SIZE + (long) newSlots * Integer.BYTES;
+        long dataCapacity = fileSize - dataStart;
+        long newDataCapacity = dataCapacity;
+        if (minDataLength > dataCapacity) {
+            newDataCapacity = Math.max(dataCapacity * 3 / 2 + 1, minDataLength);
+            if (newDataStart + newDataCapacity > Integer.MAX_VALUE) {
+                newDataCapacity = Math.max(Integer.MAX_VALUE - newDataStart, minDataLength);
+            }
+        }
+        long newFileSize = newDataStart + newDataCapacity;
+        if (newFileSize > Integer.MAX_VALUE)
+            throw new IllegalStateException("Capacity exceeded");
+
+        if (newFileSize != fileSize) {
+            try {
+                map((int) newFileSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (newDataStart != dataStart) {
+            moveBytes(dataStart, (int) newDataStart, dataLength);
+            slots = newSlots;
+            dataStart = (int) newDataStart;
+            writeHeader();
+        }
+    }
+
+    /**
+     * Отображает в память первые {@code size} байт файла, при необходимости увеличивая файл.
+     * Предыдущее отображение освобождается сборщиком мусора.
+     */
+    private void map(int size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        fileSize = size;
+    }
+
+    private void moveData(int from, int to, int length) {
+        moveBytes(dataStart + from, dataStart + to, length);
+    }
+
+    private void moveBytes(int from, int to, int length) {
+        if (moveChunk == null) {
+            moveChunk = new byte[ByteBuffers.MOVE_CHUNK_SIZE];
+        }
+        ByteBuffers.move(buffer, from, to, length, moveChunk);
+    }
+
+    private void ensureOpen() {
+        if (buffer == null)
+            throw new IllegalStateException("List is closed");
+    }
+
+    private void checkIndexRange(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private void checkRange(int begin, int end) {
+        if (begin < 0 || begin > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size));
+        if (end > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        if (begin > end) throw new IllegalArgumentException();
+    }
+}
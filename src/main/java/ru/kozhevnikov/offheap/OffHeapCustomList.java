@@ -0,0 +1,654 @@
+package ru.kozhevnikov.offheap;
+
+import ru.kozhevnikov.CustomList;
+import ru.kozhevnikov.codec.FixedWidthCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Реализация интерфейса {@code CustomList}, хранящая элементы вне кучи в прямом буфере
+ * {@code ByteBuffer}. Каждый элемент кодируется кодеком {@link FixedWidthCodec} в запись
+ * фиксированной длины, поэтому элемент с индексом {@code i} находится по смещению
+ * {@code i * codec.width()}. Класс {@code OffHeapCustomList} не является потокобезопасным.
+ *
+ * <p>Поскольку в куче хранится только сам буфер, количество элементов не влияет на работу
+ * сборщика мусора. Элементы декодируются только при обращении к ним, а {@link RecordView}
+ * позволяет читать отдельные поля записи вообще без создания объекта элемента.
+ *
+ * <p>По мере заполнения списка буфер заменяется буфером большего размера, в который одним
+ * вызовом копируются байты всех записей. Метод {@link #close()} освобождает ссылку на буфер,
+ * после чего любая операция над списком выбрасывает {@code IllegalStateException}; память
+ * прямого буфера возвращается системе при его сборке сборщиком мусора.
+ *
+ * <p>Объем списка ограничен размером одного буфера - {@code Integer.MAX_VALUE} байт.
+ * Методы {@link #subList(int, int)} и {@link #copyOfRange(int, int)} возвращают независимые
+ * копии, также хранящиеся вне кучи.
+ *
+ * @param <E> тип элементов в списке
+ *
+ * @author Kozhevnikov Valentin
+ * @see CustomList
+ * @see FixedWidthCodec
+ */
+public class OffHeapCustomList<E> implements CustomList<E>, AutoCloseable {
+    private final FixedWidthCodec<E> codec;
+    /**
+     * Длина одной записи в байтах
+     */
+    private final int width;
+    /**
+     * Максимальное количество записей, помещающихся в один буфер
+     */
+    private final int maxCapacity;
+    /**
+     * Буфер, содержащий записи, или {@code null}, если список закрыт
+     */
+    private ByteBuffer buffer;
+    /**
+     * Размер списка
+     */
+    private int size;
+    /**
+     * Количество записей, помещающихся в текущий буфер
+     */
+    private int capacity;
+    /**
+     * Вспомогательный массив для сдвига записей, создается при первой необходимости
+     */
+    private byte[] moveChunk;
+
+    /**
+     * Конструктор для создания пустого списка с вместимостью 10.
+     *
+     * @param codec кодек, кодирующий элементы в записи фиксированной длины
+     * @throws NullPointerException если кодек равен {@code null}
+     */
+    public OffHeapCustomList(FixedWidthCodec<E> codec) {
+        this(codec, 10);
+    }
+
+    /**
+     * Конструктор для создания пустого списка с указанной вместимостью.
+     *
+     * @param codec кодек, кодирующий элементы в записи фиксированной длины
+     * @param initCapacity начальная вместимость списка
+     * @throws NullPointerException если кодек равен {@code null}
+     * @throws IllegalArgumentException в случае передачи отрицательной вместимости,
+     * вместимости, не помещающейся в один буфер, или кодека с неположительной длиной записи
+     */
+    public OffHeapCustomList(FixedWidthCodec<E> codec, int initCapacity) {
+        this.codec = Objects.requireNonNull(codec);
+        this.width = codec.width();
+        if (width <= 0)
+            throw new IllegalArgumentException("Illegal record width");
+        this.maxCapacity = Integer.MAX_VALUE / width;
+        if (initCapacity < 0 || initCapacity > maxCapacity)
+            throw new IllegalArgumentException("Illegal capacity");
+
+        capacity = initCapacity;
+        buffer = allocate(capacity);
+    }
+
+    /**
+     * Добавляет передаваемый элемент в конец списка.
+     *
+     * @param element элемент, добавляемый в список
+     * @throws IllegalStateException если список закрыт или достиг максимального размера
+     */
+    @Override
+    public void add(E element) {
+        ensureOpen();
+        ensureCapacityInternal(size + 1);
+        codec.write(buffer, size * width, element);
+        size++;
+    }
+
+    /**
+     * Добавляет передаваемый элемент в указанное место списка по индексу.
+     * Сдвигает все записи, следующие за указанной, на одну позицию вправо.
+     *
+     * @param index индекс, по которому элемент будет добавлен в список
+     * @param element элемент, добавляемый в список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     * @throws IllegalStateException если список закрыт или достиг максимального размера
+     */
+    @Override
+    public void add(int index, E element) {
+        ensureOpen();
+        checkIndexRange(index);
+
+        ensureCapacityInternal(size + 1);
+        moveBytes(index * width, (index + 1) * width, (size - index) * width);
+        codec.write(buffer, index * width, element);
+        size++;
+    }
+
+    @Override
+    public void addAll(int index, CustomList<? extends E> list) {
+        Object[] elements = new Object[list.size()];
+        int i = 0;
+        for (E element : list) {
+            elements[i++] = element;
+        }
+        insertAll(index, elements);
+    }
+
+    @Override
+    public void addAll(int index, Collection<? extends E> collection) {
+        insertAll(index, collection.toArray());
+    }
+
+    @Override
+    public void addAll(int index, E[] elements) {
+        insertAll(index, elements);
+    }
+
+    private void insertAll(int index, Object[] elements) {
+        ensureOpen();
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+        if (elements.length == 0) {
+            return;
+        }
+
+        ensureCapacityInternal(size + elements.length);
+        moveBytes(index * width, (index + elements.length) * width, (size - index) * width);
+        for (int i = 0; i < elements.length; i++) {
+            codec.write(buffer, (index + i) * width, (E) elements[i]);
+        }
+        size += elements.length;
+    }
+
+    /**
+     * Возвращает элемент из списка по его индексу, декодируя соответствующую запись.
+     *
+     * @param index индекс возвращаемоего элемента
+     * @return искомый элемент списка
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public E get(int index) {
+        ensureOpen();
+        checkIndexRange(index);
+
+        return codec.read(buffer, index * width);
+    }
+
+    /**
+     * Возвращает индекс певрго элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public int indexOf(E element) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(codec.read(buffer, i * width), element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, соответсвующего переданному элементу,
+     * или -1 в случае его отсутствия.
+     *
+     * @param element элемент списка, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public int lastIndexOf(E element) {
+        ensureOpen();
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(codec.read(buffer, i * width), element)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу. Сдвигает все записи,
+     * следующие за удаляемой, на одну позицию влево.
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void remove(int index) {
+        ensureOpen();
+        checkIndexRange(index);
+
+        moveBytes((index + 1) * width, index * width, (size - index - 1) * width);
+        size--;
+    }
+
+    /**
+     * Удаляет перый элемент из списка, соответсвующий переданному элементу, в случае
+     * его наличия. В случае отсутствия такого элемента список не изменяется.
+     *
+     * @param element жлемент, который необходимо удалить из списка
+     * @return {@code true} если список содержит указанный элемент
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public boolean remove(E element) {
+        int index = indexOf(element);
+        if (index != -1) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию. В случае
+     * отсуствия таких элементов список не изменяется. Условие вычисляется для всех
+     * элементов до изменения списка, после чего оставшиеся записи сдвигаются за один проход.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void removeIf(Predicate<? super E> filter) {
+        if (filter == null)
+            throw new NullPointerException();
+        ensureOpen();
+
+        long[] removed = null;
+        for (int i = 0; i < size; i++) {
+            if (filter.test(codec.read(buffer, i * width))) {
+                if (removed == null) {
+                    removed = new long[((size - 1) >> 6) + 1];
+                }
+                removed[i >> 6] |= 1L << i;
+            }
+        }
+        if (removed == null) {
+            return;
+        }
+
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            if ((removed[i >> 6] & (1L << i)) == 0) {
+                if (newSize != i) {
+                    moveBytes(i * width, newSize * width, width);
+                }
+                newSize++;
+            }
+        }
+        size = newSize;
+    }
+
+    @Override
+    public void removeRange(int begin, int end) {
+        ensureOpen();
+        checkRange(begin, end);
+
+        moveBytes(end * width, begin * width, (size - end) * width);
+        size -= end - begin;
+    }
+
+    /**
+     * Удаляет все элементы из списка. Буфер сохраняется для повторного использования.
+     *
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        size = 0;
+    }
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Сортирует список в соответствии с методом {@code compare} компаратора. Для сортировки
+     * все элементы декодируются во временный массив, который после сортировки записывается
+     * обратно в буфер. Сортировка устойчива.
+     *
+     * @param comparator объекта класса, реализующего функциональный интерфейс {@code Comparator}
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        ensureOpen();
+        Object[] elements = new Object[size];
+        for (int i = 0; i < size; i++) {
+            elements[i] = codec.read(buffer, i * width);
+        }
+
+        Arrays.sort((E[]) elements, comparator);
+
+        for (int i = 0; i < size; i++) {
+            codec.write(buffer, i * width, (E) elements[i]);
+        }
+    }
+
+    /**
+     * Возвращает новый список {@code OffHeapCustomList}, включающий в себя копии записей этого списка,
+     * расположенных от {@code begin} включительно до {@code end}. Возвращаемый список не связан
+     * с этим списком и должен закрываться отдельно.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public OffHeapCustomList<E> subList(int begin, int end) {
+        return copyOfRange(begin, end);
+    }
+
+    /**
+     * Возвращает новый список {@code OffHeapCustomList}, включающий в себя копии записей этого списка,
+     * расположенных от {@code begin} включительно до {@code end}. Записи копируются одним вызовом
+     * без декодирования.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public OffHeapCustomList<E> copyOfRange(int begin, int end) {
+        ensureOpen();
+        checkRange(begin, end);
+
+        OffHeapCustomList<E> copy = new OffHeapCustomList<>(codec, end - begin);
+        copy.buffer.put(0, buffer, begin * width, (end - begin) * width);
+        copy.size = end - begin;
+        return copy;
+    }
+
+    /**
+     * Производит замену элемента списка с передаваемым индексом на передаваемый элемент.
+     *
+     * @param index индекс заменяемого элемента
+     * @param element элемент, на который будет произведена замена
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public void set(int index, E element) {
+        ensureOpen();
+        checkIndexRange(index);
+
+        codec.write(buffer, index * width, element);
+    }
+
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        ensureOpen();
+        if (minCapacity > capacity) {
+            reallocate(minCapacity);
+        }
+    }
+
+    @Override
+    public void trimToSize() {
+        ensureOpen();
+        if (size < capacity) {
+            reallocate(size);
+        }
+    }
+
+    /**
+     * Возвращает итератор по элементам этого списка в правильной последовательности.
+     * Элементы декодируются по мере обхода.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     * @throws IllegalStateException если список закрыт
+     */
+    @Override
+    public Iterator<E> iterator() {
+        ensureOpen();
+        return new Iterator<E>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size;
+            }
+
+            @Override
+            public E next() {
+                ensureOpen();
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return codec.read(buffer, width * currentIndex++);
+            }
+        };
+    }
+
+    /**
+     * Возвращает объект для чтения полей записей этого списка без декодирования элементов.
+     * Смещения полей внутри записи определяются используемым кодеком.
+     *
+     * @return объект для чтения полей записей
+     * @throws IllegalStateException если список закрыт
+     */
+    public RecordView recordView() {
+        ensureOpen();
+        return new RecordView();
+    }
+
+    /**
+     * Освобождает буфер, содержащий записи. После вызова любая операция над списком, кроме
+     * {@code size()} и повторного {@code close()}, выбрасывает {@code IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+        moveChunk = null;
+        size = 0;
+        capacity = 0;
+    }
+
+    /**
+     * Проверяет, закрыт ли список.
+     *
+     * @return {@code true}, если список закрыт
+     */
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code CustomList} и содержит те же элементы в том же порядке, что и этот список.
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomList<?> that)) return false;
+        if (size != that.size()) return false;
+        Iterator<?> iterator = that.iterator();
+        for (E element : this) {
+            if (!Objects.equals(element, iterator.next())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
+     * на основе содержимого спсика.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (E element : this) {
+            result = 31 * result + Objects.hashCode(element);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        if (isClosed()) return "[closed]";
+        if (size == 0) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(codec.read(buffer, i * width));
+        }
+        return sb.append("]").toString();
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * width).order(ByteOrder.nativeOrder());
+    }
+
+    private void ensureCapacityInternal(int minCapacity) {
+        if (minCapacity > capacity) {
+            if (minCapacity > maxCapacity || minCapacity < 0)
+                throw new IllegalStateException("Capacity exceeded");
+            long grown = (long) capacity * 3 / 2 + 1;
+            reallocate((int) Math.min(Math.max(grown, minCapacity), maxCapacity));
+        }
+    }
+
+    private void reallocate(int newCapacity) {
+        if (newCapacity > maxCapacity)
+            throw new IllegalStateException("Capacity exceeded");
+        ByteBuffer newBuffer = allocate(newCapacity);
+        newBuffer.put(0, buffer, 0, size * width);
+        buffer = newBuffer;
+        capacity = newCapacity;
+    }
+
+    private void moveBytes(int from, int to, int length) {
+        if (moveChunk == null) {
+            moveChunk = new byte[ByteBuffers.MOVE_CHUNK_SIZE];
+        }
+        ByteBuffers.move(buffer, from, to, length, moveChunk);
+    }
+
+    private void ensureOpen() {
+        if (buffer == null)
+            throw new IllegalStateException("List is closed");
+    }
+
+    private void checkIndexRange(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private void checkRange(int begin, int end) {
+        if (begin < 0 || begin > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", begin, size));
+        if (end > size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        if (begin > end) throw new IllegalArgumentException();
+    }
+
+    /**
+     * Объект для чтения полей записей списка без декодирования элементов (flyweight).
+     * Один экземпляр можно последовательно переводить на разные записи методом {@link #at(int)}.
+     */
+    public class RecordView {
+        /**
+         * Смещение текущей записи от начала буфера
+         */
+        private int base;
+
+        private RecordView() {
+        }
+
+        /**
+         * Переводит объект на запись с указанным индексом.
+         *
+         * @param index индекс записи
+         * @return этот объект
+         * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+         * размера списка
+         * @throws IllegalStateException если список закрыт
+         */
+        public RecordView at(int index) {
+            ensureOpen();
+            checkIndexRange(index);
+            base = index * width;
+            return this;
+        }
+
+        public byte getByte(int fieldOffset) {
+            return buffer.get(fieldPosition(fieldOffset, Byte.BYTES));
+        }
+
+        public short getShort(int fieldOffset) {
+            return buffer.getShort(fieldPosition(fieldOffset, Short.BYTES));
+        }
+
+        public char getChar(int fieldOffset) {
+            return buffer.getChar(fieldPosition(fieldOffset, Character.BYTES));
+        }
+
+        public int getInt(int fieldOffset) {
+            return buffer.getInt(fieldPosition(fieldOffset, Integer.BYTES));
+        }
+
+        public long getLong(int fieldOffset) {
+            return buffer.getLong(fieldPosition(fieldOffset, Long.BYTES));
+        }
+
+        public float getFloat(int fieldOffset) {
+            return buffer.getFloat(fieldPosition(fieldOffset, Float.BYTES));
+        }
+
+        public double getDouble(int fieldOffset) {
+            return buffer.getDouble(fieldPosition(fieldOffset, Double.BYTES));
+        }
+
+        private int fieldPosition(int fieldOffset, int fieldWidth) {
+            ensureOpen();
+            if (fieldOffset < 0 || fieldOffset + fieldWidth > width)
+                throw new IndexOutOfBoundsException(
+                        String.format("Field offset %d out of bounds for record width %d", fieldOffset, width));
+            return base + fieldOffset;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.kozhevnikov.primitive;
+
+/**
+ * Функция сравнения двух значений типа {@code double}, аналог {@code Comparator} без упаковки.
+ *
+ * @author Kozhevnikov Valentin
+ * @see DoubleCustomList#sort(DoubleComparator)
+ */
+@FunctionalInterface
+public interface DoubleComparator {
+    /**
+     * Сравнивает два значения.
+     *
+     * @param first первое значение
+     * @param second второе значение
+     * @return отрицательное число, ноль или положительное число, если первое значение
+     * соответственно меньше, равно или больше второго
+     */
+    int compare(double first, double second);
+}
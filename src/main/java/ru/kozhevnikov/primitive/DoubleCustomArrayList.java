@@ -0,0 +1,435 @@
+package ru.kozhevnikov.primitive;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoublePredicate;
+
+/**
+ * Реализация интерфейса {@code DoubleCustomList} на основе массива {@code double[]}. В отличие от
+ * {@code CustomArrayList<Double>} не создает объект-обертку для каждого элемента, благодаря чему
+ * занимает в несколько раз меньше памяти и не требует перехода по ссылке при чтении элемента.
+ * Класс {@code DoubleCustomArrayList} не является потокобезопасным.
+ *
+ * <p>У каждого экземпляра {@code DoubleCustomArrayList} есть вместимость - размер
+ * массива, позволяющего хранить элементы в списке. Вместимость не может быть меньше
+ * размера списка. По мере заполнения списка до предельного значения вместимость автоматически
+ * увеличивается.
+ *
+ * @author Kozhevnikov Valentin
+ * @see    DoubleCustomList
+ * @see    ru.kozhevnikov.CustomArrayList
+ */
+public class DoubleCustomArrayList implements DoubleCustomList {
+    /**
+     * Размер участка списка, начиная с которого сортировка слиянием переходит на сортировку вставками
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    /**
+     * Размер передаваемого списка, до которого {@link #containsAll} ищет каждое значение
+     * отдельным проходом по массиву
+     */
+    private static final int CONTAINS_ALL_SCAN_THRESHOLD = 8;
+    /**
+     * Размер списка
+     */
+    private int size;
+    /**
+     * Массив, содержащий элементы списка
+     */
+    private double[] elementData;
+
+    /**
+     * Конструктор для создания пустого списка с вместимостью 10.
+     */
+    public DoubleCustomArrayList() {
+        elementData = new double[10];
+    }
+
+    /**
+     * Конструктор для создания пустого списка с указанной вместимостью.
+     *
+     * @param initCapacity начальная вместимость списка
+     * @throws IllegalArgumentException в случае передачи отрицательной
+     * вместимости
+     */
+    public DoubleCustomArrayList(int initCapacity) {
+        if (initCapacity < 0)
+            throw new IllegalArgumentException("Illegal capacity");
+
+        elementData = new double[initCapacity];
+    }
+
+    private DoubleCustomArrayList(double[] elementData) {
+        this.elementData = elementData;
+        this.size = elementData.length;
+    }
+
+    /**
+     * Добавляет передаваемое значение в конец списка.
+     *
+     * @param value значение, добавляемое в список
+     */
+    @Override
+    public void add(double value) {
+        if (size == elementData.length) {
+            increaseCapacity();
+        }
+        elementData[size++] = value;
+    }
+
+    /**
+     * Добавляет передаваемое значение в указанное место списка по индексу.
+     * Сдвигает все элементы, следующие за указанным, на одну позицию вправо.
+     *
+     * @param index индекс, по которому значение будет добавлено в список
+     * @param value значение, добавляемое в список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void add(int index, double value) {
+        checkIndexRange(index);
+
+        if (size == elementData.length) {
+            increaseCapacity();
+        }
+        System.arraycopy(elementData, index, elementData, index + 1, size - index);
+        elementData[index] = value;
+        size++;
+    }
+
+    /**
+     * Возвращает значение из списка по его индексу.
+     *
+     * @param index индекс возвращаемого значения
+     * @return искомое значение
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public double get(int index) {
+        checkIndexRange(index);
+
+        return elementData[index];
+    }
+
+    /**
+     * Возвращает индекс первого элемента списка, равного переданному значению,
+     * или -1 в случае его отсутствия.
+     *
+     * @param value значение, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int indexOf(double value) {
+        return ValueScanner.DEFAULT.indexOf(elementData, 0, size, value);
+    }
+
+    /**
+     * Возвращает индекс последнего элемента списка, равного переданному значению,
+     * или -1 в случае его отсутствия.
+     *
+     * @param value значение, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    @Override
+    public int lastIndexOf(double value) {
+        return ValueScanner.DEFAULT.lastIndexOf(elementData, 0, size, value);
+    }
+
+    /**
+     * Возвращает количество элементов списка, равных переданному значению.
+     *
+     * @param value значение, количество вхождений которого необходимо подсчитать
+     * @return количество элементов, равных значению
+     */
+    @Override
+    public int count(double value) {
+        return ValueScanner.DEFAULT.count(elementData, 0, size, value);
+    }
+
+    /**
+     * Проверяет, содержит ли список все значения передаваемого списка. Для небольшого
+     * передаваемого списка каждое значение ищется отдельным проходом по массиву, для большого -
+     * двоичным поиском в отсортированной копии этого списка.
+     *
+     * @param list список значений, наличие которых необходимо проверить
+     * @return {@code true}, если этот список содержит каждое значение передаваемого списка
+     * @throws NullPointerException если передаваемый список равен {@code null}
+     */
+    @Override
+    public boolean containsAll(DoubleCustomList list) {
+        double[] values = list.toArray();
+        if (values.length <= CONTAINS_ALL_SCAN_THRESHOLD) {
+            for (double value : values) {
+                if (indexOf(value) == -1) return false;
+            }
+            return true;
+        }
+        double[] sorted = Arrays.copyOf(elementData, size);
+        Arrays.sort(sorted);
+        for (double value : values) {
+            if (Arrays.binarySearch(sorted, value) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу. Сдвигает все элементы,
+     * следующие за удаляемым, на одну позицию влево.
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    @Override
+    public void remove(int index) {
+        checkIndexRange(index);
+
+        System.arraycopy(elementData, index + 1, elementData, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Удаляет первый элемент списка, равный переданному значению, в случае
+     * его наличия. В случае отсутствия такого элемента список не изменяется.
+     *
+     * @param value значение, которое необходимо удалить из списка
+     * @return {@code true} если список содержал указанное значение
+     */
+    @Override
+    public boolean removeValue(double value) {
+        int index = indexOf(value);
+        if (index != -1) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию. В случае
+     * отсуствия таких элементов список не изменяется. Оставшиеся элементы сдвигаются
+     * за один проход по массиву.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     */
+    @Override
+    public void removeIf(DoublePredicate filter) {
+        if (filter == null)
+            throw new NullPointerException();
+
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            double value = elementData[i];
+            if (!filter.test(value)) {
+                elementData[newSize++] = value;
+            }
+        }
+        size = newSize;
+    }
+
+    /**
+     * Удаляет все элементы из списка.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Сортирует список по возрастанию значений с помощью {@code Arrays.sort}.
+     */
+    @Override
+    public void sort() {
+        Arrays.sort(elementData, 0, size);
+    }
+
+    /**
+     * Сортирует список с помощью алгоритма сортировки слиянием в соответствии с методом
+     * {@code compare} передаваемого компаратора. Короткие участки списка сортируются вставками.
+     * Сортировка устойчива.
+     *
+     * @param comparator компаратор, задающий порядок элементов
+     */
+    @Override
+    public void sort(DoubleComparator comparator) {
+        double[] buffer = Arrays.copyOf(elementData, size);
+        mergeSort(buffer, elementData, 0, size, comparator);
+    }
+
+    private static void mergeSort(double[] src, double[] dest, int low, int high, DoubleComparator comparator) {
+        int length = high - low;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                double value = dest[i];
+                int j = i - 1;
+                while (j >= low && comparator.compare(dest[j], value) > 0) {
+                    dest[j + 1] = dest[j];
+                    j--;
+                }
+                dest[j + 1] = value;
+            }
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, comparator);
+        mergeSort(dest, src, mid, high, comparator);
+
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, length);
+            return;
+        }
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && comparator.compare(src[p], src[q]) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    /**
+     * Возвращает новый список, включающий в себя элементы списка, на котором вызывает данный метод,
+     * расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    @Override
+    public DoubleCustomArrayList subList(int begin, int end) {
+        checkIndexRange(begin);
+        if (end > size) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", end, size));
+        }
+        if (begin > end) throw new IllegalArgumentException();
+
+        return new DoubleCustomArrayList(Arrays.copyOfRange(elementData, begin, end));
+    }
+
+    /**
+     * Производит замену элемента списка с передаваемым индексом на передаваемое значение.
+     *
+     * @param index индекс заменяемого элемента
+     * @param value значение, на которое будет произведена замена
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    @Override
+    public void set(int index, double value) {
+        checkIndexRange(index);
+
+        elementData[index] = value;
+    }
+
+    /**
+     * Возвращает массив, содержащий все элементы списка в правильной последовательности.
+     *
+     * @return новый массив с элементами списка
+     */
+    @Override
+    public double[] toArray() {
+        return Arrays.copyOf(elementData, size);
+    }
+
+    /**
+     * Возвращает итератор по элементам этого списка, не выполняющий упаковку значений
+     * при использовании метода {@code nextDouble()}.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     */
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return elementData[currentIndex++];
+            }
+        };
+    }
+
+    private void checkIndexRange(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, size));
+    }
+
+    private void increaseCapacity() {
+        int capacity = (elementData.length * 3) / 2 + 1;
+        elementData = Arrays.copyOf(elementData, capacity);
+    }
+
+    /**
+     * Сравнивает передаваемый объект с этим списком на равенство.
+     * Возвращается true только в том случае, когда указанный объект является
+     * списком {@code DoubleCustomArrayList} и содержит те же значения в том же порядке.
+     *
+     * @param o объект для сравнения с этим списком
+     * @return true, если указанный объект равен этому списку, в противном случае - false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DoubleCustomArrayList that = (DoubleCustomArrayList) o;
+        return Arrays.equals(elementData, 0, size, that.elementData, 0, that.size);
+    }
+
+    /**
+     * Возвращает хэш-код для этого списка. Хэш-код рассчитывается
+     * на основе содержимого списка.
+     *
+     * @return хэш-код для этого списка
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Double.hashCode(elementData[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает строковое представление этого списка. Строка содержит
+     * элементы списка в порядке их добавления, заключенные в квадратные
+     * скобки ("[]") и разделенные запятыми.
+     *
+     * @return строковое представление списка
+     */
+    @Override
+    public String toString() {
+        if (size == 0) return "[]";
+        StringBuilder sb = new StringBuilder();
+        sb.append('[').append(elementData[0]);
+        for (int i = 1; i < size; i++) {
+            sb.append(", ").append(elementData[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
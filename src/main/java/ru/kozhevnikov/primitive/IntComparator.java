@@ -0,0 +1,20 @@
+package ru.kozhevnikov.primitive;
+
+/**
+ * Функция сравнения двух значений типа {@code int}, аналог {@code Comparator} без упаковки.
+ *
+ * @author Kozhevnikov Valentin
+ * @see IntCustomList#sort(IntComparator)
+ */
+@FunctionalInterface
+public interface IntComparator {
+    /**
+     * Сравнивает два значения.
+     *
+     * @param first первое значение
+     * @param second второе значение
+     * @return отрицательное число, ноль или положительное число, если первое значение
+     * соответственно меньше, равно или больше второго
+     */
+    int compare(int first, int second);
+}
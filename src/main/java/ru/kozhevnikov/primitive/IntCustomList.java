@@ -0,0 +1,196 @@
+package ru.kozhevnikov.primitive;
+
+import java.util.PrimitiveIterator;
+import java.util.function.IntPredicate;
+
+/**
+ * Упорядоченный список примитивных значений типа {@code int}. Аналог интерфейса {@code CustomList},
+ * не использующий упаковку элементов: значения хранятся, передаются и возвращаются как {@code int}.
+ *
+ * <p>Поскольку индекс элемента и само значение могут иметь один и тот же тип, удаление по значению
+ * вынесено в отдельный метод {@link #removeValue(int)}.
+ *
+ * @author Kozhevnikov Valentin
+ * @see IntCustomArrayList
+ * @see ru.kozhevnikov.CustomList
+ */
+public interface IntCustomList {
+    /**
+     * Добавляет передаваемое значение в конец списка.
+     *
+     * @param value значение, добавляемое в список
+     */
+    void add(int value);
+
+    /**
+     * Добавляет передаваемое значение в указанное место списка по индексу.
+     * Сдвигает все элементы, следующие за указанным, на одну позицию вправо.
+     *
+     * @param index индекс, по которому значение будет добавлено в список
+     * @param value значение, добавляемое в список
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    void add(int index, int value);
+
+    /**
+     * Возвращает значение из списка по его индексу.
+     *
+     * @param index индекс возвращаемого значения
+     * @return искомое значение
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    int get(int index);
+
+    /**
+     * Возвращает индекс первого элемента списка, равного переданному значению,
+     * или -1 в случае его отсутствия.
+     *
+     * @param value значение, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    int indexOf(int value);
+
+    /**
+     * Возвращает индекс последнего элемента списка, равного переданному значению,
+     * или -1 в случае его отсутствия.
+     *
+     * @param value значение, индекс которого мы хотим получить
+     * @return индекс элемента списка
+     */
+    default int lastIndexOf(int value) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Проверяет, содержит ли список элемент, равный переданному значению.
+     *
+     * @param value значение, наличие которого в списке необходимо проверить
+     * @return {@code true}, если список содержит указанное значение
+     */
+    default boolean contains(int value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Возвращает количество элементов списка, равных переданному значению.
+     *
+     * @param value значение, количество вхождений которого необходимо подсчитать
+     * @return количество элементов, равных значению
+     */
+    default int count(int value) {
+        int count = 0;
+        for (int i = 0; i < size(); i++) {
+            if (get(i) == value) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Проверяет, содержит ли список все значения передаваемого списка.
+     *
+     * @param list список значений, наличие которых необходимо проверить
+     * @return {@code true}, если этот список содержит каждое значение передаваемого списка
+     * @throws NullPointerException если передаваемый список равен {@code null}
+     */
+    default boolean containsAll(IntCustomList list) {
+        for (int value : list.toArray()) {
+            if (!contains(value)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет элемент из списка по его индексу. Сдвигает все элементы,
+     * следующие за удаляемым, на одну позицию влево.
+     *
+     * @param index индекс удаляемого элемента
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше
+     * размера списка
+     */
+    void remove(int index);
+
+    /**
+     * Удаляет первый элемент списка, равный переданному значению, в случае
+     * его наличия. В случае отсутствия такого элемента список не изменяется.
+     *
+     * @param value значение, которое необходимо удалить из списка
+     * @return {@code true} если список содержал указанное значение
+     */
+    boolean removeValue(int value);
+
+    /**
+     * Удаляет элементы из списка, удовлетворяющие передаваемому условию. В случае
+     * отсуствия таких элементов список не изменяется.
+     *
+     * @param filter условие, в соответствии с которым элементы удаляются из списка
+     * @throws NullPointerException если передаваемое условие равно {@code null}
+     */
+    void removeIf(IntPredicate filter);
+
+    /**
+     * Удаляет все элементы из списка.
+     */
+    void clear();
+
+    /**
+     * Возвращает размер списка.
+     *
+     * @return размер списка
+     */
+    int size();
+
+    /**
+     * Сортирует список по возрастанию значений.
+     */
+    void sort();
+
+    /**
+     * Сортирует список в соответствии с методом {@code compare} передаваемого компаратора.
+     * Сортировка устойчива: равные с точки зрения компаратора элементы сохраняют свой
+     * взаимный порядок.
+     *
+     * @param comparator компаратор, задающий порядок элементов
+     */
+    void sort(IntComparator comparator);
+
+    /**
+     * Возвращает новый список, включающий в себя элементы списка, на котором вызывает данный метод,
+     * расположенные от {@code begin} включительно до {@code end}.
+     *
+     * @param begin начальный индекс
+     * @param end конечный индекс
+     * @throws IndexOutOfBoundsException если индексы отрицательные или больше
+     * размера списка
+     * @throws IllegalArgumentException если начальный индекс больше конечного
+     */
+    IntCustomList subList(int begin, int end);
+
+    /**
+     * Производит замену элемента списка с передаваемым индексом на передаваемое значение.
+     *
+     * @param index индекс заменяемого элемента
+     * @param value значение, на которое будет произведена замена
+     * @throws IndexOutOfBoundsException если индекс отрицательный или не меньше размера списка
+     */
+    void set(int index, int value);
+
+    /**
+     * Возвращает итератор по элементам этого списка, не выполняющий упаковку значений
+     * при использовании метода {@code nextInt()}.
+     *
+     * @return итератор по элементам этого списка в правильной последовательности
+     */
+    PrimitiveIterator.OfInt iterator();
+
+    /**
+     * Возвращает массив, содержащий все элементы списка в правильной последовательности.
+     *
+     * @return новый массив с элементами списка
+     */
+    int[] toArray();
+}
@@ -0,0 +1,20 @@
+package ru.kozhevnikov.primitive;
+
+/**
+ * Функция сравнения двух значений типа {@code long}, аналог {@code Comparator} без упаковки.
+ *
+ * @author Kozhevnikov Valentin
+ * @see LongCustomList#sort(LongComparator)
+ */
+@FunctionalInterface
+public interface LongComparator {
+    /**
+     * Сравнивает два значения.
+     *
+     * @param first первое значение
+     * @param second второе значение
+     * @return отрицательное число, ноль или положительное число, если первое значение
+     * соответственно меньше, равно или больше второго
+     */
+    int compare(long first, long second);
+}
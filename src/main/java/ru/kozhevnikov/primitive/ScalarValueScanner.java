@@ -0,0 +1,84 @@
+package ru.kozhevnikov.primitive;
+
+/**
+ * Скалярная реализация {@link ValueScanner}, сравнивающая значения по одному.
+ *
+ * @author Kozhevnikov Valentin
+ */
+final class ScalarValueScanner implements ValueScanner {
+
+    @Override
+    public int indexOf(int[] a, int begin, int end, int value) {
+        for (int i = begin; i < end; i++) {
+            if (a[i] == value) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(int[] a, int begin, int end, int value) {
+        for (int i = end - 1; i >= begin; i--) {
+            if (a[i] == value) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int count(int[] a, int begin, int end, int value) {
+        int count = 0;
+        for (int i = begin; i < end; i++) {
+            if (a[i] == value) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int indexOf(long[] a, int begin, int end, long value) {
+        for (int i = begin; i < end; i++) {
+            if (a[i] == value) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(long[] a, int begin, int end, long value) {
+        for (int i = end - 1; i >= begin; i--) {
+            if (a[i] == value) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int count(long[] a, int begin, int end, long value) {
+        int count = 0;
+        for (int i = begin; i < end; i++) {
+            if (a[i] == value) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int indexOf(double[] a, int begin, int end, double value) {
+        for (int i = begin; i < end; i++) {
+            if (Double.compare(a[i], value) == 0) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(double[] a, int begin, int end, double value) {
+        for (int i = end - 1; i >= begin; i--) {
+            if (Double.compare(a[i], value) == 0) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int count(double[] a, int begin, int end, double value) {
+        int count = 0;
+        for (int i = begin; i < end; i++) {
+            if (Double.compare(a[i], value) == 0) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.kozhevnikov.primitive;
+
+/**
+ * Поиск значений в участке массива примитивных значений для списков этого пакета.
+ * Значения типа {@code double} сравниваются так же, как методом {@code Double.compare}:
+ * все {@code NaN} равны друг другу, а {@code 0.0} и {@code -0.0} различаются.
+ *
+ * <p>Реализация выбирается один раз при загрузке класса. Если модуль {@code jdk.incubator.vector}
+ * доступен (JVM запущена с параметром {@code --add-modules jdk.incubator.vector}), используется
+ * {@link VectorValueScanner}, сравнивающий несколько значений одной векторной инструкцией.
+ * Иначе, а также если задано системное свойство {@code ru.kozhevnikov.vector=false},
+ * используется скалярный {@link ScalarValueScanner}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+interface ValueScanner {
+    /**
+     * Скалярная реализация, доступная всегда
+     */
+    ValueScanner SCALAR = new ScalarValueScanner();
+    /**
+     * Реализация, используемая списками
+     */
+    ValueScanner DEFAULT = load();
+
+    int indexOf(int[] a, int begin, int end, int value);
+
+    int lastIndexOf(int[] a, int begin, int end, int value);
+
+    int count(int[] a, int begin, int end, int value);
+
+    int indexOf(long[] a, int begin, int end, long value);
+
+    int lastIndexOf(long[] a, int begin, int end, long value);
+
+    int count(long[] a, int begin, int end, long value);
+
+    int indexOf(double[] a, int begin, int end, double value);
+
+    int lastIndexOf(double[] a, int begin, int end, double value);
+
+    int count(double[] a, int begin, int end, double value);
+
+    private static ValueScanner load() {
+        if (!Boolean.parseBoolean(System.getProperty("ru.kozhevnikov.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return (ValueScanner) Class.forName("ru.kozhevnikov.primitive.VectorValueScanner")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.kozhevnikov.primitive;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Реализация {@link ValueScanner} на основе Vector API ({@code jdk.incubator.vector}). Участок
+ * массива обрабатывается векторами предпочтительной для процессора длины, остаток, не кратный
+ * длине вектора, - скалярным циклом. Значения типа {@code double} сравниваются как битовые
+ * представления, что совпадает с {@code Double.compare} для всех значений, кроме {@code NaN};
+ * поиск {@code NaN} выполняется скалярно.
+ *
+ * <p>Класс загружается только при доступном модуле {@code jdk.incubator.vector}.
+ *
+ * @author Kozhevnikov Valentin
+ */
+final class VectorValueScanner implements ValueScanner {
+    private static final VectorSpecies<Integer> INT = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public int indexOf(int[] a, int begin, int end, int value) {
+        int i = begin;
+        for (int bound = begin + INT.loopBound(end - begin); i < bound; i += INT.length()) {
+            VectorMask<Integer> mask = IntVector.fromArray(INT, a, i).eq(value);
+            if (mask.anyTrue()) return i + mask.firstTrue();
+        }
+        return SCALAR.indexOf(a, i, end, value);
+    }
+
+    @Override
+    public int lastIndexOf(int[] a, int begin, int end, int value) {
+        int bound = begin + INT.loopBound(end - begin);
+        int index = SCALAR.lastIndexOf(a, bound, end, value);
+        if (index != -1) return index;
+        for (int i = bound - INT.length(); i >= begin; i -= INT.length()) {
+            VectorMask<Integer> mask = IntVector.fromArray(INT, a, i).eq(value);
+            if (mask.anyTrue()) return i + mask.lastTrue();
+        }
+        return -1;
+    }
+
+    @Override
+    public int count(int[] a, int begin, int end, int value) {
+        int count = 0;
+        int i = begin;
+        for (int bound = begin + INT.loopBound(end - begin); i < bound; i += INT.length()) {
+            count += IntVector.fromArray(INT, a, i).eq(value).trueCount();
+        }
+        return count + SCALAR.count(a, i, end, value);
+    }
+
+    @Override
+    public int indexOf(long[] a, int begin, int end, long value) {
+        int i = begin;
+        for (int bound = begin + LONG.loopBound(end - begin); i < bound; i += LONG.length()) {
+            VectorMask<Long> mask = LongVector.fromArray(LONG, a, i).eq(value);
+            if (mask.anyTrue()) return i + mask.firstTrue();
+        }
+        return SCALAR.indexOf(a, i, end, value);
+    }
+
+    @Override
+    public int lastIndexOf(long[] a, int begin, int end, long value) {
+        int bound = begin + LONG.loopBound(end - begin);
+        int index = SCALAR.lastIndexOf(a, bound, end, value);
+        if (index != -1) return index;
+        for (int i = bound - LONG.length(); i >= begin; i -= LONG.length()) {
+            VectorMask<Long> mask = LongVector.fromArray(LONG, a, i).eq(value);
+            if (mask.anyTrue()) return i + mask.lastTrue();
+        }
+        return -1;
+    }
+
+    @Override
+    public int count(long[] a, int begin, int end, long value) {
+        int count = 0;
+        int i = begin;
+        for (int bound = begin + LONG.loopBound(end - begin); i < bound; i += LONG.length()) {
+            count += LongVector.fromArray(LONG, a, i).eq(value).trueCount();
+        }
+        return count + SCALAR.count(a, i, end, value);
+    }
+
+    @Override
+    public int indexOf(double[] a, int begin, int end, double value) {
+        if (Double.isNaN(value)) return SCALAR.indexOf(a, begin, end, value);
+        long bits = Double.doubleToRawLongBits(value);
+        int i = begin;
+        for (int bound = begin + DOUBLE.loopBound(end - begin); i < bound; i += DOUBLE.length()) {
+            VectorMask<Long> mask = bitsOf(a, i).eq(bits);
+            if (mask.anyTrue()) return i + mask.firstTrue();
+        }
+        return SCALAR.indexOf(a, i, end, value);
+    }
+
+    @Override
+    public int lastIndexOf(double[] a, int begin, int end, double value) {
+        if (Double.isNaN(value)) return SCALAR.lastIndexOf(a, begin, end, value);
+        long bits = Double.doubleToRawLongBits(value);
+        int bound = begin + DOUBLE.loopBound(end - begin);
+        int index = SCALAR.lastIndexOf(a, bound, end, value);
+        if (index != -1) return index;
+        for (int i = bound - DOUBLE.length(); i >= begin; i -= DOUBLE.length()) {
+            VectorMask<Long> mask = bitsOf(a, i).eq(bits);
+            if (mask.anyTrue()) return i + mask.lastTrue();
+        }
+        return -1;
+    }
+
+    @Override
+    public int count(double[] a, int begin, int end, double value) {
+        if (Double.isNaN(value)) return SCALAR.count(a, begin, end, value);
+        long bits = Double.doubleToRawLongBits(value);
+        int count = 0;
+        int i = begin;
+        for (int bound = begin + DOUBLE.loopBound(end - begin); i < bound; i += DOUBLE.length()) {
+            count += bitsOf(a, i).eq(bits).trueCount();
+        }
+        return count + SCALAR.count(a, i, end, value);
+    }
+
+    private static LongVector bitsOf(double[] a, int index) {
+        return (LongVector) DoubleVector.fromArray(DOUBLE, a, index).viewAsIntegralLanes();
+    }
+}
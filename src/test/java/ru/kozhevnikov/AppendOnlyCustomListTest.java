@@ -0,0 +1,100 @@
+package ru.kozhevnikov;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyCustomListTest {
+
+    @Test
+    void appendsAcrossChunks() {
+        AppendOnlyCustomList<Integer> list = new AppendOnlyCustomList<>();
+        CustomArrayList<Integer> expected = new CustomArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        list.addAll(new Integer[]{1000, 1001});
+        expected.addAll(new Integer[]{1000, 1001});
+
+        assertEquals(1002, list.size());
+        assertEquals(expected, list);
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertEquals(500, list.indexOf(500));
+        assertEquals(expected.copyOfRange(15, 17), list.subList(15, 17));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1002));
+    }
+
+    @Test
+    void rejectsNullsAndMutations() {
+        AppendOnlyCustomList<String> list = new AppendOnlyCustomList<>();
+        list.add("a");
+
+        assertThrows(NullPointerException.class, () -> list.add(null));
+        assertThrows(NullPointerException.class, () -> list.addAll(new String[]{"b", null}));
+        assertThrows(UnsupportedOperationException.class, () -> list.set(0, "b"));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+        assertThrows(UnsupportedOperationException.class, list::clear);
+        assertEquals("[a]", list.toString());
+    }
+
+    @Test
+    void concurrentProducersPublishEveryElementOnce() throws Exception {
+        AppendOnlyCustomList<Integer> list = new AppendOnlyCustomList<>();
+        int producers = 8;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        list.add(base + i);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (!done.get()) {
+                    int size = list.size();
+                    if (size > 0) {
+                        assertNotNull(list.get(size - 1));
+                    }
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+
+        assertEquals(producers * perProducer, list.size());
+        BitSet seen = new BitSet();
+        for (Integer element : list) {
+            assertFalse(seen.get(element));
+            seen.set(element);
+        }
+        assertEquals(producers * perProducer, seen.cardinality());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.kozhevnikov;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCustomArrayListTest {
+
+    @Test
+    void behavesLikeCustomArrayList() {
+        ConcurrentCustomArrayList<String> list = new ConcurrentCustomArrayList<>(0);
+        list.addAll(new String[]{"b", "d", null});
+        list.add(0, "a");
+        list.add(2, "c");
+        list.set(4, "e");
+
+        assertEquals("[a, b, c, d, e]", list.toString());
+        assertEquals(2, list.indexOf("c"));
+        assertTrue(list.remove("c"));
+        list.remove(0);
+        list.removeIf("e"::equals);
+        assertEquals("[b, d]", list.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+
+        list.add(null);
+        assertEquals(2, list.lastIndexOf(null));
+        list.removeRange(0, 2);
+        assertEquals(1, list.size());
+        assertNull(list.get(0));
+    }
+
+    @Test
+    void equalsOtherCustomLists() {
+        ConcurrentCustomArrayList<Integer> list = new ConcurrentCustomArrayList<>();
+        CustomArrayList<Integer> expected = new CustomArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(99 - i);
+            expected.add(i);
+        }
+        list.sort(Comparator.naturalOrder());
+
+        assertEquals(expected, list);
+        assertEquals(list, expected);
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertEquals(expected.copyOfRange(10, 20), list.subList(10, 20));
+    }
+
+    @Test
+    void utilsMergeSortWorksWithCopyingSubList() {
+        ConcurrentCustomArrayList<Integer> list = new ConcurrentCustomArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add((i * 7919) % 1000);
+        }
+        Utils.mergeSort(list);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, list.get(i));
+        }
+    }
+
+    @Test
+    void iteratorWorksOnSnapshot() {
+        ConcurrentCustomArrayList<Integer> list = new ConcurrentCustomArrayList<>();
+        list.addAll(List.of(1, 2, 3));
+        Iterator<Integer> iterator = list.iterator();
+        list.clear();
+
+        List<Integer> seen = new ArrayList<>();
+        iterator.forEachRemaining(seen::add);
+        assertEquals(List.of(1, 2, 3), seen);
+    }
+
+    @Test
+    void readersSeeConsistentStateWhileWriterMutates() throws Exception {
+        ConcurrentCustomArrayList<Integer> list = new ConcurrentCustomArrayList<>(1);
+        int readers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    while (!done.get()) {
+                        int size = list.size();
+                        if (size > 0) {
+                            // Каждый элемент равен своему индексу, пока писатель только добавляет
+                            // и переставляет элементы, сохраняя этот инвариант.
+                            int index = size - 1;
+                            assertEquals(index, list.get(index));
+                        }
+                        int previous = -1;
+                        for (Integer element : list) {
+                            assertEquals(previous + 1, element);
+                            previous = element;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20_000; i++) {
+                    list.add(i);
+                    if (i % 100 == 0) {
+                        list.sort(Comparator.naturalOrder());
+                    }
+                }
+                done.set(true);
+                return null;
+            }));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+        assertEquals(20_000, list.size());
+    }
+}
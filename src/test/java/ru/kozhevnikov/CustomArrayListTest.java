@@ -4,6 +4,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.kozhevnikov.util.Student;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -337,4 +351,537 @@ class CustomArrayListTest {
         assertEquals(String.format("Index -1 out of bounds for length %d", customList.size()), actualBegin);
         assertEquals(String.format("Index 8 out of bounds for length %d", customList.size()), actualEnd);
     }
-}
\ No newline at end of file
+
+    @Test
+    void subListWritesThroughToParent(){
+        CustomArrayList<Integer> parent = new CustomArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            parent.add(i);
+        }
+        CustomList<Integer> subList = parent.subList(2, 5);
+
+        subList.set(0, 20);
+        subList.remove(1);
+        subList.add(40);
+
+        assertEquals(3, subList.size());
+        assertEquals(20, parent.get(2));
+        assertEquals("[0, 1, 20, 4, 40, 5]", parent.toString());
+        assertEquals("[20, 4, 40]", subList.toString());
+    }
+
+    @Test
+    void nestedSubListUpdatesAllViews(){
+        CustomArrayList<Integer> parent = new CustomArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            parent.add(i);
+        }
+        CustomList<Integer> outer = parent.subList(2, 8);
+        CustomList<Integer> inner = outer.subList(1, 4);
+
+        inner.clear();
+
+        assertEquals(0, inner.size());
+        assertEquals(3, outer.size());
+        assertEquals(7, parent.size());
+        assertEquals("[2, 6, 7]", outer.toString());
+    }
+
+    @Test
+    void subListDetectsStructuralModificationOfParent(){
+        CustomArrayList<Integer> parent = new CustomArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            parent.add(i);
+        }
+        CustomList<Integer> subList = parent.subList(1, 3);
+
+        parent.add(5);
+
+        assertThrows(ConcurrentModificationException.class, () -> subList.get(0));
+        assertThrows(ConcurrentModificationException.class, subList::size);
+    }
+
+    @Test
+    void copyOfRangeIsDetached(){
+        CustomArrayList<Integer> parent = new CustomArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            parent.add(i);
+        }
+        CustomArrayList<Integer> copy = parent.copyOfRange(1, 3);
+
+        copy.set(0, 100);
+        parent.add(5);
+
+        assertEquals(1, parent.get(1));
+        assertEquals("[100, 2]", copy.toString());
+    }
+
+    @Test
+    void sortMatchesCollectionsSortOnRandomData(){
+        Random random = new Random(3);
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt();
+            actual.add(value);
+            expected.add(value);
+        }
+
+        actual.sort(Comparator.naturalOrder());
+        Collections.sort(expected);
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void sortManyEqualKeysAndSortedInput(){
+        CustomArrayList<Integer> equalKeys = new CustomArrayList<>();
+        CustomArrayList<Integer> sorted = new CustomArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            equalKeys.add(i % 3);
+            sorted.add(i);
+        }
+
+        equalKeys.sort(Comparator.naturalOrder());
+        sorted.sort(Comparator.reverseOrder());
+
+        for (int i = 1; i < equalKeys.size(); i++) {
+            assertTrue(equalKeys.get(i - 1) <= equalKeys.get(i));
+            assertTrue(sorted.get(i - 1) > sorted.get(i));
+        }
+    }
+
+    @Test
+    void sortWithAdversarialComparatorFinishes(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            actual.add(i % 2 == 0 ? i : 100_000 - i);
+        }
+
+        actual.sort(Comparator.comparingInt(value -> value % 1000));
+
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue(actual.get(i - 1) % 1000 <= actual.get(i) % 1000);
+        }
+    }
+
+    @Test
+    void sortSubListSortsOnlyTheView(){
+        CustomArrayList<Integer> parent = new CustomArrayList<>();
+        for (int i = 10; i > 0; i--) {
+            parent.add(i);
+        }
+
+        parent.subList(2, 8).sort(Comparator.naturalOrder());
+
+        assertEquals("[10, 9, 3, 4, 5, 6, 7, 8, 2, 1]", parent.toString());
+    }
+
+    @Test
+    void addAllFromListCollectionAndArray(){
+        CustomArrayList<Integer> source = new CustomArrayList<>();
+        source.add(1);
+        source.add(2);
+        CustomArrayList<Integer> actual = new CustomArrayList<>(0);
+
+        actual.addAll(source);
+        actual.addAll(Arrays.asList(3, 4));
+        actual.addAll(new Integer[]{5, 6});
+
+        assertEquals("[1, 2, 3, 4, 5, 6]", actual.toString());
+    }
+
+    @Test
+    void addAllByIndexShiftsTail(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        actual.add(1);
+        actual.add(5);
+
+        actual.addAll(1, Arrays.asList(2, 3, 4));
+        actual.addAll(actual.size(), new Integer[]{6});
+        actual.addAll(0, actual);
+
+        assertEquals("[1, 2, 3, 4, 5, 6, 1, 2, 3, 4, 5, 6]", actual.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> actual.addAll(13, new Integer[]{0}));
+    }
+
+    @Test
+    void addAllThroughSubListUpdatesParent(){
+        CustomArrayList<Integer> parent = new CustomArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            parent.add(i);
+        }
+        CustomList<Integer> subList = parent.subList(1, 3);
+
+        subList.addAll(Arrays.asList(10, 11));
+
+        assertEquals(4, subList.size());
+        assertEquals("[0, 1, 2, 10, 11, 3]", parent.toString());
+    }
+
+    @Test
+    void removeRange(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            actual.add(i);
+        }
+
+        actual.removeRange(2, 8);
+        actual.removeRange(1, 1);
+
+        assertEquals("[0, 1, 8, 9]", actual.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> actual.removeRange(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> actual.removeRange(3, 2));
+    }
+
+    @Test
+    void ensureCapacityAndTrimToSizeKeepElements(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        actual.ensureCapacity(1000);
+        for (int i = 0; i < 100; i++) {
+            actual.add(i);
+        }
+
+        actual.trimToSize();
+        actual.add(100);
+
+        assertEquals(101, actual.size());
+        for (int i = 0; i <= 100; i++) {
+            assertEquals(i, actual.get(i));
+        }
+    }
+
+    @Test
+    void removeIfRemovesAllDuplicates(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            actual.add(i % 2);
+        }
+
+        actual.removeIf(e -> e == 1);
+
+        assertEquals("[0, 0, 0, 0, 0]", actual.toString());
+    }
+
+    @Test
+    void removeIfLeavesListIntactWhenFilterThrows(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            actual.add(i);
+        }
+
+        assertThrows(IllegalStateException.class, () -> actual.removeIf(e -> {
+            if (e == 3) throw new IllegalStateException();
+            return e < 2;
+        }));
+
+        assertEquals("[0, 1, 2, 3, 4]", actual.toString());
+    }
+
+    @Test
+    void removeIfDetectsModificationByFilter(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        actual.add(1);
+        actual.add(2);
+
+        assertThrows(ConcurrentModificationException.class, () -> actual.removeIf(e -> {
+            actual.add(3);
+            return true;
+        }));
+    }
+
+    @Test
+    void removeAllAndRetainAll(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            actual.add(i);
+        }
+
+        boolean removed = actual.removeAll(new HashSet<>(Arrays.asList(1, 3, 5, 42)));
+        boolean retained = actual.retainAll(Arrays.asList(0, 2, 3, 4, 9));
+        boolean unchanged = actual.retainAll(Arrays.asList(0, 2, 4, 9));
+
+        assertTrue(removed);
+        assertTrue(retained);
+        assertFalse(unchanged);
+        assertEquals("[0, 2, 4, 9]", actual.toString());
+    }
+
+    @Test
+    void removeIfOnLargeListIsLinear(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            actual.add(i);
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> actual.removeIf(e -> e % 2 == 0));
+
+        assertEquals(500_000, actual.size());
+        assertEquals(1, actual.get(0));
+        assertEquals(999_999, actual.get(499_999));
+    }
+
+    @Test
+    void iteratorFailsFastOnStructuralModification(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        actual.addAll(new Integer[]{1, 2, 3});
+        Iterator<Integer> iterator = actual.iterator();
+        iterator.next();
+        actual.add(4);
+
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void iteratorRemoveIsAppliedAtEndOfIteration(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            actual.add(i);
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            Iterator<Integer> iterator = actual.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() % 2 == 0) {
+                    iterator.remove();
+                }
+            }
+        });
+
+        assertEquals(500_000, actual.size());
+        assertEquals(1, actual.get(0));
+        assertEquals(999_999, actual.get(499_999));
+    }
+
+    @Test
+    void pendingRemovalsAreVisibleBeforeIterationEnds(){
+        CustomArrayList<String> actual = new CustomArrayList<>();
+        actual.addAll(new String[]{"a", "b", "c", "d", "e"});
+        ListIterator<String> iterator = actual.listIterator();
+        iterator.next();
+        iterator.remove();
+        iterator.next();
+        iterator.next();
+        iterator.remove();
+
+        assertEquals(3, actual.size());
+        assertEquals("[b, d, e]", actual.toString());
+        assertEquals(1, iterator.nextIndex());
+        assertEquals("d", iterator.next());
+        iterator.set("D");
+        assertEquals("[b, D, e]", actual.toString());
+    }
+
+    @Test
+    void removingThroughAnotherIteratorInvalidatesThisOne(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        actual.addAll(new Integer[]{1, 2, 3});
+        Iterator<Integer> first = actual.iterator();
+        Iterator<Integer> second = actual.iterator();
+        first.next();
+        first.remove();
+
+        assertThrows(ConcurrentModificationException.class, second::next);
+        assertEquals("[2, 3]", actual.toString());
+    }
+
+    @Test
+    void listIteratorMatchesArrayList(){
+        Random random = new Random(17);
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            actual.add(i);
+            expected.add(i);
+        }
+        ListIterator<Integer> actualIterator = actual.listIterator(50);
+        ListIterator<Integer> expectedIterator = expected.listIterator(50);
+
+        for (int step = 0; step < 5000; step++) {
+            int operation = random.nextInt(6);
+            if (operation == 0 && expectedIterator.hasNext()) {
+                assertEquals(expectedIterator.next(), actualIterator.next());
+            } else if (operation == 1 && expectedIterator.hasPrevious()) {
+                assertEquals(expectedIterator.previous(), actualIterator.previous());
+            } else if (operation == 2) {
+                expectedIterator.add(-step);
+                actualIterator.add(-step);
+            } else if (operation == 3) {
+                try {
+                    expectedIterator.remove();
+                } catch (IllegalStateException e) {
+                    assertThrows(IllegalStateException.class, actualIterator::remove);
+                    continue;
+                }
+                actualIterator.remove();
+            } else if (operation == 4) {
+                try {
+                    expectedIterator.set(step);
+                } catch (IllegalStateException e) {
+                    assertThrows(IllegalStateException.class, () -> actualIterator.set(0));
+                    continue;
+                }
+                actualIterator.set(step);
+            } else {
+                assertEquals(expectedIterator.nextIndex(), actualIterator.nextIndex());
+            }
+        }
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void streamsMatchSequentialResult(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            actual.add(i);
+        }
+
+        long expectedSum = 100_000L * 99_999 / 2;
+        assertEquals(expectedSum, actual.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(expectedSum, actual.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(actual.stream().filter(e -> e % 3 == 0).collect(Collectors.toList()),
+                actual.parallelStream().filter(e -> e % 3 == 0).collect(Collectors.toList()));
+        assertEquals(List.of(20, 21, 22), actual.subList(10, 30).stream().skip(10).limit(3)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void spliteratorIsSizedAndSplitsInHalves(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            actual.add(i);
+        }
+        Spliterator<Integer> right = actual.spliterator();
+        assertTrue(right.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+
+        Spliterator<Integer> left = right.trySplit();
+        assertEquals(500, left.estimateSize());
+        assertEquals(500, right.estimateSize());
+        left.tryAdvance(e -> assertEquals(0, e));
+        right.tryAdvance(e -> assertEquals(500, e));
+    }
+
+    @Test
+    void forEachFailsFastOnModification(){
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        actual.addAll(new Integer[]{1, 2, 3});
+        List<Integer> seen = new ArrayList<>();
+        actual.forEach(seen::add);
+
+        assertEquals(List.of(1, 2, 3), seen);
+        assertThrows(ConcurrentModificationException.class, () -> actual.forEach(actual::add));
+        assertThrows(ConcurrentModificationException.class,
+                () -> actual.stream().forEach(e -> actual.add(e)));
+    }
+
+    @Test
+    void expectedSizeConstructorAllocatesOnce(){
+        List<Integer> grown = new ArrayList<>();
+        CustomArrayList<Integer> actual = new CustomArrayList<>(100, capacity -> {
+            grown.add(capacity);
+            return capacity * 2;
+        });
+        for (int i = 0; i < 100; i++) {
+            actual.add(i);
+        }
+        assertEquals(List.of(), grown);
+
+        actual.add(100);
+        assertEquals(List.of(100), grown);
+        assertEquals(101, actual.size());
+    }
+
+    @Test
+    void autoShrinkReleasesCapacityAfterRemovals(){
+        List<Integer> capacities = new ArrayList<>();
+        GrowthPolicy autoShrink = GrowthPolicy.DEFAULT.withAutoShrink();
+        CustomArrayList<Integer> actual = new CustomArrayList<>(1000, new GrowthPolicy() {
+            @Override
+            public int grow(int capacity) {
+                return autoShrink.grow(capacity);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                capacities.add(capacity);
+                return autoShrink.shrink(capacity, size);
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            actual.add(i);
+        }
+
+        actual.removeRange(100, 1000);
+        actual.remove(0);
+        assertEquals(List.of(1000, 200), capacities);
+
+        actual.removeIf(element -> element > 10);
+        actual.clear();
+        assertEquals(List.of(1000, 200, 200, 20), capacities);
+        assertEquals(0, actual.size());
+        actual.add(1);
+        assertEquals("[1]", actual.toString());
+    }
+
+    @Test
+    void equalsAndHashCodeIgnoreCapacityAndImplementation(){
+        CustomArrayList<Integer> small = new CustomArrayList<>(3);
+        CustomArrayList<Integer> large = new CustomArrayList<>(1000);
+        TieredCustomArrayList<Integer> tiered = new TieredCustomArrayList<>();
+        for (Integer element : Arrays.asList(1, null, 3)) {
+            small.add(element);
+            large.add(element);
+            tiered.add(element);
+        }
+        large.add(4);
+        CustomList<Integer> view = large.subList(0, 3);
+
+        assertEquals(small, view);
+        assertEquals(view, small);
+        assertEquals(small, tiered);
+        assertEquals(view, tiered);
+        assertEquals(tiered.hashCode(), small.hashCode());
+        assertEquals(small.hashCode(), view.hashCode());
+        assertEquals(Arrays.asList(1, null, 3).hashCode(), small.hashCode());
+        assertNotEquals(small, large);
+        assertNotEquals(large.subList(1, 4), small);
+    }
+
+    @Test
+    void clearReusesArray(){
+        CustomArrayList<String> actual = new CustomArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            actual.add("e" + i);
+        }
+        CustomList<String> view = actual.subList(0, 10);
+
+        actual.clear();
+        assertEquals(0, actual.size());
+        assertEquals(-1, actual.indexOf("e1"));
+        assertThrows(ConcurrentModificationException.class, view::size);
+
+        actual.add("a");
+        assertEquals("[a]", actual.toString());
+        assertEquals(new CustomArrayList<>(), actual.subList(0, 0));
+    }
+
+    @Test
+    void indexOfFindsNullsAndUsesEquals(){
+        CustomArrayList<String> actual = new CustomArrayList<>();
+        actual.addAll(new String[]{"a", null, new String("b"), null, "b"});
+        CustomList<String> view = actual.subList(1, 4);
+
+        assertEquals(1, actual.indexOf(null));
+        assertEquals(3, actual.lastIndexOf(null));
+        assertEquals(2, actual.indexOf("b"));
+        assertEquals(4, actual.lastIndexOf("b"));
+        assertEquals(-1, actual.indexOf("c"));
+        assertEquals(0, view.indexOf(null));
+        assertEquals(2, view.lastIndexOf(null));
+        assertTrue(actual.remove((String) null));
+        assertEquals("[a, b, null, b]", actual.toString());
+    }
+}
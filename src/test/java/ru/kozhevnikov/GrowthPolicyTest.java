@@ -0,0 +1,46 @@
+package ru.kozhevnikov;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrowthPolicyTest {
+
+    @Test
+    void standardPolicies() {
+        assertEquals(16, GrowthPolicy.DEFAULT.grow(10));
+        assertEquals(20, GrowthPolicy.geometric(2.0).grow(10));
+        assertEquals(2, GrowthPolicy.geometric(1.1).grow(1));
+        assertEquals(110, GrowthPolicy.fixedStep(100).grow(10));
+        assertEquals(16, GrowthPolicy.powerOfTwo().grow(10));
+        assertEquals(32, GrowthPolicy.powerOfTwo().grow(16));
+        assertEquals(1_100, GrowthPolicy.capped(GrowthPolicy.geometric(2.0), 100).grow(1_000));
+        assertEquals(20, GrowthPolicy.capped(GrowthPolicy.geometric(2.0), 100).grow(10));
+
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.geometric(1.0));
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.fixedStep(0));
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.capped(GrowthPolicy.DEFAULT, -1));
+    }
+
+    @Test
+    void newCapacityIsAtLeastRequiredAndBounded() {
+        assertEquals(1, GrowthPolicy.DEFAULT.newCapacity(0, 1));
+        assertEquals(1, GrowthPolicy.powerOfTwo().newCapacity(0, 1));
+        assertEquals(500, GrowthPolicy.DEFAULT.newCapacity(10, 500));
+        assertEquals(GrowthPolicy.MAX_CAPACITY, GrowthPolicy.geometric(3.0).newCapacity(1 << 30, (1 << 30) + 1));
+        assertThrows(OutOfMemoryError.class, () -> GrowthPolicy.DEFAULT.newCapacity(10, -5));
+    }
+
+    @Test
+    void autoShrinkHasHysteresis() {
+        GrowthPolicy policy = GrowthPolicy.fixedStep(10).withAutoShrink();
+
+        assertEquals(110, policy.grow(100));
+        assertEquals(1000, policy.shrink(1000, 250));
+        assertEquals(498, policy.shrink(1000, 249));
+        assertEquals(10, policy.shrink(1000, 0));
+        assertEquals(10, policy.shrink(10, 0));
+        assertEquals(100, GrowthPolicy.DEFAULT.shrink(100, 0));
+        assertEquals(498, GrowthPolicy.capped(policy, 5).shrink(1000, 249));
+    }
+}
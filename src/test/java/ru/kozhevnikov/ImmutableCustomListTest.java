@@ -0,0 +1,102 @@
+package ru.kozhevnikov;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.ListIterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImmutableCustomListTest {
+
+    @Test
+    void snapshotIsNotAffectedBySourceChanges() {
+        CustomArrayList<Integer> source = listOf(5, 3, 1, 4, 2);
+        ImmutableCustomList<Integer> snapshot = source.freeze();
+        CustomArrayList<Integer> expected = listOf(5, 3, 1, 4, 2);
+
+        source.set(0, 9);
+        assertEquals(expected, snapshot);
+        ImmutableCustomList<Integer> second = source.freeze();
+        source.add(7);
+        source.add(0, 8);
+        source.remove(1);
+        source.sort(Comparator.naturalOrder());
+        ImmutableCustomList<Integer> third = source.freeze();
+        Utils.mergeSort(source, Comparator.reverseOrder());
+        ListIterator<Integer> iterator = source.listIterator();
+        iterator.next();
+        iterator.set(0);
+        iterator.next();
+        iterator.remove();
+        source.removeIf(element -> element == 4);
+        source.subList(0, 2).set(0, -1);
+        source.clear();
+
+        assertEquals(expected, snapshot);
+        assertEquals(listOf(9, 3, 1, 4, 2), second);
+        assertEquals(listOf(1, 2, 3, 4, 7, 8), third);
+        assertEquals(0, source.size());
+        source.add(1);
+        assertEquals("[1]", source.toString());
+    }
+
+    @Test
+    void subListsShareArrayAndCacheHash() {
+        CustomArrayList<String> source = new CustomArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            source.add(i % 10 == 0 ? null : "e" + i);
+        }
+        ImmutableCustomList<String> snapshot = source.freeze();
+        ImmutableCustomList<String> view = snapshot.subList(10, 20);
+
+        assertSame(snapshot, snapshot.subList(0, 100));
+        assertEquals(source.copyOfRange(10, 20), view);
+        assertEquals(view, source.subList(10, 20));
+        assertEquals(source.subList(10, 20), view);
+        assertEquals(source.subList(10, 20).hashCode(), view.hashCode());
+        assertEquals(view.hashCode(), view.hashCode());
+        assertEquals(source.hashCode(), snapshot.hashCode());
+        assertNotEquals(view, snapshot.subList(20, 30));
+        assertEquals(0, view.indexOf(null));
+        assertEquals(9, view.lastIndexOf("e19"));
+        assertEquals("e11", view.get(1));
+        assertEquals(9L, view.stream().filter(e -> e != null).count());
+        assertEquals(view.toString(), source.subList(10, 20).toString());
+        assertEquals(source.subList(10, 20).stream().collect(Collectors.toList()),
+                view.stream().collect(Collectors.toList()));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(10));
+    }
+
+    @Test
+    void mutatorsThrowAndCopyOfAvoidsCopies() {
+        CustomArrayList<Integer> source = listOf(1, 2, 3);
+        ImmutableCustomList<Integer> snapshot = CustomList.copyOf(source);
+        TieredCustomArrayList<Integer> tiered = new TieredCustomArrayList<>();
+        tiered.add(1);
+        tiered.add(2);
+        tiered.add(3);
+
+        assertSame(snapshot, CustomList.copyOf(snapshot));
+        assertEquals(snapshot, CustomList.copyOf(tiered));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(4));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, 4));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.sort(Comparator.naturalOrder()));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.listIterator().add(0));
+
+        CustomArrayList<Integer> copy = snapshot.copyOfRange(0, 3);
+        copy.add(4);
+        source.addAll(snapshot);
+        assertEquals(listOf(1, 2, 3), snapshot);
+        assertEquals(listOf(1, 2, 3, 1, 2, 3), source);
+        assertEquals(listOf(1, 2, 3, 4), copy);
+    }
+
+    private static CustomArrayList<Integer> listOf(Integer... elements) {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        list.addAll(elements);
+        return list;
+    }
+}
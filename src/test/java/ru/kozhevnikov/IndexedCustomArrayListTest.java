@@ -0,0 +1,149 @@
+package ru.kozhevnikov;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.kozhevnikov.util.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedCustomArrayListTest {
+
+    @Test
+    void lookupsUseIndex() {
+        IndexedCustomArrayList<Student> students = new IndexedCustomArrayList<>();
+        Student student1 = new Student("Pavel", 18, 'm', 1);
+        Student student2 = new Student("Marina", 23, 'f', 5);
+        Student student3 = new Student("Victor", 19, 'm', 2);
+        students.add(student1);
+        students.add(student2);
+        students.add(student1);
+
+        assertEquals(0, students.indexOf(student1));
+        assertEquals(2, students.lastIndexOf(student1));
+        assertTrue(students.contains(student2));
+        assertFalse(students.contains(student3));
+        assertEquals(-1, students.indexOf(student3));
+    }
+
+    @Test
+    void indexSupportsNull() {
+        IndexedCustomArrayList<String> list = new IndexedCustomArrayList<>();
+        list.add("a");
+        list.add(null);
+
+        assertEquals(1, list.indexOf(null));
+        assertTrue(list.remove((String) null));
+        assertFalse(list.contains(null));
+    }
+
+    @Test
+    void indexFollowsInsertRemoveAndSet() {
+        IndexedCustomArrayList<String> list = new IndexedCustomArrayList<>();
+        list.add("a");
+        list.add("b");
+        list.add("c");
+
+        list.add(0, "c");
+        list.remove(2);
+        list.set(0, "d");
+
+        assertEquals("[d, a, c]", list.toString());
+        assertEquals(2, list.indexOf("c"));
+        assertEquals(0, list.indexOf("d"));
+        assertEquals(-1, list.indexOf("b"));
+    }
+
+    @Test
+    void indexFollowsSort() {
+        IndexedCustomArrayList<Integer> list = new IndexedCustomArrayList<>();
+        for (int i = 9; i >= 0; i--) {
+            list.add(i);
+        }
+
+        list.sort(Comparator.naturalOrder());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, list.indexOf(i));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void lookupsMatchLinearScanAfterRandomOperations(boolean lazyIndex) {
+        Random random = new Random(lazyIndex ? 1 : 2);
+        IndexedCustomArrayList<Integer> actual = new IndexedCustomArrayList<>(lazyIndex);
+        List<Integer> expected = new ArrayList<>();
+
+        for (int step = 0; step < 5000; step++) {
+            int value = random.nextInt(50);
+            int operation = random.nextInt(10);
+            if (operation < 4 || expected.size() < 2) {
+                actual.add(value);
+                expected.add(value);
+            } else if (operation == 4) {
+                int index = random.nextInt(expected.size());
+                actual.add(index, value);
+                expected.add(index, value);
+            } else if (operation == 5) {
+                int index = random.nextInt(expected.size());
+                actual.remove(index);
+                expected.remove(index);
+            } else if (operation == 6) {
+                int index = random.nextInt(expected.size());
+                actual.set(index, value);
+                expected.set(index, value);
+            } else if (operation == 7) {
+                assertEquals(expected.remove((Integer) value), actual.remove((Integer) value));
+            } else if (operation == 8) {
+                actual.addAll(Arrays.asList(value, value + 1));
+                expected.addAll(Arrays.asList(value, value + 1));
+            } else if (step % 100 == 0) {
+                actual.removeIf(e -> e % 7 == 0);
+                expected.removeIf(e -> e % 7 == 0);
+            }
+
+            int probe = random.nextInt(50);
+            assertEquals(expected.indexOf(probe), actual.indexOf(probe));
+            assertEquals(expected.lastIndexOf(probe), actual.lastIndexOf(probe));
+            assertEquals(expected.contains(probe), actual.contains(probe));
+        }
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void subListIsDetachedCopy() {
+        IndexedCustomArrayList<Integer> list = new IndexedCustomArrayList<>();
+        list.add(1);
+        list.add(2);
+        list.add(3);
+
+        list.subList(0, 2).add(4);
+
+        assertEquals(3, list.size());
+        assertEquals(-1, list.indexOf(4));
+    }
+
+    @Test
+    void iteratorRemoveKeepsIndexConsistent() {
+        IndexedCustomArrayList<String> list = new IndexedCustomArrayList<>();
+        list.addAll(new String[]{"a", "b", "a", "c"});
+        Iterator<String> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().equals("a")) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals("[b, c]", list.toString());
+        assertEquals(-1, list.indexOf("a"));
+        assertEquals(1, list.indexOf("c"));
+    }
+}
@@ -0,0 +1,131 @@
+package ru.kozhevnikov;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedCustomArrayListTest {
+
+    @Test
+    void keepsOrderOnSingleAndBulkInserts() {
+        Random random = new Random(3);
+        SortedCustomArrayList<Integer> actual = new SortedCustomArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int value = random.nextInt(100);
+            actual.add(value);
+            expected.add(value);
+        }
+        Integer[] batch = new Integer[300];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = random.nextInt(200) - 50;
+            expected.add(batch[i]);
+        }
+        actual.addAll(batch);
+        actual.addAll(List.of(7, 300, -100));
+        Collections.addAll(expected, 7, 300, -100);
+        Collections.sort(expected);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+        assertEquals(expected.indexOf(7), actual.indexOf(7));
+        assertEquals(expected.lastIndexOf(7), actual.lastIndexOf(7));
+        assertEquals(-1, actual.indexOf(1000));
+        assertTrue(actual.remove(Integer.valueOf(300)));
+        assertFalse(actual.contains(300));
+        assertThrows(UnsupportedOperationException.class, () -> actual.add(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> actual.set(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> actual.sort(Comparator.naturalOrder()));
+        assertThrows(UnsupportedOperationException.class, () -> actual.partialSort(1, Comparator.naturalOrder()));
+        assertFalse(actual.iterator() instanceof ListIterator);
+
+        Iterator<Integer> iterator = actual.iterator();
+        assertEquals(expected.get(0), iterator.next());
+        iterator.remove();
+        assertEquals(expected.size() - 2, actual.size());
+        assertEquals(expected.get(1), actual.get(0));
+    }
+
+    @Test
+    void equalElementsKeepInsertionOrder() {
+        SortedCustomArrayList<String> actual = new SortedCustomArrayList<>(Comparator.comparingInt(String::length));
+        actual.add("bb");
+        actual.add("a");
+        actual.add("cc");
+        actual.addAll(new String[]{"dd", "e", "fff"});
+
+        assertEquals("[a, e, bb, cc, dd, fff]", actual.toString());
+        assertEquals(3, actual.indexOf("cc"));
+        assertEquals(-1, actual.indexOf("xx"));
+        assertEquals(2, actual.lowerBound("xx"));
+        assertEquals(5, actual.upperBound("xx"));
+    }
+
+    @Test
+    void rangeQueriesReturnViews() {
+        SortedCustomArrayList<Integer> actual = new SortedCustomArrayList<>();
+        for (int i = 0; i < 20; i += 2) {
+            actual.add(i);
+        }
+        CustomList<Integer> range = actual.range(5, 11);
+        CustomList<Integer> head = actual.headList(4);
+        CustomList<Integer> tail = actual.tailList(15);
+
+        assertEquals("[6, 8, 10]", range.toString());
+        assertEquals("[0, 2]", head.toString());
+        assertEquals("[16, 18]", tail.toString());
+        assertThrows(UnsupportedOperationException.class, () -> range.add(7));
+        assertThrows(UnsupportedOperationException.class, () -> range.set(0, 100));
+        assertThrows(UnsupportedOperationException.class, () -> range.sort(Comparator.reverseOrder()));
+        assertThrows(UnsupportedOperationException.class, () -> range.subList(0, 2).add(7));
+
+        range.remove(Integer.valueOf(8));
+        assertEquals("[6, 10]", range.toString());
+        assertEquals("[0, 2, 4, 6, 10, 12, 14, 16, 18]", actual.toString());
+
+        actual.add(7);
+        actual.removeIf(element -> element < 4);
+        assertThrows(ConcurrentModificationException.class, range::size);
+        assertEquals("[4, 6, 7, 10]", actual.range(3, 11).toString());
+        assertEquals(0, actual.range(100, 200).size());
+        assertEquals(3, actual.binarySearch(10));
+        assertThrows(IllegalArgumentException.class, () -> actual.range(9, 3));
+    }
+
+    @Test
+    void insertAfterRangeQueryDoesNotCopyArray() {
+        SortedCustomArrayList<Integer> actual = new SortedCustomArrayList<>();
+        actual.ensureCapacity(200);
+        for (int i = 0; i < 100; i += 2) {
+            actual.add(i);
+        }
+        Object[][] arrays = new Object[2][];
+        CustomArrayList.applyToBackingArray(actual.elements, (a, begin, end) -> arrays[0] = a);
+
+        for (int i = 1; i < 50; i += 2) {
+            assertEquals(5, actual.range(i, i + 10).size());
+            actual.add(i);
+            assertEquals((i - 1) / 2, actual.headList(0).size());
+            actual.add(-i);
+            assertEquals(actual.size() - i, actual.subList(i, actual.size()).size());
+        }
+        CustomArrayList.applyToBackingArray(actual.elements, (a, begin, end) -> arrays[1] = a);
+
+        assertSame(arrays[0], arrays[1]);
+        assertEquals(100, actual.size());
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue(actual.get(i - 1) <= actual.get(i));
+        }
+    }
+}
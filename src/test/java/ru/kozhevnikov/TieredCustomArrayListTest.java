@@ -0,0 +1,145 @@
+package ru.kozhevnikov;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredCustomArrayListTest {
+
+    @Test
+    void randomEditsMatchArrayList() {
+        TieredCustomArrayList<Integer> list = new TieredCustomArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 60_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 4 || expected.isEmpty()) {
+                int value = random.nextInt(1000);
+                int index = random.nextInt(expected.size() + 1);
+                if (index == expected.size()) {
+                    list.add(value);
+                } else {
+                    list.add(index, value);
+                }
+                expected.add(index, value);
+            } else if (operation < 7) {
+                int index = random.nextInt(expected.size());
+                list.remove(index);
+                expected.remove(index);
+            } else if (operation < 9) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index), list.get(index));
+                list.set(index, -index);
+                expected.set(index, -index);
+            } else {
+                list.add(step);
+                expected.add(step);
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        assertEquals(expected, toList(list));
+        assertEquals(expected.hashCode(), list.hashCode());
+    }
+
+    @Test
+    void growsAndShrinksBlocks() {
+        TieredCustomArrayList<Integer> list = new TieredCustomArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i);
+        }
+        list.add(50_000, -1);
+        assertEquals(-1, list.get(50_000));
+        assertEquals(50_000, list.get(50_001));
+        assertEquals(100_001, list.size());
+
+        list.remove(50_000);
+        while (list.size() > 10) {
+            list.remove(list.size() / 2);
+        }
+        assertEquals(10, list.size());
+        assertEquals(List.of(0, 1, 2, 3, 4, 99_995, 99_996, 99_997, 99_998, 99_999), toList(list));
+    }
+
+    @Test
+    void bulkOperations() {
+        TieredCustomArrayList<Integer> list = new TieredCustomArrayList<>();
+        CustomArrayList<Integer> expected = new CustomArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        Integer[] inserted = new Integer[500];
+        for (int i = 0; i < inserted.length; i++) {
+            inserted[i] = -i;
+        }
+        list.addAll(300, inserted);
+        expected.addAll(300, inserted);
+        list.addAll(10, List.of(7, 8));
+        expected.addAll(10, List.of(7, 8));
+        assertEquals(expected, list);
+
+        list.removeRange(100, 900);
+        expected.removeRange(100, 900);
+        list.removeRange(5, 7);
+        expected.removeRange(5, 7);
+        assertEquals(expected, list);
+
+        list.removeIf(element -> element % 3 == 0);
+        expected.removeIf(element -> element % 3 == 0);
+        assertEquals(expected, list);
+
+        list.sort(Comparator.reverseOrder());
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, list);
+        assertEquals(expected.copyOfRange(20, 40), list.subList(20, 40));
+        assertEquals(expected.toString(), list.toString());
+
+        list.clear();
+        assertEquals(0, list.size());
+        assertEquals("[]", list.toString());
+    }
+
+    @Test
+    void storesNulls() {
+        TieredCustomArrayList<String> list = new TieredCustomArrayList<>();
+        list.add("a");
+        list.add(null);
+        list.add(0, null);
+
+        assertEquals(0, list.indexOf(null));
+        assertEquals(2, list.lastIndexOf(null));
+        assertTrue(list.remove((String) null));
+        assertEquals("[a, null]", list.toString());
+    }
+
+    @Test
+    void iteratorIsFailFastAndIndexesAreChecked() {
+        TieredCustomArrayList<Integer> list = new TieredCustomArrayList<>();
+        list.add(1);
+        list.add(2);
+
+        Iterator<Integer> iterator = list.iterator();
+        iterator.next();
+        list.add(0, 0);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(3, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(-1));
+    }
+
+    private static <E> List<E> toList(CustomList<E> list) {
+        List<E> result = new ArrayList<>();
+        for (E element : list) {
+            result.add(element);
+        }
+        return result;
+    }
+}
@@ -3,6 +3,13 @@ package ru.kozhevnikov;
 import org.junit.jupiter.api.Test;
 import ru.kozhevnikov.util.Student;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UtilsTest {
@@ -44,4 +51,245 @@ class UtilsTest {
 
         assertEquals(expected,actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void mergeSortMatchesCollectionsSortOnRandomData() {
+        Random random = new Random(1);
+        CustomList<Integer> actual = new CustomArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(1000);
+            actual.add(value);
+            expected.add(value);
+        }
+
+        Utils.mergeSort(actual);
+        Collections.sort(expected);
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void mergeSortIsStable() {
+        CustomList<Student> actual = new CustomArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            actual.add(new Student("Student" + i, 18 + (i * 7) % 5, 'm', i));
+        }
+
+        Utils.mergeSort(actual, Comparator.comparingInt(Student::getAge));
+
+        for (int i = 1; i < actual.size(); i++) {
+            Student previous = actual.get(i - 1);
+            Student current = actual.get(i);
+            assertTrue(previous.getAge() < current.getAge()
+                    || previous.getAge() == current.getAge() && previous.getCourse() < current.getCourse());
+        }
+    }
+
+    @Test
+    void mergeSortNearlySortedAndDescendingRuns() {
+        CustomList<Integer> actual = new CustomArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            actual.add(i);
+        }
+        for (int i = 5000; i > 0; i--) {
+            actual.add(i);
+        }
+        actual.set(100, -1);
+
+        Utils.mergeSort(actual);
+
+        assertEquals(-1, actual.get(0));
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue(actual.get(i - 1) <= actual.get(i));
+        }
+    }
+
+    @Test
+    void mergeSortOfSubListSortsOnlyTheView() {
+        CustomArrayList<Integer> parent = new CustomArrayList<>();
+        for (int i = 10; i > 0; i--) {
+            parent.add(i);
+        }
+
+        Utils.mergeSort(parent.subList(2, 8));
+
+        assertEquals("[10, 9, 3, 4, 5, 6, 7, 8, 2, 1]", parent.toString());
+    }
+
+    @Test
+    void parallelMergeSortMatchesCollectionsSort() {
+        Random random = new Random(2);
+        CustomList<Integer> actual = new CustomArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt();
+            actual.add(value);
+            expected.add(value);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            Utils.parallelMergeSort(actual, Comparator.naturalOrder(), pool, 1000);
+        } finally {
+            pool.shutdown();
+        }
+        Collections.sort(expected);
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void parallelSortIsStable() {
+        CustomList<Student> actual = new CustomArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            actual.add(new Student("Student" + i, 18 + (i * 7) % 5, 'm', i));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            Utils.parallelMergeSort(actual, Comparator.comparingInt(Student::getAge), pool, 500);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 1; i < actual.size(); i++) {
+            Student previous = actual.get(i - 1);
+            Student current = actual.get(i);
+            assertTrue(previous.getAge() < current.getAge()
+                    || previous.getAge() == current.getAge() && previous.getCourse() < current.getCourse());
+        }
+    }
+
+    @Test
+    void parallelSortOfSmallListFallsBackToSequentialSort() {
+        CustomList<Integer> actual = new CustomArrayList<>();
+        for (int i = 100; i >= 0; i--) {
+            actual.add(i);
+        }
+
+        actual.parallelSort(Comparator.naturalOrder());
+
+        for (int i = 0; i <= 100; i++) {
+            assertEquals(i, actual.get(i));
+        }
+    }
+
+    @Test
+    void parallelMergeSortWithThresholdOne() {
+        Random random = new Random(5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            CustomList<Integer> small = new CustomArrayList<>();
+            small.addAll(new Integer[]{2, 5, 1, 7});
+            Utils.parallelMergeSort(small, Comparator.naturalOrder(), pool, 1);
+            assertEquals("[1, 2, 5, 7]", small.toString());
+
+            for (int size = 2; size <= 64; size++) {
+                CustomList<Integer> actual = new CustomArrayList<>();
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    int value = random.nextInt(10);
+                    actual.add(value);
+                    expected.add(value);
+                }
+                Utils.parallelMergeSort(actual, Comparator.naturalOrder(), pool, 1);
+                Collections.sort(expected);
+                for (int i = 0; i < size; i++) {
+                    assertEquals(expected.get(i), actual.get(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelMergeSortWithIllegalThreshold() {
+        CustomList<Integer> list = new CustomArrayList<>();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Utils.parallelMergeSort(list, Comparator.<Integer>naturalOrder(), ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    void mergeOfSortedListsIsStableAndBinarySearchable() {
+        CustomList<String> first = new CustomArrayList<>();
+        first.addAll(new String[]{"a", "cc", "dd", "eeee"});
+        CustomList<String> second = new CustomArrayList<>();
+        second.addAll(new String[]{"b", "ff", "ggg", "hhhhh", "iiiii"});
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+
+        CustomArrayList<String> merged = Utils.merge(first, second, byLength);
+
+        assertEquals("[a, b, cc, dd, ff, ggg, eeee, hhhhh, iiiii]", merged.toString());
+        assertEquals(2, merged.lowerBound("xx", byLength));
+        assertEquals(5, merged.upperBound("xx", byLength));
+        assertEquals(5, merged.binarySearch("xxx", byLength));
+        assertEquals(-10, merged.binarySearch("xxxxxx", byLength));
+        assertEquals(-1, merged.binarySearch("", byLength));
+        assertEquals(0, Utils.merge(new CustomArrayList<String>(), new CustomArrayList<String>(), byLength).size());
+    }
+
+    @Test
+    void nthElementAndPartialSortMatchFullSort() {
+        Random random = new Random(4);
+        for (int size : new int[]{1, 15, 100, 10_000}) {
+            List<Integer> expected = new ArrayList<>();
+            CustomArrayList<Integer> array = new CustomArrayList<>();
+            TieredCustomArrayList<Integer> tiered = new TieredCustomArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int value = random.nextInt(size / 2 + 1);
+                expected.add(value);
+                array.add(value);
+                tiered.add(value);
+            }
+            Collections.sort(expected);
+            int k = size / 3;
+
+            assertEquals(expected.get(k), array.nthElement(k, Comparator.naturalOrder()));
+            assertEquals(expected.get(k), tiered.nthElement(k, Comparator.naturalOrder()));
+            for (int i = 0; i < size; i++) {
+                assertTrue(i < k ? array.get(i) <= array.get(k) : array.get(i) >= array.get(k));
+            }
+
+            array.partialSort(k, Comparator.naturalOrder());
+            tiered.partialSort(k, Comparator.naturalOrder());
+            for (int i = 0; i < k; i++) {
+                assertEquals(expected.get(i), array.get(i));
+                assertEquals(expected.get(i), tiered.get(i));
+            }
+        }
+    }
+
+    @Test
+    void topKDoesNotModifyList() {
+        Random random = new Random(5);
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            list.add(random.nextInt(1000));
+        }
+        CustomArrayList<Integer> copy = list.copyOfRange(0, list.size());
+        List<Integer> expected = new ArrayList<>();
+        list.forEach(expected::add);
+        expected.sort(Comparator.reverseOrder());
+
+        CustomArrayList<Integer> top = Utils.topK(list, 100, Comparator.reverseOrder());
+
+        assertEquals(copy, list);
+        assertEquals(100, top.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expected.get(i), top.get(i));
+        }
+        assertEquals(5000, Utils.topK(list, 10_000, Comparator.naturalOrder()).size());
+        assertEquals(0, Utils.topK(list, 0, Comparator.naturalOrder()).size());
+        assertThrows(IllegalArgumentException.class, () -> Utils.topK(list, -1, Comparator.naturalOrder()));
+        assertThrows(IllegalArgumentException.class, () -> list.partialSort(5001, Comparator.naturalOrder()));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.nthElement(5000, Comparator.naturalOrder()));
+    }
+}
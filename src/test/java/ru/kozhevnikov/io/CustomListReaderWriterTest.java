@@ -0,0 +1,191 @@
+package ru.kozhevnikov.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.codec.Codecs;
+import ru.kozhevnikov.codec.ElementCodec;
+import ru.kozhevnikov.metrics.ListMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomListReaderWriterTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void stringsRoundTrip(boolean compressed) throws IOException {
+        CustomArrayList<String> list = new CustomArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 50_000; i++) {
+            list.add("element-" + random.nextInt(1000));
+        }
+        list.add("x".repeat(200_000));
+        list.add("");
+        list.add("Привет");
+
+        byte[] bytes = write(compressed, Codecs.STRING, list);
+        try (CustomListReader<String> reader = reader(bytes)) {
+            assertEquals(list, reader.read());
+        }
+    }
+
+    @Test
+    void compressionShrinksRepetitiveData() throws IOException {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i % 10);
+        }
+
+        byte[] plain = write(false, Codecs.INTEGER, list);
+        byte[] compressed = write(true, Codecs.INTEGER, list);
+
+        assertEquals(16 + 100_000 * 5, plain.length);
+        assertTrue(compressed.length < plain.length / 10);
+        try (CustomListReader<Integer> reader = new CustomListReader<>(
+                Channels.newChannel(new ByteArrayInputStream(compressed)), Codecs.INTEGER)) {
+            assertEquals(list, reader.read());
+        }
+    }
+
+    @Test
+    void severalListsInOneStream() throws IOException {
+        CustomArrayList<String> first = new CustomArrayList<>();
+        first.addAll(new String[]{"a", "b"});
+        CustomArrayList<String> empty = new CustomArrayList<>();
+        CustomArrayList<String> last = new CustomArrayList<>();
+        last.add("c");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CustomListWriter<String> writer = new CustomListWriter<>(Channels.newChannel(out), Codecs.STRING)) {
+            writer.write(first);
+            writer.write(empty);
+            writer.write(last);
+        }
+
+        try (CustomListReader<String> reader = reader(out.toByteArray())) {
+            assertEquals(first, reader.read());
+            assertEquals(empty, reader.read());
+            assertEquals(last, reader.read());
+            assertThrows(EOFException.class, reader::read);
+        }
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedData() throws IOException {
+        try (CustomListReader<String> reader = reader(new byte[32])) {
+            assertThrows(IOException.class, reader::read);
+        }
+
+        CustomArrayList<String> list = new CustomArrayList<>();
+        list.addAll(new String[]{"one", "two", "three"});
+        byte[] bytes = write(false, Codecs.STRING, list);
+        try (CustomListReader<String> reader = reader(Arrays.copyOf(bytes, bytes.length - 2))) {
+            assertThrows(EOFException.class, reader::read);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void bogusElementCountThrowsIOException(boolean compressed) throws IOException {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        list.addAll(new Integer[]{1, 2, 3});
+        byte[] bytes = write(compressed, Codecs.INTEGER, list);
+        ByteBuffer.wrap(bytes).putInt(12, Integer.MAX_VALUE);
+
+        try (CustomListReader<Integer> reader = new CustomListReader<>(
+                Channels.newChannel(new ByteArrayInputStream(bytes)), Codecs.INTEGER)) {
+            assertThrows(EOFException.class, reader::read);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void largeListFromFileIsAllocatedOnce(boolean compressed, @TempDir Path directory) throws IOException {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < CustomListReader.MAX_INITIAL_CAPACITY * 3 + 1; i++) {
+            list.add(i);
+        }
+        Path file = directory.resolve("list.bin");
+        Files.write(file, write(compressed, Codecs.INTEGER, list));
+
+        CustomArrayList<Integer> actual = new CustomArrayList<>(0);
+        ListMetrics metrics = new ListMetrics();
+        actual.setListener(metrics);
+        try (CustomListReader<Integer> reader = new CustomListReader<>(
+                FileChannel.open(file, StandardOpenOption.READ), Codecs.INTEGER)) {
+            assertEquals(list.size(), reader.read(actual));
+        }
+
+        assertEquals(list, actual);
+        assertEquals(1, metrics.getGrowCount());
+        assertEquals(list.size(), metrics.getPeakCapacity());
+    }
+
+    @Test
+    void bogusSizesInFileThrowEOFException(@TempDir Path directory) throws IOException {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        list.addAll(new Integer[]{1, 2, 3});
+        byte[] bytes = write(false, Codecs.INTEGER, list);
+        ByteBuffer.wrap(bytes).putInt(12, Integer.MAX_VALUE);
+        Path file = directory.resolve("count.bin");
+        Files.write(file, bytes);
+
+        try (CustomListReader<Integer> reader = new CustomListReader<>(
+                FileChannel.open(file, StandardOpenOption.READ), Codecs.INTEGER)) {
+            assertThrows(EOFException.class, reader::read);
+        }
+
+        byte[] length = bogusElementLength();
+        file = directory.resolve("length.bin");
+        Files.write(file, length);
+        try (CustomListReader<String> reader = new CustomListReader<>(
+                FileChannel.open(file, StandardOpenOption.READ), Codecs.STRING)) {
+            assertThrows(EOFException.class, reader::read);
+        }
+        try (CustomListReader<String> reader = reader(length)) {
+            assertThrows(EOFException.class, reader::read);
+        }
+    }
+
+    /**
+     * Возвращает поток из одного элемента, длина которого объявлена почти в 2 ГБ.
+     */
+    private static byte[] bogusElementLength() throws IOException {
+        CustomArrayList<String> list = new CustomArrayList<>();
+        list.add("abcd");
+        byte[] bytes = write(false, Codecs.STRING, list);
+        ByteBuffer buffer = ByteBuffer.allocate(CustomListWriter.HEADER_SIZE + 5 + 4);
+        buffer.put(bytes, 0, CustomListWriter.HEADER_SIZE);
+        CustomListWriter.putVarInt(buffer, Integer.MAX_VALUE - 8);
+        buffer.put("abcd".getBytes());
+        return buffer.array();
+    }
+
+    private static <E> byte[] write(boolean compressed, ElementCodec<E> codec, CustomArrayList<E> list)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CustomListWriter<E> writer = new CustomListWriter<>(Channels.newChannel(out), codec, compressed)) {
+            writer.write(list);
+        }
+        return out.toByteArray();
+    }
+
+    private static CustomListReader<String> reader(byte[] bytes) {
+        return new CustomListReader<>(Channels.newChannel(new ByteArrayInputStream(bytes)), Codecs.STRING);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.kozhevnikov.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.codec.Codecs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSorterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void sortsWithSeveralMergePasses() throws IOException {
+        Random random = new Random(1);
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            source.add(random.nextInt(1000) - 500);
+        }
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(Codecs.INTEGER, Comparator.naturalOrder(),
+                100, 3, directory);
+
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+        long count = sorter.sort(source, actual);
+
+        Collections.sort(source);
+        assertEquals(10_000, count);
+        assertEquals(source.size(), actual.size());
+        for (int i = 0; i < source.size(); i++) {
+            assertEquals(source.get(i), actual.get(i));
+        }
+        assertTempDirectoryIsEmpty();
+    }
+
+    @Test
+    void sortIsStable() throws IOException {
+        List<String> source = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            source.add("x".repeat(i % 7) + i);
+        }
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        ExternalSorter<String> sorter = new ExternalSorter<>(Codecs.STRING, byLength, 64, 4, directory);
+
+        List<String> actual = new ArrayList<>();
+        sorter.sort(source.iterator(), actual::add);
+
+        source.sort(byLength);
+        assertEquals(source, actual);
+        assertTempDirectoryIsEmpty();
+    }
+
+    @Test
+    void smallInputIsSortedInMemory() throws IOException {
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(Codecs.INTEGER, Comparator.reverseOrder(),
+                10, 2, directory.resolve("missing"));
+        CustomArrayList<Integer> actual = new CustomArrayList<>();
+
+        sorter.sort(List.of(3, 1, 2), actual);
+
+        assertEquals("[3, 2, 1]", actual.toString());
+        assertEquals(0, sorter.sort(List.<Integer>of(), actual));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalSorter<>(Codecs.INTEGER, Comparator.<Integer>naturalOrder(), 10, 1, null));
+    }
+
+    private void assertTempDirectoryIsEmpty() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
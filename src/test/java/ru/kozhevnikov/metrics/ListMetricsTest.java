@@ -0,0 +1,97 @@
+package ru.kozhevnikov.metrics;
+
+import org.junit.jupiter.api.Test;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.GrowthPolicy;
+import ru.kozhevnikov.Utils;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListMetricsTest {
+
+    @Test
+    void countsListOperations() {
+        ListMetrics metrics = new ListMetrics();
+        CustomArrayList<Integer> list = new CustomArrayList<>(GrowthPolicy.DEFAULT.withAutoShrink());
+        list.setListener(metrics);
+        for (int i = 0; i < 11; i++) {
+            list.add(i);
+        }
+        assertEquals(1, metrics.getGrowCount());
+        assertEquals(16, metrics.getPeakCapacity());
+        assertEquals(10, metrics.getPeakSize());
+
+        list.add(0, -1);
+        list.remove(0);
+        list.remove(10);
+        assertEquals(2, metrics.getShiftCount());
+        assertEquals(22, metrics.getShiftedElements());
+
+        list.indexOf(2);
+        list.indexOf(100);
+        list.lastIndexOf(9);
+        assertEquals(3, metrics.getScanCount());
+        assertEquals(10, metrics.getMaxScanLength());
+        assertEquals((3 + 10 + 1) / 3.0, metrics.getAverageScanLength(), 1e-9);
+
+        list.add(11);
+        list.add(12);
+        list.sort(Comparator.reverseOrder());
+        assertEquals(1, metrics.getSortCount());
+        assertTrue(metrics.getTotalSortNanos() >= metrics.getMaxSortNanos());
+        assertEquals(12, metrics.getPeakSize());
+        assertEquals(1 - 12.0 / 16, metrics.getWastedCapacityRatio(), 1e-9);
+
+        Utils.mergeSort(list, Comparator.naturalOrder());
+        list.parallelSort(Comparator.reverseOrder());
+        list.subList(2, 8).sort(Comparator.naturalOrder());
+        list.partialSort(3, Comparator.naturalOrder());
+        list.nthElement(5, Comparator.naturalOrder());
+        assertEquals(6, metrics.getSortCount());
+
+        list.clear();
+        assertEquals(1, metrics.getShrinkCount());
+        assertEquals(1 - 12.0 / 16, metrics.getWastedCapacityRatio(), 1e-9);
+
+        list.setListener(null);
+        list.add(0);
+        list.indexOf(0);
+        assertEquals(3, metrics.getScanCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getScanCount());
+        assertEquals(0, metrics.getPeakCapacity());
+        assertEquals(0, metrics.getPeakSize());
+        assertEquals(0.0, metrics.getWastedCapacityRatio());
+        assertEquals(0.0, metrics.getAverageScanLength());
+    }
+
+    @Test
+    void exposesMetricsThroughJmx() throws Exception {
+        ListMetrics metrics = new ListMetrics();
+        CustomArrayList<String> list = new CustomArrayList<>(2);
+        list.setListener(metrics);
+        list.add("a");
+        list.add("b");
+        list.add("c");
+
+        ObjectName name = metrics.register("test list");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "GrowCount"));
+            assertEquals(4, server.getAttribute(name, "PeakCapacity"));
+            assertThrows(IllegalStateException.class, () -> metrics.register("other"));
+
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, metrics.getGrowCount());
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
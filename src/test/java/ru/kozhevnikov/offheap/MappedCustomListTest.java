@@ -0,0 +1,186 @@
+package ru.kozhevnikov.offheap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.codec.Codecs;
+import ru.kozhevnikov.codec.ElementCodec;
+import ru.kozhevnikov.util.Student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCustomListTest {
+
+    static final ElementCodec<Student> STUDENT = new ElementCodec<>() {
+        @Override
+        public int encodedLength(Student element) {
+            return Integer.BYTES + Character.BYTES + Integer.BYTES + Codecs.utf8Length(element.getName());
+        }
+
+        @Override
+        public void encode(Student element, ByteBuffer target) {
+            target.putInt(element.getAge());
+            target.putChar(element.getSex());
+            target.putInt(element.getCourse());
+            target.put(element.getName().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Student decode(ByteBuffer source, int length) {
+            int age = source.getInt();
+            char sex = source.getChar();
+            int course = source.getInt();
+            byte[] name = new byte[length - 10];
+            source.get(name);
+            return new Student(new String(name, StandardCharsets.UTF_8), age, sex, course);
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void studentsRoundTripThroughFile() throws IOException {
+        Path file = directory.resolve("students.bin");
+        Student student1 = new Student("Pavel", 18, 'm', 1);
+        Student student2 = new Student("Марина", 23, 'f', 5);
+        Student student3 = new Student("Victor", 19, 'm', 2);
+
+        try (MappedCustomList<Student> students = MappedCustomList.create(file, STUDENT)) {
+            students.add(student1);
+            students.add(student2);
+            students.add(student3);
+            students.force();
+        }
+
+        try (MappedCustomList<Student> students = MappedCustomList.open(file, STUDENT)) {
+            assertEquals(3, students.size());
+            assertEquals(student2, students.get(1));
+            assertEquals(2, students.indexOf(student3));
+        }
+    }
+
+    @Test
+    void variableWidthEditsMatchArrayList() throws IOException {
+        Random random = new Random(11);
+        List<String> expected = new ArrayList<>();
+        try (MappedCustomList<String> list = MappedCustomList.create(directory.resolve("strings.bin"), Codecs.STRING)) {
+            for (int i = 0; i < 2000; i++) {
+                String value = "s".repeat(random.nextInt(20)) + i;
+                int operation = random.nextInt(4);
+                if (expected.isEmpty() || operation == 0) {
+                    list.add(value);
+                    expected.add(value);
+                } else if (operation == 1) {
+                    int index = random.nextInt(expected.size());
+                    list.add(index, value);
+                    expected.add(index, value);
+                } else if (operation == 2) {
+                    int index = random.nextInt(expected.size());
+                    list.set(index, value);
+                    expected.set(index, value);
+                } else {
+                    int index = random.nextInt(expected.size());
+                    list.remove(index);
+                    expected.remove(index);
+                }
+            }
+
+            assertEquals(expected.size(), list.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), list.get(i));
+            }
+        }
+    }
+
+    @Test
+    void fixedWidthSortRemoveIfAndReopen() throws IOException {
+        Path file = directory.resolve("ints.bin");
+        CustomArrayList<Integer> expected = new CustomArrayList<>();
+        try (MappedCustomList<Integer> list = MappedCustomList.create(file, Codecs.INTEGER)) {
+            Random random = new Random(5);
+            for (int i = 0; i < 1000; i++) {
+                int value = random.nextInt(100);
+                list.add(value);
+                expected.add(value);
+            }
+            list.sort(Comparator.naturalOrder());
+            list.removeIf(value -> value % 2 == 0);
+            expected.sort(Comparator.naturalOrder());
+            expected.removeIf(value -> value % 2 == 0);
+
+            assertEquals(expected, list);
+        }
+
+        try (MappedCustomList<Integer> list = MappedCustomList.open(file, Codecs.INTEGER)) {
+            assertEquals(expected, list);
+            assertEquals(expected.copyOfRange(10, 20), list.subList(10, 20));
+        }
+    }
+
+    @Test
+    void sortAndRemoveIfWithVariableWidth() throws IOException {
+        try (MappedCustomList<String> list = MappedCustomList.create(directory.resolve("words.bin"), Codecs.STRING)) {
+            list.addAll(new String[]{"pear", "fig", "banana", "apple", "kiwi"});
+            list.sort(Comparator.naturalOrder());
+            assertEquals("[apple, banana, fig, kiwi, pear]", list.toString());
+
+            list.removeIf(word -> word.length() == 4);
+            assertEquals("[apple, banana, fig]", list.toString());
+        }
+    }
+
+    @Test
+    void trimToSizeShrinksFile() throws IOException {
+        Path file = directory.resolve("trim.bin");
+        try (MappedCustomList<String> list = MappedCustomList.create(file, Codecs.STRING)) {
+            for (int i = 0; i < 100; i++) {
+                list.add("element" + i);
+            }
+            list.removeRange(10, 100);
+            list.trimToSize();
+
+            assertEquals(10, list.size());
+            assertEquals("element9", list.get(9));
+            list.add("last");
+            assertEquals("last", list.get(10));
+        }
+        try (MappedCustomList<String> list = MappedCustomList.open(file, Codecs.STRING)) {
+            assertEquals(11, list.size());
+            assertEquals("element0", list.get(0));
+        }
+    }
+
+    @Test
+    void openRejectsForeignFilesAndCodecs() throws IOException {
+        Path foreign = directory.resolve("foreign.bin");
+        Files.write(foreign, new byte[64]);
+        assertThrows(IOException.class, () -> MappedCustomList.open(foreign, Codecs.STRING));
+
+        Path ints = directory.resolve("ints.bin");
+        MappedCustomList.create(ints, Codecs.INTEGER).close();
+        assertThrows(IllegalArgumentException.class, () -> MappedCustomList.open(ints, Codecs.LONG));
+    }
+
+    @Test
+    void closedListRejectsOperations() throws IOException {
+        MappedCustomList<String> list = MappedCustomList.create(directory.resolve("closed.bin"), Codecs.STRING);
+        list.add("a");
+        list.close();
+        list.close();
+
+        assertTrue(list.isClosed());
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+        assertThrows(IllegalStateException.class, list::force);
+    }
+}
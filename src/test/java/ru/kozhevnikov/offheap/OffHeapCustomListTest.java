@@ -0,0 +1,172 @@
+package ru.kozhevnikov.offheap;
+
+import org.junit.jupiter.api.Test;
+import ru.kozhevnikov.CustomArrayList;
+import ru.kozhevnikov.codec.Codecs;
+import ru.kozhevnikov.codec.FixedWidthCodec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapCustomListTest {
+
+    record Point(int id, long time, double value) {
+    }
+
+    static final FixedWidthCodec<Point> POINT = new FixedWidthCodec<>() {
+        @Override
+        public int width() {
+            return 20;
+        }
+
+        @Override
+        public void write(ByteBuffer target, int offset, Point element) {
+            target.putInt(offset, element.id());
+            target.putLong(offset + 4, element.time());
+            target.putDouble(offset + 12, element.value());
+        }
+
+        @Override
+        public Point read(ByteBuffer source, int offset) {
+            return new Point(source.getInt(offset), source.getLong(offset + 4), source.getDouble(offset + 12));
+        }
+    };
+
+    @Test
+    void addGetAndSet() {
+        try (OffHeapCustomList<Point> points = new OffHeapCustomList<>(POINT, 1)) {
+            for (int i = 0; i < 100; i++) {
+                points.add(new Point(i, i * 10L, i / 2.0));
+            }
+            points.set(5, new Point(-5, -50, -2.5));
+
+            assertEquals(100, points.size());
+            assertEquals(new Point(42, 420, 21.0), points.get(42));
+            assertEquals(new Point(-5, -50, -2.5), points.get(5));
+            assertThrows(IndexOutOfBoundsException.class, () -> points.get(100));
+        }
+    }
+
+    @Test
+    void insertAndRemoveMatchArrayList() {
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<>();
+        try (OffHeapCustomList<Integer> list = new OffHeapCustomList<>(Codecs.INTEGER, 0)) {
+            for (int i = 0; i < 5000; i++) {
+                int value = random.nextInt();
+                if (expected.isEmpty() || random.nextInt(3) > 0) {
+                    int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+                    if (expected.isEmpty()) {
+                        list.add(value);
+                        expected.add(value);
+                    } else {
+                        list.add(index, value);
+                        expected.add(index, value);
+                    }
+                } else {
+                    int index = random.nextInt(expected.size());
+                    list.remove(index);
+                    expected.remove(index);
+                }
+            }
+
+            assertEquals(expected.size(), list.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), list.get(i));
+            }
+        }
+    }
+
+    @Test
+    void addAllAtIndexShiftsTailOnce() {
+        try (OffHeapCustomList<Integer> list = new OffHeapCustomList<>(Codecs.INTEGER)) {
+            list.addAll(new Integer[]{1, 2, 5});
+            list.addAll(2, List.of(3, 4));
+            list.addAll(5, new Integer[]{6});
+
+            assertEquals("[1, 2, 3, 4, 5, 6]", list.toString());
+        }
+    }
+
+    @Test
+    void removeIfAndRemoveRange() {
+        try (OffHeapCustomList<Long> list = new OffHeapCustomList<>(Codecs.LONG)) {
+            for (long i = 0; i < 200; i++) {
+                list.add(i);
+            }
+            list.removeIf(value -> value % 3 != 0);
+            list.removeRange(0, 60);
+
+            assertEquals("[180, 183, 186, 189, 192, 195, 198]", list.toString());
+            assertTrue(list.remove(Long.valueOf(186)));
+            assertFalse(list.remove(Long.valueOf(187)));
+            assertEquals(3, list.indexOf(192L));
+        }
+    }
+
+    @Test
+    void sortAndEqualityWithCustomArrayList() {
+        CustomArrayList<Double> expected = new CustomArrayList<>();
+        try (OffHeapCustomList<Double> list = new OffHeapCustomList<>(Codecs.DOUBLE)) {
+            Random random = new Random(3);
+            for (int i = 0; i < 1000; i++) {
+                double value = random.nextDouble();
+                list.add(value);
+                expected.add(value);
+            }
+            list.sort(Comparator.naturalOrder());
+            expected.sort(Comparator.naturalOrder());
+
+            assertEquals(expected, list);
+            assertEquals(expected.hashCode(), list.hashCode());
+        }
+    }
+
+    @Test
+    void subListIsIndependentCopy() {
+        try (OffHeapCustomList<Integer> list = new OffHeapCustomList<>(Codecs.INTEGER)) {
+            for (int i = 0; i < 10; i++) {
+                list.add(i);
+            }
+            try (OffHeapCustomList<Integer> copy = list.subList(2, 5)) {
+                copy.set(0, 100);
+
+                assertEquals("[100, 3, 4]", copy.toString());
+                assertEquals(2, list.get(2));
+            }
+        }
+    }
+
+    @Test
+    void recordViewReadsFieldsWithoutDecoding() {
+        try (OffHeapCustomList<Point> points = new OffHeapCustomList<>(POINT)) {
+            points.add(new Point(1, 100, 0.5));
+            points.add(new Point(2, 200, 1.5));
+
+            OffHeapCustomList<Point>.RecordView view = points.recordView();
+            assertEquals(2, view.at(1).getInt(0));
+            assertEquals(200, view.getLong(4));
+            assertEquals(0.5, view.at(0).getDouble(12));
+            assertThrows(IndexOutOfBoundsException.class, () -> view.getLong(16));
+            assertThrows(IndexOutOfBoundsException.class, () -> view.at(2));
+        }
+    }
+
+    @Test
+    void closedListRejectsOperations() {
+        OffHeapCustomList<Integer> list = new OffHeapCustomList<>(Codecs.INTEGER);
+        list.add(1);
+        list.close();
+        list.close();
+
+        assertTrue(list.isClosed());
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+        assertThrows(IllegalStateException.class, () -> list.add(2));
+        assertThrows(IllegalStateException.class, list::iterator);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.kozhevnikov.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoubleCustomArrayListTest {
+
+    @Test
+    void indexOfFindsNaN() {
+        DoubleCustomArrayList list = new DoubleCustomArrayList();
+        list.add(1.5);
+        list.add(Double.NaN);
+
+        assertEquals(1, list.indexOf(Double.NaN));
+        assertEquals(-1, list.indexOf(2.5));
+    }
+
+    @Test
+    void sortWithAndWithoutComparator() {
+        DoubleCustomArrayList list = new DoubleCustomArrayList();
+        list.add(0.5);
+        list.add(-2.0);
+        list.add(10.25);
+
+        list.sort();
+        assertArrayEquals(new double[]{-2.0, 0.5, 10.25}, list.toArray());
+
+        list.sort((a, b) -> Double.compare(b, a));
+        assertArrayEquals(new double[]{10.25, 0.5, -2.0}, list.toArray());
+    }
+
+    @Test
+    void scansCompareLikeDoubleCompare() {
+        DoubleCustomArrayList list = new DoubleCustomArrayList();
+        for (int i = 0; i < 50; i++) {
+            list.add(i % 2 == 0 ? 0.0 : Double.NaN);
+        }
+        list.add(-0.0);
+        DoubleCustomArrayList other = new DoubleCustomArrayList();
+        for (int i = 0; i < 20; i++) {
+            other.add(i % 3 == 0 ? -0.0 : Double.NaN);
+        }
+
+        assertEquals(50, list.lastIndexOf(-0.0));
+        assertEquals(49, list.lastIndexOf(Double.NaN));
+        assertEquals(25, list.count(0.0));
+        assertEquals(1, list.count(-0.0));
+        assertTrue(list.containsAll(other));
+        other.add(1.0);
+        assertFalse(list.containsAll(other));
+    }
+}
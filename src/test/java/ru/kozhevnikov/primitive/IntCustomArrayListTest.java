@@ -0,0 +1,207 @@
+package ru.kozhevnikov.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntCustomArrayListTest {
+
+    private IntCustomArrayList listOf(int... values) {
+        IntCustomArrayList list = new IntCustomArrayList();
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Test
+    void constructorWithNegativeCapacity() {
+        Throwable illegalException = assertThrows(IllegalArgumentException.class,
+                () -> new IntCustomArrayList(-1));
+
+        assertEquals("Illegal capacity", illegalException.getMessage());
+    }
+
+    @Test
+    void addMultipleElementsWithExpansion() {
+        IntCustomArrayList list = new IntCustomArrayList(0);
+
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+
+        assertEquals(100, list.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, list.get(i));
+        }
+    }
+
+    @Test
+    void addElementToMiddleOfList() {
+        IntCustomArrayList list = listOf(1, 3);
+
+        list.add(1, 2);
+
+        assertEquals(listOf(1, 2, 3), list);
+    }
+
+    @Test
+    void getElementOutOfBounds() {
+        IntCustomArrayList list = listOf(1);
+        Throwable outOfBoundsException = assertThrows(IndexOutOfBoundsException.class,
+                () -> list.get(1));
+
+        assertEquals("Index 1 out of bounds for length 1", outOfBoundsException.getMessage());
+    }
+
+    @Test
+    void removeByIndexAndValue() {
+        IntCustomArrayList list = listOf(5, 6, 7, 6);
+
+        list.remove(0);
+        boolean removed = list.removeValue(6);
+        boolean missing = list.removeValue(42);
+
+        assertTrue(removed);
+        assertFalse(missing);
+        assertEquals(listOf(7, 6), list);
+    }
+
+    @Test
+    void indexOf() {
+        IntCustomArrayList list = listOf(4, 8, 15, 16, 23, 42);
+
+        assertEquals(3, list.indexOf(16));
+        assertEquals(-1, list.indexOf(17));
+    }
+
+    @Test
+    void removeIf() {
+        IntCustomArrayList list = listOf(1, 2, 3, 4, 5, 6);
+
+        list.removeIf(value -> value % 2 == 0);
+
+        assertEquals(listOf(1, 3, 5), list);
+    }
+
+    @Test
+    void removeIfWithFilterEqualsNull() {
+        IntCustomArrayList list = listOf(1);
+
+        assertThrows(NullPointerException.class, () -> list.removeIf(null));
+    }
+
+    @Test
+    void sortNaturalOrder() {
+        IntCustomArrayList list = listOf(5, -1, 3, 0, 2);
+
+        list.sort();
+
+        assertEquals(listOf(-1, 0, 2, 3, 5), list);
+    }
+
+    @Test
+    void sortWithComparator() {
+        IntCustomArrayList list = new IntCustomArrayList();
+        for (int i = 0; i < 1000; i++) {
+            list.add((i * 7919) % 1000);
+        }
+
+        list.sort((a, b) -> Integer.compare(b, a));
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(999 - i, list.get(i));
+        }
+    }
+
+    @Test
+    void sortWithComparatorIsStable() {
+        IntCustomArrayList list = new IntCustomArrayList();
+        for (int i = 0; i < 100; i++) {
+            list.add((i % 5) * 1000 + i);
+        }
+
+        list.sort((a, b) -> Integer.compare(a / 1000, b / 1000));
+
+        for (int i = 1; i < 100; i++) {
+            int previous = list.get(i - 1);
+            int current = list.get(i);
+            assertTrue(previous / 1000 < current / 1000
+                    || previous / 1000 == current / 1000 && previous < current);
+        }
+    }
+
+    @Test
+    void getSubList() {
+        IntCustomArrayList list = listOf(1, 2, 3, 4);
+
+        assertEquals(listOf(2, 3), list.subList(1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.subList(0, 8));
+        assertThrows(IllegalArgumentException.class, () -> list.subList(3, 2));
+    }
+
+    @Test
+    void iteratorDoesNotBox() {
+        IntCustomArrayList list = listOf(1, 2, 3);
+        PrimitiveIterator.OfInt iterator = list.iterator();
+
+        int sum = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.nextInt();
+        }
+
+        assertEquals(6, sum);
+        assertThrows(NoSuchElementException.class, iterator::nextInt);
+    }
+
+    @Test
+    void equalsIgnoresCapacity() {
+        IntCustomArrayList small = new IntCustomArrayList(2);
+        IntCustomArrayList large = new IntCustomArrayList(100);
+        small.add(1);
+        large.add(1);
+
+        assertEquals(small, large);
+        assertEquals(small.hashCode(), large.hashCode());
+    }
+
+    @Test
+    void clearAndToString() {
+        IntCustomArrayList list = listOf(1, 2, 3);
+
+        assertEquals("[1, 2, 3]", list.toString());
+        list.clear();
+
+        assertEquals(0, list.size());
+        assertEquals("[]", list.toString());
+    }
+
+    @Test
+    void lastIndexOfCountAndContainsAll() {
+        IntCustomArrayList list = new IntCustomArrayList();
+        for (int i = 0; i < 100; i++) {
+            list.add(i % 10);
+        }
+        IntCustomArrayList few = new IntCustomArrayList();
+        few.add(3);
+        few.add(9);
+        IntCustomArrayList many = new IntCustomArrayList();
+        for (int i = 0; i < 20; i++) {
+            many.add(9 - i % 10);
+        }
+
+        assertEquals(93, list.lastIndexOf(3));
+        assertEquals(10, list.count(7));
+        assertEquals(0, list.count(10));
+        assertTrue(list.contains(9));
+        assertTrue(list.containsAll(few));
+        assertTrue(list.containsAll(many));
+        many.add(10);
+        few.add(-1);
+        assertFalse(list.containsAll(many));
+        assertFalse(list.containsAll(few));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.kozhevnikov.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongCustomArrayListTest {
+
+    @Test
+    void addGetAndRemove() {
+        LongCustomArrayList list = new LongCustomArrayList();
+        for (long i = 0; i < 20; i++) {
+            list.add(i * 10_000_000_000L);
+        }
+
+        list.remove(0);
+        list.removeValue(50_000_000_000L);
+
+        assertEquals(18, list.size());
+        assertEquals(10_000_000_000L, list.get(0));
+        assertEquals(-1, list.indexOf(50_000_000_000L));
+    }
+
+    @Test
+    void sortWithAndWithoutComparator() {
+        LongCustomArrayList list = new LongCustomArrayList();
+        list.add(3L);
+        list.add(Long.MIN_VALUE);
+        list.add(Long.MAX_VALUE);
+
+        list.sort();
+        assertArrayEquals(new long[]{Long.MIN_VALUE, 3L, Long.MAX_VALUE}, list.toArray());
+
+        list.sort((a, b) -> Long.compare(b, a));
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 3L, Long.MIN_VALUE}, list.toArray());
+    }
+
+    @Test
+    void lastIndexOfCountAndContainsAll() {
+        LongCustomArrayList list = new LongCustomArrayList();
+        for (long i = 0; i < 100; i++) {
+            list.add(i % 10 + Long.MAX_VALUE - 10);
+        }
+        LongCustomArrayList other = new LongCustomArrayList();
+        for (long i = 0; i < 20; i++) {
+            other.add(Long.MAX_VALUE - 1 - i % 10);
+        }
+
+        assertEquals(93, list.lastIndexOf(Long.MAX_VALUE - 7));
+        assertEquals(10, list.count(Long.MAX_VALUE - 1));
+        assertTrue(list.containsAll(other));
+        other.add(Long.MAX_VALUE);
+        assertFalse(list.containsAll(other));
+        assertFalse(list.contains(0L));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.kozhevnikov.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueScannerTest {
+    private static final ValueScanner VECTOR = new VectorValueScanner();
+    private static final ValueScanner SCALAR = ValueScanner.SCALAR;
+
+    @Test
+    void vectorScannerIsUsedWhenModuleIsPresent() {
+        assertInstanceOf(VectorValueScanner.class, ValueScanner.DEFAULT);
+    }
+
+    @Test
+    void vectorScansMatchScalarScans() {
+        Random random = new Random(42);
+        for (int length = 0; length < 70; length++) {
+            int[] ints = new int[length];
+            long[] longs = new long[length];
+            double[] doubles = new double[length];
+            for (int i = 0; i < length; i++) {
+                ints[i] = random.nextInt(5);
+                longs[i] = random.nextInt(5) - 2L;
+                doubles[i] = switch (random.nextInt(6)) {
+                    case 0 -> Double.NaN;
+                    case 1 -> Double.longBitsToDouble(0x7ff8000000000001L);
+                    case 2 -> -0.0;
+                    case 3 -> 0.0;
+                    default -> random.nextInt(2);
+                };
+            }
+            for (int begin = 0; begin <= length; begin += 3) {
+                for (int end = begin; end <= length; end += 5) {
+                    for (int value = -2; value < 5; value++) {
+                        assertEquals(SCALAR.indexOf(ints, begin, end, value), VECTOR.indexOf(ints, begin, end, value));
+                        assertEquals(SCALAR.lastIndexOf(ints, begin, end, value), VECTOR.lastIndexOf(ints, begin, end, value));
+                        assertEquals(SCALAR.count(ints, begin, end, value), VECTOR.count(ints, begin, end, value));
+                        assertEquals(SCALAR.indexOf(longs, begin, end, value), VECTOR.indexOf(longs, begin, end, value));
+                        assertEquals(SCALAR.lastIndexOf(longs, begin, end, value), VECTOR.lastIndexOf(longs, begin, end, value));
+                        assertEquals(SCALAR.count(longs, begin, end, value), VECTOR.count(longs, begin, end, value));
+                    }
+                    for (double value : new double[]{Double.NaN, -0.0, 0.0, 1.0, 2.0}) {
+                        assertEquals(SCALAR.indexOf(doubles, begin, end, value), VECTOR.indexOf(doubles, begin, end, value));
+                        assertEquals(SCALAR.lastIndexOf(doubles, begin, end, value), VECTOR.lastIndexOf(doubles, begin, end, value));
+                        assertEquals(SCALAR.count(doubles, begin, end, value), VECTOR.count(doubles, begin, end, value));
+                    }
+                }
+            }
+        }
+    }
+}